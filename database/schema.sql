@@ -1,4 +1,6 @@
 -- VitalAid Database Schema
+-- Baseline only: indexes and later changes are versioned migrations under
+-- src/main/resources/db/migration, applied at startup by config.MigrationRunner
 -- Drop existing database if exists
 DROP DATABASE IF EXISTS vitalaid_db;
 CREATE DATABASE vitalaid_db CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
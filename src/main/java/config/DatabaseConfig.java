@@ -1,5 +1,7 @@
 package config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import java.sql.*;
 import java.util.Properties;
 
@@ -22,9 +24,13 @@ public class DatabaseConfig {
     private static final int MAX_CONNECTIONS = 20;
     private static final int INITIAL_CONNECTIONS = 5;
     
+    // Rows fetched per round trip by server-side cursors (streaming reads)
+    public static final int STREAM_FETCH_SIZE = 500;
+    
     // Singleton instance
     private static DatabaseConfig instance;
     private Connection connection;
+    private HikariDataSource pool;
     
     /**
      * Private constructor to prevent instantiation
@@ -55,8 +61,9 @@ public class DatabaseConfig {
     }
     
     /**
-     * Establish and return database connection
-     * Implements connection retry logic with exponential backoff
+     * Establish and return the single shared database connection
+     * Implements connection retry logic with exponential backoff.
+     * Not safe to use from several threads; DAOs take pooled connections instead.
      * 
      * @return Active database connection
      * @throws SQLException if connection fails after retries
@@ -109,19 +116,58 @@ public class DatabaseConfig {
     
     /**
      * Get a new connection from pool (for concurrent operations)
+     * The pool is created on first use; closing the connection returns it to the pool.
      * 
-     * @return New database connection
-     * @throws SQLException if connection creation fails
+     * @return Pooled database connection
+     * @throws SQLException if no connection can be obtained
      */
     public Connection getNewConnection() throws SQLException {
+        return getPool().getConnection();
+    }
+    
+    private synchronized HikariDataSource getPool() {
+        if (pool == null) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(DB_URL);
+            config.setUsername(DB_USER);
+            config.setPassword(DB_PASSWORD);
+            config.addDataSourceProperty("useSSL", "false");
+            config.addDataSourceProperty("serverTimezone", "UTC");
+            config.addDataSourceProperty("allowPublicKeyRetrieval", "true");
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.setMaximumPoolSize(MAX_CONNECTIONS);
+            config.setMinimumIdle(INITIAL_CONNECTIONS);
+            config.setPoolName("VitalAidPool");
+            
+            pool = new HikariDataSource(config);
+            System.out.println("✓ Connection pool started (max " + MAX_CONNECTIONS + " connections)");
+        }
+        return pool;
+    }
+    
+    /**
+     * Get a dedicated connection for streaming large result sets.
+     * Enables server-side cursors so statements with a positive fetch size
+     * pull STREAM_FETCH_SIZE rows per round trip instead of buffering the
+     * whole result client-side. The caller owns and must close it.
+     * 
+     * @return New database connection with cursor fetch enabled
+     * @throws SQLException if connection creation fails
+     */
+    public Connection getStreamingConnection() throws SQLException {
         Properties props = new Properties();
         props.setProperty("user", DB_USER);
         props.setProperty("password", DB_PASSWORD);
         props.setProperty("useSSL", "false");
         props.setProperty("serverTimezone", "UTC");
         props.setProperty("allowPublicKeyRetrieval", "true");
+        props.setProperty("useCursorFetch", "true");
+        props.setProperty("defaultFetchSize", String.valueOf(STREAM_FETCH_SIZE));
         
-        return DriverManager.getConnection(DB_URL, props);
+        Connection conn = DriverManager.getConnection(DB_URL, props);
+        conn.setReadOnly(true);
+        return conn;
     }
     
     /**
@@ -150,6 +196,14 @@ public class DatabaseConfig {
         } catch (SQLException e) {
             System.err.println("✗ Error closing connection: " + e.getMessage());
         }
+        
+        synchronized (this) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+                System.out.println("✓ Connection pool closed");
+            }
+        }
     }
     
     /**
@@ -0,0 +1,216 @@
+package config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * MigrationRunner - Applies versioned schema migrations at startup
+ * Migrations are numbered SQL scripts under /db/migration on the classpath
+ * (V001__description.sql, ...). Each applied version is recorded in the
+ * schema_version table together with a checksum, so every script runs
+ * exactly once per database and edits to applied scripts are reported.
+ *
+ * @author VitalAid Team
+ * @version 1.0
+ */
+public class MigrationRunner {
+
+    private static final String MIGRATION_PATH = "/db/migration/";
+
+    // Registered in order; add new scripts at the end and never renumber applied ones
+    private static final String[] MIGRATIONS = {
+        "V001__request_queue_indexes.sql",
+        "V002__donor_matching_indexes.sql",
+        "V003__notification_inbox_index.sql",
+        "V004__donor_match_unique.sql",
+        "V005__stock_ledger.sql",
+        "V006__blood_units.sql",
+        "V007__ward_occupancy.sql",
+        "V008__donor_reliability.sql",
+        "V009__request_accepted_donor.sql",
+        "V010__blood_units_backfill.sql"
+    };
+
+    // MySQL errors meaning the statement's effect is already in place (database
+    // baselined from schema.sql, index created by hand, or a crash after the DDL
+    // auto-committed but before the version was recorded)
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+    private static final int ER_FK_DUP_NAME = 1826;
+
+    private static final String CREATE_VERSION_TABLE =
+        "CREATE TABLE IF NOT EXISTS schema_version (" +
+        "version INT PRIMARY KEY, " +
+        "script VARCHAR(200) NOT NULL, " +
+        "checksum BIGINT NOT NULL, " +
+        "execution_ms INT NOT NULL, " +
+        "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+        ") ENGINE=InnoDB";
+
+    private static MigrationRunner instance;
+    private final DatabaseConfig dbConfig;
+
+    private MigrationRunner() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    public static synchronized MigrationRunner getInstance() {
+        if (instance == null) {
+            instance = new MigrationRunner();
+        }
+        return instance;
+    }
+
+    /**
+     * Apply every registered migration that is not yet recorded in schema_version
+     *
+     * @return true if the schema is up to date, false if a migration failed
+     */
+    public synchronized boolean migrate() {
+        try (Connection conn = dbConfig.getNewConnection()) {
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(CREATE_VERSION_TABLE);
+            }
+
+            Map<Integer, Long> applied = loadAppliedVersions(conn);
+            int count = 0;
+
+            for (String script : MIGRATIONS) {
+                int version = parseVersion(script);
+                String sql = readScript(script);
+                long checksum = checksum(sql);
+
+                Long recorded = applied.get(version);
+                if (recorded != null) {
+                    if (recorded != checksum) {
+                        System.err.println("⚠ Migration " + script + " changed after it was applied; not re-running");
+                    }
+                    continue;
+                }
+
+                long start = System.currentTimeMillis();
+                applyScript(conn, script, sql);
+                recordVersion(conn, version, script, checksum, (int) (System.currentTimeMillis() - start));
+
+                System.out.println("✓ Applied migration " + script);
+                count++;
+            }
+
+            System.out.println("✓ Schema up to date (" + count + " migration(s) applied)");
+            return true;
+
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ Schema migration failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<Integer, Long> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+
+        return applied;
+    }
+
+    /**
+     * Run the statements of one script in order. MySQL commits DDL implicitly,
+     * so a failing script stops here without being recorded and is retried
+     * (statements already in place are skipped) on the next start.
+     */
+    private void applyScript(Connection conn, String script, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : splitStatements(sql)) {
+                try {
+                    stmt.execute(statement);
+                } catch (SQLException e) {
+                    if (isAlreadyInPlace(e.getErrorCode())) {
+                        System.out.println("⚠ " + script + ": " + e.getMessage() + " (already in place)");
+                    } else {
+                        throw new SQLException(script + ": " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isAlreadyInPlace(int errorCode) {
+        return errorCode == ER_DUP_FIELDNAME || errorCode == ER_DUP_KEYNAME
+            || errorCode == ER_CANT_DROP_FIELD_OR_KEY || errorCode == ER_FK_DUP_NAME;
+    }
+
+    private void recordVersion(Connection conn, int version, String script, long checksum, int executionMs)
+            throws SQLException {
+        String sql = "INSERT INTO schema_version (version, script, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, version);
+            pstmt.setString(2, script);
+            pstmt.setLong(3, checksum);
+            pstmt.setInt(4, executionMs);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private String readScript(String script) throws IOException {
+        try (InputStream in = MigrationRunner.class.getResourceAsStream(MIGRATION_PATH + script)) {
+            if (in == null) {
+                throw new IOException("Migration script not found: " + MIGRATION_PATH + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Split a script into statements on ';' at end of line, dropping "--" comment lines
+     */
+    private static List<String> splitStatements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String line : sql.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().trim();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+
+        return statements;
+    }
+
+    private static int parseVersion(String script) {
+        // V001__description.sql -> 1
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -53,11 +53,19 @@ public class DonorController {
     private final NotificationService notificationService = new NotificationService();
     private final DonorMatchingService donorMatchingService = new DonorMatchingService();
     
+    private static final int REQUEST_PAGE_SIZE = 30;
+    private ScrollPager<NotificationDisplay> requestsPager;
+    
     @FXML
     public void initialize() {
         currentUser = SessionManager.getCurrentUser();
         currentDonor = SessionManager.getCurrentDonor();
         
+        requestsPager = ScrollPager.attach(requestsList, cursor ->
+            notificationService.getUnreadNotifications(currentUser.getUserId(),
+                    Notification.NotificationType.MATCH, REQUEST_PAGE_SIZE, cursor)
+                .map(n -> new NotificationDisplay(n, this)));
+        
         if (currentDonor != null) {
             loadDonorData();
             loadNotifications();
@@ -129,14 +137,8 @@ public class DonorController {
     }
     
     private void loadMatchingRequests() {
-        List<Notification> notifications = notificationService.getUnreadNotifications(currentUser.getUserId());
-        
-        ObservableList<NotificationDisplay> requests = notifications.stream()
-            .filter(n -> n.getNotificationType() == Notification.NotificationType.MATCH)
-            .map(n -> new NotificationDisplay(n, this)) 
-            .collect(Collectors.toCollection(FXCollections::observableArrayList));
-            
-        requestsList.setItems(requests);
+        // First page of MATCH notifications; more are fetched as the list is scrolled
+        requestsPager.reset();
     }
     
     private void setupTableColumns() {
@@ -221,13 +223,25 @@ public class DonorController {
         // FIX: Pass the Donor's primary key ID to update the donor_matches table
         int donorId = currentDonor.getDonorId();
         
-        if (donorMatchingService.recordDonorResponse(requestId, donorId, "ACCEPTED")) {
+        DonorMatchingService.ResponseResult result =
+            donorMatchingService.recordDonorResponse(requestId, donorId, "ACCEPTED");
+        
+        if (result == DonorMatchingService.ResponseResult.ACCEPTED) {
             
             notificationService.markAsRead(notification.getNotificationId());
             
             VitalAidApp.showSuccessAlert("Success!", 
                 "Thank you for accepting! The patient's hospital has been notified and will contact you shortly.\nRequest ID: " + requestId);
             
+            loadNotifications();
+            loadMatchingRequests();
+        } else if (result == DonorMatchingService.ResponseResult.ALREADY_FULFILLED) {
+            
+            notificationService.markAsRead(notification.getNotificationId());
+            
+            VitalAidApp.showSuccessAlert("Already Covered", 
+                "Thank you! Another donor has already accepted this request, so no action is needed.\nRequest ID: " + requestId);
+            
             loadNotifications();
             loadMatchingRequests();
         } else {
@@ -245,7 +259,8 @@ public class DonorController {
         // FIX: Pass the Donor's primary key ID
         int donorId = currentDonor.getDonorId();
         
-        if (donorMatchingService.recordDonorResponse(requestId, donorId, "REJECTED")) {
+        if (donorMatchingService.recordDonorResponse(requestId, donorId, "REJECTED")
+                == DonorMatchingService.ResponseResult.REJECTED) {
              notificationService.markAsRead(notification.getNotificationId());
              loadNotifications();
              loadMatchingRequests();
@@ -8,8 +8,17 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import model.*;
 import dao.*;
+import service.BloodUnitService;
+import service.DemandForecaster;
+import service.InventoryIndex;
+import service.MaintenanceScheduler;
 import service.NotificationService;
+import service.OccupancyService;
+import service.RedistributionOptimizer;
+import service.StockAdjustmentBuffer;
+import service.VentilatorAllocationService;
 import view.VitalAidApp;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import javafx.application.Platform;
@@ -17,6 +26,7 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonBar.ButtonData;
 import javafx.scene.layout.GridPane;
 import javafx.geometry.Insets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -41,6 +51,8 @@ public class HospitalController {
     @FXML private TableColumn<BloodStockRow, String> bloodGroupColumn;
     @FXML private TableColumn<BloodStockRow, String> bloodQuantityColumn;
     @FXML private TableColumn<BloodStockRow, String> bloodThresholdColumn;
+    @FXML private TableColumn<BloodStockRow, String> bloodSuggestedColumn;
+    @FXML private TableColumn<BloodStockRow, String> bloodCoverColumn;
     @FXML private TableColumn<BloodStockRow, String> bloodStatusColumn;
     @FXML private TableColumn<BloodStockRow, String> bloodExpiryColumn;
     @FXML private TableColumn<BloodStockRow, String> bloodLastUpdatedColumn;
@@ -53,6 +65,8 @@ public class HospitalController {
     @FXML private TableColumn<PlasmaStockRow, String> plasmaGroupColumn;
     @FXML private TableColumn<PlasmaStockRow, String> plasmaQuantityColumn;
     @FXML private TableColumn<PlasmaStockRow, String> plasmaThresholdColumn;
+    @FXML private TableColumn<PlasmaStockRow, String> plasmaSuggestedColumn;
+    @FXML private TableColumn<PlasmaStockRow, String> plasmaCoverColumn;
     @FXML private TableColumn<PlasmaStockRow, String> plasmaStatusColumn;
     @FXML private TableColumn<PlasmaStockRow, String> plasmaExpiryColumn;
     @FXML private TableColumn<PlasmaStockRow, Button> plasmaActionColumn;
@@ -87,13 +101,34 @@ public class HospitalController {
     private final VentilatorDAO ventilatorDAO = new VentilatorDAO();
     private final RequestDAO requestDAO = new RequestDAO();
     private final NotificationService notificationService = new NotificationService();
+    private final StockAdjustmentBuffer stockBuffer = StockAdjustmentBuffer.getInstance();
+    private final BloodUnitService bloodUnitService = BloodUnitService.getInstance();
+    private final VentilatorAllocationService ventilatorAllocations = VentilatorAllocationService.getInstance();
     private final PatientDAO patientDAO = new PatientDAO(); // Added for request approval logic
     
+    // Keyset paging for the requests table
+    private static final int REQUEST_PAGE_SIZE = 50;
+    private ScrollPager<RequestRow> requestsPager;
+    
+    // How long approved blood/plasma stays set aside before the hold lapses
+    private static final long APPROVAL_HOLD_MINUTES = 120;
+    
+    // Default shelf life of a scanned bag (same defaults as new stock lines)
+    private static final int BLOOD_SHELF_LIFE_DAYS = 30;
+    private static final int PLASMA_SHELF_LIFE_DAYS = 60;
+    
+    // Default gap between ventilator maintenances
+    private static final int MAINTENANCE_INTERVAL_DAYS = 90;
+    
     @FXML
     public void initialize() {
         currentUser = SessionManager.getCurrentUser();
         currentHospital = SessionManager.getCurrentHospital();
         
+        requestsPager = ScrollPager.attach(requestsTable, cursor ->
+            requestDAO.getPendingRequestsForHospital(currentHospital, REQUEST_PAGE_SIZE, cursor)
+                .map(RequestRow::new));
+        
         if (currentHospital != null) {
             loadHospitalData();
             loadStatistics();
@@ -137,23 +172,35 @@ public class HospitalController {
             .count();
         availableVentilatorsText.setText(available + "/" + ventilators.size());
         
-        // Get pending requests count
-        // NOTE: This currently loads ALL pending requests in the system. 
-        // In a real system, it would likely load only requests assigned to or relevant to this hospital.
-        List<Request> requests = requestDAO.getPendingRequests();
-        pendingRequestsText.setText(String.valueOf(requests.size()));
+        // Get pending requests count (only requests assigned to or relevant to this hospital)
+        int pendingCount = requestDAO.countPendingRequestsForHospital(currentHospital);
+        pendingRequestsText.setText(String.valueOf(pendingCount));
         
         // Check for low stock
-        List<BloodStock> lowStocks = stockDAO.getLowStockAlerts(currentHospital.getHospitalId());
-        if (!lowStocks.isEmpty()) {
+        showLowStockAlerts(stockDAO.getLowStockAlerts(currentHospital.getHospitalId()));
+    }
+    
+    /**
+     * Show (or hide) the low stock alert box
+     * (notifications are sent by StockThresholdMonitor when a line drops below its threshold)
+     */
+    private void showLowStockAlerts(List<BloodStock> lowStocks) {
+        // Near-expiry stock that another hospital nearby will use in time
+        List<TransferSuggestion> transfers =
+            RedistributionOptimizer.getInstance().getSuggestionsFrom(currentHospital.getHospitalId());
+        
+        if (!lowStocks.isEmpty() || !transfers.isEmpty()) {
             lowStockAlertBox.setVisible(true);
             ObservableList<String> alerts = FXCollections.observableArrayList();
             for (BloodStock stock : lowStocks) {
                 alerts.add("⚠️ " + stock.getBloodGroup().getDisplay() + 
                           ": " + stock.getQuantityMl() + "ml (need " + stock.getMinThreshold() + "ml)");
-                
-                // OPTIONAL: Send low stock email/notification here if necessary
-                // notificationService.sendStockAlert(currentUser.getUserId(), stock.getBloodGroup().getDisplay(), stock.getQuantityMl(), stock.getMinThreshold());
+            }
+            for (TransferSuggestion transfer : transfers) {
+                alerts.add("↪ Send " + transfer.getQuantityMl() + "ml " + transfer.getBloodGroup().getDisplay() + 
+                          " " + transfer.getProduct().name().toLowerCase() + " to " + 
+                          transfer.getToHospital().getHospitalName() + 
+                          String.format(" (%.1f km) before %s", transfer.getDistanceKm(), transfer.getExpiresOn()));
             }
             lowStockList.setItems(alerts);
         } else {
@@ -176,6 +223,80 @@ public class HospitalController {
         bloodStockTable.setItems(rows);
     }
     
+    /**
+     * Apply the quantity returned by a stock update to the blood stock table,
+     * then refresh totals and alerts from the table instead of re-querying
+     */
+    private void applyBloodStockChange(Donor.BloodGroup group, int newQuantity) {
+        ObservableList<BloodStockRow> rows = bloodStockTable.getItems();
+        boolean found = false;
+        
+        for (int i = 0; i < rows.size(); i++) {
+            BloodStock stock = rows.get(i).getStock();
+            if (stock.getBloodGroup() == group) {
+                stock.setQuantityMl(newQuantity);
+                stock.setLastUpdated(LocalDateTime.now());
+                rows.set(i, new BloodStockRow(stock));
+                found = true;
+                break;
+            }
+        }
+        
+        if (!found) {
+            loadBloodStock(); // First stock for this group: fetch the new row
+        }
+        
+        refreshStockTotals();
+    }
+    
+    /**
+     * Apply the quantity returned by a stock update to the plasma stock table
+     */
+    private void applyPlasmaStockChange(Donor.BloodGroup group, int newQuantity) {
+        ObservableList<PlasmaStockRow> rows = plasmaStockTable.getItems();
+        boolean found = false;
+        
+        for (int i = 0; i < rows.size(); i++) {
+            PlasmaStock stock = rows.get(i).getStock();
+            if (stock.getBloodGroup() == group) {
+                stock.setQuantityMl(newQuantity);
+                stock.setLastUpdated(LocalDateTime.now());
+                rows.set(i, new PlasmaStockRow(stock));
+                found = true;
+                break;
+            }
+        }
+        
+        if (!found) {
+            loadPlasmaStock();
+        }
+        
+        refreshStockTotals();
+    }
+    
+    /**
+     * Recompute the stock totals and low stock alerts from the loaded tables
+     */
+    private void refreshStockTotals() {
+        List<BloodStock> lowStocks = new ArrayList<>();
+        int totalBlood = 0;
+        for (BloodStockRow row : bloodStockTable.getItems()) {
+            totalBlood += row.getStock().getQuantityMl();
+            if (row.getStock().isBelowThreshold()) {
+                lowStocks.add(row.getStock());
+            }
+        }
+        totalBloodText.setText(totalBlood + " ml");
+        
+        int totalPlasma = 0;
+        for (PlasmaStockRow row : plasmaStockTable.getItems()) {
+            totalPlasma += row.getStock().getQuantityMl();
+        }
+        totalPlasmaText.setText(totalPlasma + " ml");
+        
+        showLowStockAlerts(lowStocks);
+    }
+    
     /**
      * Load plasma stock table
      */
@@ -200,7 +321,9 @@ public class HospitalController {
         ObservableList<VentilatorRow> rows = FXCollections.observableArrayList();
         
         for (Ventilator vent : ventilators) {
-            rows.add(new VentilatorRow(vent));
+            VentilatorRow row = new VentilatorRow(vent);
+            row.getActionButton().setOnAction(e -> manageVentilator(vent));
+            rows.add(row);
         }
         
         ventilatorsTable.setItems(rows);
@@ -211,14 +334,8 @@ public class HospitalController {
      */
     private void loadRequests() {
         // Displays Patient Requests details: ID, Type, Patient, Group, Quantity, Urgency, Date
-        List<Request> requests = requestDAO.getPendingRequests();
-        ObservableList<RequestRow> rows = FXCollections.observableArrayList();
-        
-        for (Request req : requests) {
-            rows.add(new RequestRow(req));
-        }
-        
-        requestsTable.setItems(rows);
+        // Only the first page is loaded here; further pages are fetched as the table is scrolled
+        requestsPager.reset();
     }
     
     /**
@@ -243,6 +360,10 @@ public class HospitalController {
             new javafx.beans.property.SimpleStringProperty(data.getValue().getQuantity()));
         bloodThresholdColumn.setCellValueFactory(data -> 
             new javafx.beans.property.SimpleStringProperty(data.getValue().getThreshold()));
+        bloodSuggestedColumn.setCellValueFactory(data -> 
+            new javafx.beans.property.SimpleStringProperty(data.getValue().getSuggestedThreshold()));
+        bloodCoverColumn.setCellValueFactory(data -> 
+            new javafx.beans.property.SimpleStringProperty(data.getValue().getDaysOfCover()));
         bloodStatusColumn.setCellValueFactory(data -> 
             new javafx.beans.property.SimpleStringProperty(data.getValue().getStatus()));
         bloodExpiryColumn.setCellValueFactory(data -> 
@@ -259,6 +380,10 @@ public class HospitalController {
             new javafx.beans.property.SimpleStringProperty(data.getValue().getQuantity()));
         plasmaThresholdColumn.setCellValueFactory(data -> 
             new javafx.beans.property.SimpleStringProperty(data.getValue().getThreshold()));
+        plasmaSuggestedColumn.setCellValueFactory(data -> 
+            new javafx.beans.property.SimpleStringProperty(data.getValue().getSuggestedThreshold()));
+        plasmaCoverColumn.setCellValueFactory(data -> 
+            new javafx.beans.property.SimpleStringProperty(data.getValue().getDaysOfCover()));
         plasmaStatusColumn.setCellValueFactory(data -> 
             new javafx.beans.property.SimpleStringProperty(data.getValue().getStatus()));
         plasmaExpiryColumn.setCellValueFactory(data -> 
@@ -327,10 +452,47 @@ public class HospitalController {
         
         if (confirmed) {
             try {
-                // 2. Update the request status in the database
-                if (requestDAO.updateRequestStatus(request.getRequestId(), Request.RequestStatus.APPROVED)) {
+                // 2. Set the stock (or a ventilator) aside so it cannot be promised to anyone else
+                StockHold hold = null;
+                VentilatorAllocation allocation = null;
+                if (request.getRequestType() == Request.RequestType.VENTILATOR) {
+                    allocation = ventilatorAllocations.allocate(currentHospital.getHospitalId(), null,
+                        request.getPatientId(), request.getRequestId());
+                    
+                    if (allocation == null) {
+                        // Wait in line: the next unit released or back from maintenance goes to the head
+                        ventilatorAllocations.enqueue(currentHospital.getHospitalId(), request);
+                        VitalAidApp.showErrorAlert("No Ventilator Free", 
+                            "Every ventilator of " + currentHospital.getHospitalName() + 
+                            " is in use or out of service.\nThe request is on the waitlist and will be " +
+                            "approved automatically when a ventilator comes free.");
+                        return;
+                    }
+                } else {
+                    StockProduct product = request.getRequestType() == Request.RequestType.PLASMA
+                        ? StockProduct.PLASMA : StockProduct.BLOOD;
+                    hold = stockDAO.placeHold(currentHospital.getHospitalId(), request.getBloodGroup(), product,
+                        request.getQuantityMl(), request.getRequestId(), APPROVAL_HOLD_MINUTES);
+                    
+                    if (hold == null) {
+                        int available = stockDAO.getAvailableQuantity(currentHospital.getHospitalId(),
+                            request.getBloodGroup(), product);
+                        int held = stockDAO.getHeldQuantity(currentHospital.getHospitalId(),
+                            request.getBloodGroup(), product);
+                        VitalAidApp.showErrorAlert("Not Enough Stock", 
+                            "Only " + Math.max(0, available) + "ml of " + request.getBloodGroup().getDisplay() + 
+                            " " + product.name().toLowerCase() + " is free (" + held + "ml is on hold for " +
+                            "other approved requests).\nThe request needs " + request.getQuantityMl() + "ml.");
+                        return;
+                    }
+                }
+                
+                // 3. Update the request status in the database, unless someone else handled it meanwhile
+                int approved = requestDAO.approvePendingRequest(request.getRequestId(),
+                    currentHospital.getHospitalId());
+                if (approved > 0) {
                     
-                    // 3. Send a notification to the patient
+                    // 4. Send a notification to the patient
                     // We need to get the patient's user_id to notify them
                     Patient patient = patientDAO.getPatientById(request.getPatientId());
                     
@@ -345,12 +507,26 @@ public class HospitalController {
                     VitalAidApp.showSuccessAlert("Request Approved", 
                         "The request has been marked as approved and the patient notified.");
                     
-                    // 4. Refresh the data on screen
+                    // 5. Refresh the data on screen
                     loadRequests();
                     loadStatistics();
                     
                 } else {
-                    VitalAidApp.showErrorAlert("Error", "Failed to update the request status in the database.");
+                    if (hold != null) {
+                        stockDAO.releaseHold(hold.getHoldId());
+                    }
+                    if (allocation != null) {
+                        ventilatorAllocations.release(allocation, VentilatorAllocation.AllocationStatus.TERMINATED,
+                            approved == 0 ? "Request already handled" : "Request approval failed");
+                    }
+                    if (approved == 0) {
+                        VitalAidApp.showErrorAlert("Already Handled", 
+                            "Request #" + request.getRequestId() + " is no longer pending: it was already " +
+                            "approved, fulfilled or cancelled elsewhere. Nothing was set aside for it.");
+                        loadRequests();
+                    } else {
+                        VitalAidApp.showErrorAlert("Error", "Failed to update the request status in the database.");
+                    }
                 }
             } catch (Exception e) {
                 VitalAidApp.showErrorAlert("Error", "An error occurred while approving the request: " + e.getMessage());
@@ -361,123 +537,198 @@ public class HospitalController {
     
     /**
      * FIX: Implemented "Add Blood Stock" functionality
-     * This opens a dialog to add quantity to existing blood stock.
+     * Stock is added one scanned bag at a time (bag number, collection and expiry date).
      */
     @FXML
     private void addBloodStock() {
-        // Create the dialog
+        receiveBag(StockProduct.BLOOD, 450, BLOOD_SHELF_LIFE_DAYS);
+    }
+
+    /**
+     * FIX: Implemented "Add Plasma Stock" functionality
+     */
+    @FXML
+    private void addPlasmaStock() {
+        receiveBag(StockProduct.PLASMA, 200, PLASMA_SHELF_LIFE_DAYS);
+    }
+
+    /**
+     * Dialog to scan a bag into stock; its volume is added to the matching stock line
+     */
+    private void receiveBag(StockProduct product, int defaultVolumeMl, int shelfLifeDays) {
+        String productName = product == StockProduct.BLOOD ? "Blood" : "Plasma";
+
         Dialog<ButtonType> dialog = new Dialog<>();
-        dialog.setTitle("Add Blood Stock");
-        dialog.setHeaderText("Update blood stock quantity for " + currentHospital.getHospitalName());
+        dialog.setTitle("Add " + productName + " Stock");
+        dialog.setHeaderText("Scan a " + productName.toLowerCase() + " bag into stock at " +
+            currentHospital.getHospitalName());
 
-        ButtonType submitButtonType = new ButtonType("Add Stock", ButtonData.OK_DONE);
+        ButtonType submitButtonType = new ButtonType("Add Bag", ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(submitButtonType, ButtonType.CANCEL);
 
-        // Create layout
         GridPane grid = new GridPane();
         grid.setHgap(10);
         grid.setVgap(10);
         grid.setPadding(new Insets(20, 150, 10, 10));
 
+        TextField bagNumberField = new TextField();
+        bagNumberField.setPromptText("Bag number (barcode)");
+
         ComboBox<Donor.BloodGroup> bloodGroupCombo = new ComboBox<>();
         bloodGroupCombo.setItems(FXCollections.observableArrayList(Donor.BloodGroup.values()));
         bloodGroupCombo.setValue(Donor.BloodGroup.A_POSITIVE);
         
-        TextField quantityField = new TextField();
-        quantityField.setPromptText("Quantity in ml");
-        quantityField.setText("450");
+        TextField volumeField = new TextField();
+        volumeField.setPromptText("Volume in ml");
+        volumeField.setText(String.valueOf(defaultVolumeMl));
 
-        grid.add(new Label("Blood Group:"), 0, 0);
-        grid.add(bloodGroupCombo, 1, 0);
-        grid.add(new Label("Quantity (ml):"), 0, 1);
-        grid.add(quantityField, 1, 1);
+        DatePicker collectedPicker = new DatePicker(LocalDate.now());
+        DatePicker expiresPicker = new DatePicker(LocalDate.now().plusDays(shelfLifeDays));
+        collectedPicker.valueProperty().addListener((obs, oldDate, newDate) -> {
+            if (newDate != null) {
+                expiresPicker.setValue(newDate.plusDays(shelfLifeDays));
+            }
+        });
+
+        grid.add(new Label("Bag Number:"), 0, 0);
+        grid.add(bagNumberField, 1, 0);
+        grid.add(new Label("Blood Group:"), 0, 1);
+        grid.add(bloodGroupCombo, 1, 1);
+        grid.add(new Label("Volume (ml):"), 0, 2);
+        grid.add(volumeField, 1, 2);
+        grid.add(new Label("Collected On:"), 0, 3);
+        grid.add(collectedPicker, 1, 3);
+        grid.add(new Label("Expires On:"), 0, 4);
+        grid.add(expiresPicker, 1, 4);
 
         dialog.getDialogPane().setContent(grid);
-        Platform.runLater(() -> bloodGroupCombo.requestFocus());
+        Platform.runLater(() -> bagNumberField.requestFocus());
 
-        // Process the result
         Optional<ButtonType> result = dialog.showAndWait();
         if (result.isPresent() && result.get() == submitButtonType) {
             try {
+                String bagNumber = bagNumberField.getText().trim();
                 Donor.BloodGroup group = bloodGroupCombo.getValue();
-                int quantity = Integer.parseInt(quantityField.getText().trim());
+                int volume = Integer.parseInt(volumeField.getText().trim());
+                LocalDate collectedOn = collectedPicker.getValue();
+                LocalDate expiresOn = expiresPicker.getValue();
+
+                if (bagNumber.isEmpty()) {
+                    VitalAidApp.showErrorAlert("Error", "Please enter the bag number.");
+                    return;
+                }
+                if (volume <= 0) {
+                    VitalAidApp.showErrorAlert("Error", "Volume must be a positive number.");
+                    return;
+                }
+                if (collectedOn == null || expiresOn == null || collectedOn.isAfter(LocalDate.now())) {
+                    VitalAidApp.showErrorAlert("Error", "Please enter a collection date that is not in the future, and an expiry date.");
+                    return;
+                }
+                if (!expiresOn.isAfter(LocalDate.now()) || !expiresOn.isAfter(collectedOn)) {
+                    VitalAidApp.showErrorAlert("Error", "This bag has already expired and cannot be added to stock.");
+                    return;
+                }
 
-                if (quantity <= 0) {
-                    VitalAidApp.showErrorAlert("Error", "Quantity must be a positive number.");
+                BloodUnit unit = new BloodUnit(currentHospital.getHospitalId(), bagNumber, group, product,
+                    volume, collectedOn, expiresOn);
+                int newQuantity = bloodUnitService.receiveUnit(unit);
+                if (newQuantity < 0 && newQuantity != StockDAO.QUANTITY_UNKNOWN) {
+                    VitalAidApp.showErrorAlert("Error", "Failed to add bag " + bagNumber + ". The bag number might already be in stock or a database error occurred.");
                     return;
                 }
 
-                // Call the DAO to update the stock
-                if (stockDAO.updateBloodStock(currentHospital.getHospitalId(), group, quantity)) {
-                    VitalAidApp.showSuccessAlert("Success", "Blood stock updated successfully.");
-                    loadBloodStock(); // Refresh the table
-                    loadStatistics(); // Refresh the stats
+                VitalAidApp.showSuccessAlert("Success", "Bag " + bagNumber + " added to " +
+                    productName.toLowerCase() + " stock." +
+                    (newQuantity >= 0 ? " " + group.getDisplay() + " now at " + newQuantity + " ml." : ""));
+                if (product == StockProduct.BLOOD) {
+                    if (newQuantity >= 0) {
+                        applyBloodStockChange(group, newQuantity);
+                    } else {
+                        loadBloodStock();
+                    }
+                } else if (newQuantity >= 0) {
+                    applyPlasmaStockChange(group, newQuantity);
                 } else {
-                    VitalAidApp.showErrorAlert("Error", "Failed to update blood stock. (Stock might not exist for this group)");
+                    loadPlasmaStock();
                 }
 
             } catch (NumberFormatException e) {
-                VitalAidApp.showErrorAlert("Error", "Please enter a valid number for quantity.");
+                VitalAidApp.showErrorAlert("Error", "Please enter a valid number for volume.");
             }
         }
     }
-
+    
     /**
-     * FIX: Implemented "Add Plasma Stock" functionality
+     * Issue the bags for an approved blood/plasma request, earliest expiry first,
+     * and mark the request fulfilled
      */
     @FXML
-    private void addPlasmaStock() {
-        Dialog<ButtonType> dialog = new Dialog<>();
-        dialog.setTitle("Add Plasma Stock");
-        dialog.setHeaderText("Update plasma stock quantity for " + currentHospital.getHospitalName());
-
-        ButtonType submitButtonType = new ButtonType("Add Stock", ButtonData.OK_DONE);
-        dialog.getDialogPane().getButtonTypes().addAll(submitButtonType, ButtonType.CANCEL);
-
-        GridPane grid = new GridPane();
-        grid.setHgap(10);
-        grid.setVgap(10);
-        grid.setPadding(new Insets(20, 150, 10, 10));
+    private void issueApprovedRequest() {
+        List<Request> approved = requestDAO.getApprovedSupplyRequests(currentHospital.getHospitalId());
+        if (approved.isEmpty()) {
+            VitalAidApp.showSuccessAlert("Issue Request", "There are no approved blood or plasma requests waiting to be issued.");
+            return;
+        }
 
-        ComboBox<Donor.BloodGroup> bloodGroupCombo = new ComboBox<>();
-        bloodGroupCombo.setItems(FXCollections.observableArrayList(Donor.BloodGroup.values()));
-        bloodGroupCombo.setValue(Donor.BloodGroup.A_POSITIVE);
-        
-        TextField quantityField = new TextField();
-        quantityField.setPromptText("Quantity in ml");
-        quantityField.setText("200");
+        List<String> choices = new ArrayList<>();
+        for (Request request : approved) {
+            choices.add(describeForIssue(request));
+        }
 
-        grid.add(new Label("Blood Group:"), 0, 0);
-        grid.add(bloodGroupCombo, 1, 0);
-        grid.add(new Label("Quantity (ml):"), 0, 1);
-        grid.add(quantityField, 1, 1);
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(choices.get(0), choices);
+        dialog.setTitle("Issue Approved Request");
+        dialog.setHeaderText("Issue bags for an approved request");
+        dialog.setContentText("Request:");
 
-        dialog.getDialogPane().setContent(grid);
-        Platform.runLater(() -> bloodGroupCombo.requestFocus());
+        Optional<String> choice = dialog.showAndWait();
+        if (choice.isEmpty()) {
+            return;
+        }
+        Request request = approved.get(choices.indexOf(choice.get()));
 
-        Optional<ButtonType> result = dialog.showAndWait();
-        if (result.isPresent() && result.get() == submitButtonType) {
-            try {
-                Donor.BloodGroup group = bloodGroupCombo.getValue();
-                int quantity = Integer.parseInt(quantityField.getText().trim());
+        StockProduct product = request.getRequestType() == Request.RequestType.PLASMA
+            ? StockProduct.PLASMA : StockProduct.BLOOD;
+        List<BloodUnit> issued = bloodUnitService.allocate(currentHospital.getHospitalId(), request.getBloodGroup(),
+            product, request.getQuantityMl(), request.getRequestId());
 
-                if (quantity <= 0) {
-                    VitalAidApp.showErrorAlert("Error", "Quantity must be a positive number.");
-                    return;
-                }
+        if (issued.isEmpty()) {
+            VitalAidApp.showErrorAlert("Not Enough Bags", 
+                "There are not enough unexpired " + product.name().toLowerCase() + " bags compatible with " +
+                request.getBloodGroup().getDisplay() + " to cover " + request.getQuantityMl() + "ml.\n" +
+                "Scan the bags in with \"+ Add Stock\" and try again.");
+            return;
+        }
 
-                if (stockDAO.updatePlasmaStock(currentHospital.getHospitalId(), group, quantity)) {
-                    VitalAidApp.showSuccessAlert("Success", "Plasma stock updated successfully.");
-                    loadPlasmaStock(); // Refresh
-                    loadStatistics(); // Refresh
-                } else {
-                    VitalAidApp.showErrorAlert("Error", "Failed to update plasma stock. (Stock might not exist for this group)");
-                }
+        StringBuilder bags = new StringBuilder();
+        for (BloodUnit unit : issued) {
+            bags.append("• ").append(unit.getBagNumber()).append(" (").append(unit.getBloodGroup().getDisplay())
+                .append(", ").append(unit.getVolumeMl()).append("ml, expires ").append(unit.getExpiresOn())
+                .append(")\n");
+        }
 
-            } catch (NumberFormatException e) {
-                VitalAidApp.showErrorAlert("Error", "Please enter a valid number for quantity.");
+        if (requestDAO.fulfilApprovedRequest(request.getRequestId())) {
+            Patient patient = patientDAO.getPatientById(request.getPatientId());
+            if (patient != null) {
+                notificationService.sendFulfilmentNotification(patient.getUserId(),
+                    currentHospital.getHospitalName(), request.getRequestType(), request.getRequestId());
             }
+            VitalAidApp.showSuccessAlert("Request Fulfilled", 
+                "Issued " + issued.size() + " bag(s) for request #" + request.getRequestId() + ":\n" + bags);
+        } else {
+            VitalAidApp.showErrorAlert("Bags Issued", 
+                "Issued " + issued.size() + " bag(s) for request #" + request.getRequestId() + ":\n" + bags +
+                "\nThe request could not be marked as fulfilled; it may have been cancelled meanwhile.");
         }
+
+        loadBloodStock(); // allocate waited for the issue to be written
+        loadPlasmaStock();
+        loadStatistics();
+    }
+
+    private static String describeForIssue(Request request) {
+        return "#" + request.getRequestId() + " - " + request.getRequestType() + " " +
+            request.getBloodGroup().getDisplay() + ", " + request.getQuantityMl() + "ml (" + request.getUrgency() + ")";
     }
     
     /**
@@ -538,7 +789,10 @@ public class HospitalController {
             vent.setLocationInHospital(locationField.getText().trim());
             vent.setStatus(Ventilator.VentilatorStatus.AVAILABLE); // Default to AVAILABLE
 
-            if (ventilatorDAO.addVentilator(vent) > 0) {
+            int ventilatorId = ventilatorDAO.addVentilator(vent);
+            if (ventilatorId > 0) {
+                vent.setVentilatorId(ventilatorId);
+                ventilatorAllocations.ventilatorAdded(vent);
                 VitalAidApp.showSuccessAlert("Success", "New ventilator added successfully.");
                 loadVentilators(); // Refresh
                 loadStatistics(); // Refresh
@@ -550,7 +804,7 @@ public class HospitalController {
     
     @FXML
     private void updateBloodStock() {
-        VitalAidApp.showSuccessAlert("Coming Soon", "Update blood stock feature coming soon!");
+        editThreshold(StockProduct.BLOOD);
     }
     
     @FXML
@@ -562,12 +816,358 @@ public class HospitalController {
     
     @FXML
     private void updatePlasmaStock() {
-        VitalAidApp.showSuccessAlert("Coming Soon", "Update plasma stock feature coming soon!");
+        editThreshold(StockProduct.PLASMA);
+    }
+    
+    /**
+     * Dialog to change the low stock threshold of a stock line (the demand forecast's suggestion is pre-filled)
+     */
+    private void editThreshold(StockProduct product) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Update Stock Threshold");
+        dialog.setHeaderText("Set the low stock alert level for " + (product == StockProduct.BLOOD ? "blood" : "plasma"));
+
+        ButtonType submitButtonType = new ButtonType("Save", ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(submitButtonType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        ComboBox<Donor.BloodGroup> bloodGroupCombo = new ComboBox<>();
+        bloodGroupCombo.setItems(FXCollections.observableArrayList(Donor.BloodGroup.values()));
+        
+        TextField thresholdField = new TextField();
+        thresholdField.setPromptText("Threshold in ml");
+        bloodGroupCombo.valueProperty().addListener((obs, oldGroup, group) -> {
+            int suggested = DemandForecaster.getInstance().getRecommendedThreshold(
+                new StockKey(currentHospital.getHospitalId(), group, product));
+            if (suggested >= 0) {
+                thresholdField.setText(String.valueOf(suggested));
+            }
+        });
+        bloodGroupCombo.setValue(Donor.BloodGroup.A_POSITIVE);
+
+        grid.add(new Label("Blood Group:"), 0, 0);
+        grid.add(bloodGroupCombo, 1, 0);
+        grid.add(new Label("Threshold (ml):"), 0, 1);
+        grid.add(thresholdField, 1, 1);
+
+        dialog.getDialogPane().setContent(grid);
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == submitButtonType) {
+            try {
+                Donor.BloodGroup group = bloodGroupCombo.getValue();
+                int threshold = Integer.parseInt(thresholdField.getText().trim());
+
+                if (threshold < 0) {
+                    VitalAidApp.showErrorAlert("Error", "Threshold cannot be negative.");
+                    return;
+                }
+
+                if (stockDAO.updateThreshold(currentHospital.getHospitalId(), group, product, threshold)) {
+                    VitalAidApp.showSuccessAlert("Success", "Threshold of " + group.getDisplay() + " set to " + threshold + " ml.");
+                    if (product == StockProduct.BLOOD) {
+                        loadBloodStock();
+                    } else {
+                        loadPlasmaStock();
+                    }
+                } else {
+                    VitalAidApp.showErrorAlert("Error", "The threshold could not be saved. There may be no " + group.getDisplay() + " stock yet: add a bag first.");
+                }
+
+            } catch (NumberFormatException e) {
+                VitalAidApp.showErrorAlert("Error", "Please enter a valid number for the threshold.");
+            }
+        }
+    }
+    
+    /**
+     * Edit the hospital's contact and location details; supplier and ventilator
+     * searches see the new location right away
+     */
+    @FXML
+    private void editHospitalProfile() {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Hospital Profile");
+        dialog.setHeaderText("Update the details of " + currentHospital.getHospitalName());
+
+        ButtonType submitButtonType = new ButtonType("Save", ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(submitButtonType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        TextField addressField = new TextField(currentHospital.getAddress());
+        TextField cityField = new TextField(currentHospital.getCity());
+        TextField stateField = new TextField(currentHospital.getState());
+        TextField pincodeField = new TextField(currentHospital.getPincode());
+        TextField latitudeField = new TextField(String.valueOf(currentHospital.getLatitude()));
+        TextField longitudeField = new TextField(String.valueOf(currentHospital.getLongitude()));
+        TextField contactField = new TextField(currentHospital.getContactPerson());
+
+        grid.add(new Label("Address:"), 0, 0);
+        grid.add(addressField, 1, 0);
+        grid.add(new Label("City:"), 0, 1);
+        grid.add(cityField, 1, 1);
+        grid.add(new Label("State:"), 0, 2);
+        grid.add(stateField, 1, 2);
+        grid.add(new Label("Pincode:"), 0, 3);
+        grid.add(pincodeField, 1, 3);
+        grid.add(new Label("Latitude:"), 0, 4);
+        grid.add(latitudeField, 1, 4);
+        grid.add(new Label("Longitude:"), 0, 5);
+        grid.add(longitudeField, 1, 5);
+        grid.add(new Label("Contact Person:"), 0, 6);
+        grid.add(contactField, 1, 6);
+
+        dialog.getDialogPane().setContent(grid);
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == submitButtonType) {
+            try {
+                double latitude = Double.parseDouble(latitudeField.getText().trim());
+                double longitude = Double.parseDouble(longitudeField.getText().trim());
+                if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                    VitalAidApp.showErrorAlert("Error", "Latitude must be between -90 and 90, longitude between -180 and 180.");
+                    return;
+                }
+                if (addressField.getText().trim().isEmpty() || cityField.getText().trim().isEmpty()) {
+                    VitalAidApp.showErrorAlert("Error", "Address and city are required.");
+                    return;
+                }
+
+                currentHospital.setAddress(addressField.getText().trim());
+                currentHospital.setCity(cityField.getText().trim());
+                currentHospital.setState(stateField.getText().trim());
+                currentHospital.setPincode(pincodeField.getText().trim());
+                currentHospital.setLatitude(latitude);
+                currentHospital.setLongitude(longitude);
+                currentHospital.setContactPerson(contactField.getText().trim());
+
+                if (hospitalDAO.updateHospitalProfile(currentHospital)) {
+                    SessionManager.refreshHospitalData(currentHospital);
+                    InventoryIndex.getInstance().hospitalChanged(currentHospital.getHospitalId());
+                    VitalAidApp.showSuccessAlert("Success", "Hospital profile updated.");
+                } else {
+                    Hospital saved = hospitalDAO.getHospitalById(currentHospital.getHospitalId());
+                    if (saved != null) {
+                        currentHospital = saved; // Drop the unsaved edits
+                    }
+                    VitalAidApp.showErrorAlert("Error", "The profile could not be saved.");
+                }
+
+            } catch (NumberFormatException e) {
+                VitalAidApp.showErrorAlert("Error", "Please enter valid numbers for the coordinates.");
+            }
+        }
+    }
+    
+    /**
+     * Set each ward's bed capacity and its current count of taken beds.
+     * ICU beds are also taken and freed as ventilators are allocated and released.
+     */
+    @FXML
+    private void editWardBeds() {
+        OccupancyService occupancy = OccupancyService.getInstance();
+        int hospitalId = currentHospital.getHospitalId();
+
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Ward Beds");
+        dialog.setHeaderText("Set the beds of each ward and how many are taken");
+
+        ButtonType submitButtonType = new ButtonType("Save", ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(submitButtonType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+
+        grid.add(new Label("Beds"), 1, 0);
+        grid.add(new Label("Taken"), 2, 0);
+
+        Ward[] wards = Ward.values();
+        TextField[] capacityFields = new TextField[wards.length];
+        TextField[] occupiedFields = new TextField[wards.length];
+        for (int i = 0; i < wards.length; i++) {
+            WardOccupancy current = occupancy.getOccupancy(hospitalId, wards[i]);
+            capacityFields[i] = new TextField(String.valueOf(current != null ? current.getCapacity() : 0));
+            occupiedFields[i] = new TextField(String.valueOf(current != null ? current.getOccupied() : 0));
+            grid.add(new Label(wards[i] == Ward.ICU ? "ICU:" : "General:"), 0, i + 1);
+            grid.add(capacityFields[i], 1, i + 1);
+            grid.add(occupiedFields[i], 2, i + 1);
+        }
+
+        dialog.getDialogPane().setContent(grid);
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isPresent() && result.get() == submitButtonType) {
+            try {
+                int[] capacity = new int[wards.length];
+                int[] occupied = new int[wards.length];
+                for (int i = 0; i < wards.length; i++) {
+                    capacity[i] = Integer.parseInt(capacityFields[i].getText().trim());
+                    occupied[i] = Integer.parseInt(occupiedFields[i].getText().trim());
+                    if (capacity[i] < 0 || occupied[i] < 0) {
+                        VitalAidApp.showErrorAlert("Error", "Bed counts cannot be negative.");
+                        return;
+                    }
+                    if (occupied[i] > capacity[i]) {
+                        VitalAidApp.showErrorAlert("Error", "A ward cannot have more beds taken than it has.");
+                        return;
+                    }
+                }
+
+                for (int i = 0; i < wards.length; i++) {
+                    occupancy.setCapacity(hospitalId, wards[i], capacity[i]);
+                    occupancy.setOccupied(hospitalId, wards[i], occupied[i]);
+                }
+                VitalAidApp.showSuccessAlert("Success", "Ward beds updated: " +
+                    occupancy.getFreeBeds(hospitalId, Ward.GENERAL) + " general and " +
+                    occupancy.getFreeBeds(hospitalId, Ward.ICU) + " ICU bed(s) free.");
+
+            } catch (NumberFormatException e) {
+                VitalAidApp.showErrorAlert("Error", "Please enter whole numbers for the beds.");
+            }
+        }
     }
     
     @FXML
     private void updateVentilatorStatus() {
-        VitalAidApp.showSuccessAlert("Coming Soon", "Update ventilator status feature coming soon!");
+        VentilatorRow selected = ventilatorsTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            VitalAidApp.showErrorAlert("No Ventilator Selected", "Select a ventilator in the table first.");
+            return;
+        }
+        manageVentilator(selected.getVentilator());
+    }
+    
+    /**
+     * Ask when a ventilator's next maintenance is due (defaults to MAINTENANCE_INTERVAL_DAYS from today)
+     */
+    private Optional<LocalDate> askNextMaintenanceDate(Ventilator ventilator) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Maintenance Done");
+        dialog.setHeaderText("Record the maintenance of ventilator " + ventilator.getSerialNumber());
+
+        ButtonType submitButtonType = new ButtonType("Save", ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(submitButtonType, ButtonType.CANCEL);
+
+        DatePicker nextPicker = new DatePicker(LocalDate.now().plusDays(MAINTENANCE_INTERVAL_DAYS));
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(20, 150, 10, 10));
+        grid.add(new Label("Next Maintenance:"), 0, 0);
+        grid.add(nextPicker, 1, 0);
+        dialog.getDialogPane().setContent(grid);
+
+        Optional<ButtonType> result = dialog.showAndWait();
+        if (result.isEmpty() || result.get() != submitButtonType) {
+            return Optional.empty();
+        }
+        if (nextPicker.getValue() == null || !nextPicker.getValue().isAfter(LocalDate.now())) {
+            VitalAidApp.showErrorAlert("Error", "The next maintenance date must be in the future.");
+            return Optional.empty();
+        }
+        return Optional.of(nextPicker.getValue());
+    }
+    
+    /**
+     * Offer the status changes that fit a ventilator's current status: releasing a unit in use
+     * (a waiting patient gets it first), sending a free unit to maintenance or marking it damaged,
+     * finishing maintenance (with the next due date) and putting a repaired unit back into service
+     */
+    private void manageVentilator(Ventilator ventilator) {
+        final String releaseCompleted = "Release - patient no longer needs it";
+        final String releaseTerminated = "Release - allocation ended early";
+        final String toMaintenance = "Send to maintenance";
+        final String toDamaged = "Mark as damaged";
+        final String maintenanceDone = "Maintenance done - back in service";
+        final String backInService = "Repaired - back in service";
+
+        List<String> actions = new ArrayList<>();
+        switch (ventilator.getStatus()) {
+            case IN_USE:
+                actions.add(releaseCompleted);
+                actions.add(releaseTerminated);
+                break;
+            case AVAILABLE:
+                actions.add(toMaintenance);
+                actions.add(toDamaged);
+                break;
+            case MAINTENANCE:
+                actions.add(maintenanceDone);
+                break;
+            default:
+                actions.add(backInService);
+                break;
+        }
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(actions.get(0), actions);
+        dialog.setTitle("Update Ventilator Status");
+        dialog.setHeaderText("Ventilator " + ventilator.getSerialNumber() + " is " + ventilator.getStatus());
+        dialog.setContentText("Action:");
+
+        Optional<String> choice = dialog.showAndWait();
+        if (choice.isEmpty()) {
+            return;
+        }
+
+        int hospitalId = currentHospital.getHospitalId();
+        String action = choice.get();
+        boolean done;
+        String message;
+
+        if (action.equals(releaseCompleted) || action.equals(releaseTerminated)) {
+            VentilatorAllocation allocation = ventilatorAllocations.getAllocationForVentilator(
+                ventilator.getVentilatorId());
+            if (allocation == null) {
+                VitalAidApp.showErrorAlert("Error", "No active allocation is recorded for this ventilator.");
+                return;
+            }
+            VentilatorAllocation.AllocationStatus outcome = action.equals(releaseCompleted)
+                ? VentilatorAllocation.AllocationStatus.COMPLETED : VentilatorAllocation.AllocationStatus.TERMINATED;
+            done = ventilatorAllocations.release(allocation, outcome, "Released by " + currentUser.getUsername());
+            if (done && outcome == VentilatorAllocation.AllocationStatus.COMPLETED && allocation.getRequestId() != null) {
+                requestDAO.fulfilApprovedRequest(allocation.getRequestId());
+            }
+            message = "Ventilator released. If a patient was waiting for one, it has been assigned to them.";
+        } else if (action.equals(toMaintenance)) {
+            done = ventilatorAllocations.updateStatus(hospitalId, ventilator.getVentilatorId(),
+                Ventilator.VentilatorStatus.MAINTENANCE);
+            message = "Ventilator sent to maintenance.";
+        } else if (action.equals(maintenanceDone)) {
+            Optional<LocalDate> nextDate = askNextMaintenanceDate(ventilator);
+            if (nextDate.isEmpty()) {
+                return;
+            }
+            done = MaintenanceScheduler.getInstance().maintenanceCompleted(ventilator, nextDate.get());
+            message = "Maintenance recorded; next one due " + nextDate.get() + ". " +
+                      "If a patient was waiting for a ventilator, it has been assigned to them.";
+        } else if (action.equals(toDamaged)) {
+            done = ventilatorAllocations.updateStatus(hospitalId, ventilator.getVentilatorId(),
+                Ventilator.VentilatorStatus.DAMAGED);
+            message = "Ventilator marked as damaged.";
+        } else {
+            done = ventilatorAllocations.updateStatus(hospitalId, ventilator.getVentilatorId(),
+                Ventilator.VentilatorStatus.AVAILABLE);
+            message = "Ventilator back in service. If a patient was waiting for one, it has been assigned to them.";
+        }
+
+        if (done) {
+            VitalAidApp.showSuccessAlert("Success", message);
+        } else {
+            VitalAidApp.showErrorAlert("Error", "The ventilator status could not be updated. It may have been changed elsewhere; the list is refreshed.");
+        }
+        loadVentilators();
+        loadStatistics();
     }
     
     @FXML
@@ -631,6 +1231,11 @@ public class HospitalController {
     
     // ==================== TABLE ROW CLASSES ====================
     
+    // Days of cover from the demand forecast, for the stock tables
+    private static String formatDaysOfCover(double days) {
+        return Double.isInfinite(days) ? "No demand" : String.format("%.1f days", days);
+    }
+    
     public static class BloodStockRow {
         private final BloodStock stock;
         private final Button actionButton;
@@ -641,9 +1246,20 @@ public class HospitalController {
             this.actionButton.setStyle("-fx-background-color: #667eea; -fx-text-fill: white;");
         }
         
+        public BloodStock getStock() { return stock; }
         public String getBloodGroup() { return stock.getBloodGroup().getDisplay(); }
         public String getQuantity() { return stock.getQuantityMl() + " ml"; }
         public String getThreshold() { return stock.getMinThreshold() + " ml"; }
+        public String getSuggestedThreshold() {
+            int threshold = DemandForecaster.getInstance().getRecommendedThreshold(stockKey());
+            return threshold >= 0 ? threshold + " ml" : "N/A";
+        }
+        public String getDaysOfCover() {
+            return formatDaysOfCover(DemandForecaster.getInstance().getDaysOfCover(stockKey(), stock.getQuantityMl()));
+        }
+        private StockKey stockKey() {
+            return new StockKey(stock.getHospitalId(), stock.getBloodGroup(), StockProduct.BLOOD);
+        }
         public String getStatus() { 
             return stock.isBelowThreshold() ? "⚠️ LOW" : "✓ OK"; 
         }
@@ -667,9 +1283,20 @@ public class HospitalController {
             this.actionButton.setStyle("-fx-background-color: #667eea; -fx-text-fill: white;");
         }
         
+        public PlasmaStock getStock() { return stock; }
         public String getBloodGroup() { return stock.getBloodGroup().getDisplay(); }
         public String getQuantity() { return stock.getQuantityMl() + " ml"; }
         public String getThreshold() { return stock.getMinThreshold() + " ml"; }
+        public String getSuggestedThreshold() {
+            int threshold = DemandForecaster.getInstance().getRecommendedThreshold(stockKey());
+            return threshold >= 0 ? threshold + " ml" : "N/A";
+        }
+        public String getDaysOfCover() {
+            return formatDaysOfCover(DemandForecaster.getInstance().getDaysOfCover(stockKey(), stock.getQuantityMl()));
+        }
+        private StockKey stockKey() {
+            return new StockKey(stock.getHospitalId(), stock.getBloodGroup(), StockProduct.PLASMA);
+        }
         public String getStatus() { 
             return stock.isBelowThreshold() ? "⚠️ LOW" : "✓ OK"; 
         }
@@ -689,6 +1316,7 @@ public class HospitalController {
             this.actionButton.setStyle("-fx-background-color: #667eea; -fx-text-fill: white;");
         }
         
+        public Ventilator getVentilator() { return ventilator; }
         public String getSerialNumber() { return ventilator.getSerialNumber(); }
         public String getType() { return ventilator.getVentilatorType().toString(); }
         public String getModel() { return ventilator.getModelName(); }
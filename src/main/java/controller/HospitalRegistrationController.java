@@ -6,6 +6,7 @@ import javafx.collections.FXCollections;
 import javafx.stage.Stage;
 import model.*;
 import dao.*;
+import service.OccupancyService;
 import util.ValidationUtil;
 import view.VitalAidApp;
 
@@ -99,6 +100,7 @@ public class HospitalRegistrationController {
             int hospitalId = hospitalDAO.registerHospital(hospital);
             
             if (hospitalId != -1) {
+                OccupancyService.getInstance().hospitalRegistered(hospitalId, hospital.getBedCapacity());
                 VitalAidApp.showSuccessAlert("Success", 
                     "Registration submitted successfully!\n\n" +
                     "Your hospital registration is pending admin approval.\n" +
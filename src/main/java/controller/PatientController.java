@@ -13,6 +13,7 @@ import javafx.collections.ObservableList;
 import model.*;
 import dao.*;
 import service.NotificationService;
+import service.OccupancyService;
 import service.RequestService; 
 import view.VitalAidApp;
 import java.time.LocalDate;
@@ -54,6 +55,9 @@ public class PatientController {
     private final NotificationService notificationService = new NotificationService();
     private final RequestService requestService = new RequestService(); 
     
+    private static final int REQUEST_PAGE_SIZE = 50;
+    private ScrollPager<RequestRow> requestsPager;
+    
     @FXML
     public void initialize() {
         System.out.println("\n========== PATIENT DASHBOARD INITIALIZATION ==========");
@@ -66,6 +70,10 @@ public class PatientController {
             System.out.println("Username: " + currentUser.getUsername());
         }
         
+        requestsPager = ScrollPager.attach(requestsTable, cursor ->
+            requestDAO.getRequestsByPatient(currentPatient.getPatientId(), REQUEST_PAGE_SIZE, cursor)
+                .map(RequestRow::new));
+        
         if (currentPatient != null) {
             System.out.println("Patient ID: " + currentPatient.getPatientId());
             System.out.println("Patient Name: " + currentPatient.getFullName());
@@ -107,15 +115,9 @@ public class PatientController {
     }
     
     private void loadRequests() {
-        List<Request> requests = requestDAO.getRequestsByPatient(currentPatient.getPatientId());
-        ObservableList<RequestRow> rows = FXCollections.observableArrayList();
-        
-        for (Request req : requests) {
-            rows.add(new RequestRow(req));
-        }
-        
-        requestsTable.setItems(rows);
-        System.out.println("✓ Loaded " + requests.size() + " requests");
+        // First page only; older requests are fetched as the table is scrolled
+        requestsPager.reset();
+        System.out.println("✓ Loaded " + requestsPager.getItems().size() + " requests");
     }
     
     /**
@@ -126,8 +128,11 @@ public class PatientController {
         
         // 1. Add Hospitals from Database (Real Data)
         List<Hospital> dbHospitals = hospitalDAO.getHospitalsByCity(currentPatient.getCity());
+        OccupancyService occupancy = OccupancyService.getInstance();
         for (Hospital h : dbHospitals) {
-            items.add("🏥 " + h.getHospitalName() + "\n   " + h.getAddress());
+            items.add("🏥 " + h.getHospitalName() + "\n   " + h.getAddress() +
+                      "\n   Beds free: " + occupancy.getFreeBeds(h.getHospitalId(), Ward.GENERAL) +
+                      " general, " + occupancy.getFreeBeds(h.getHospitalId(), Ward.ICU) + " ICU");
         }
         
         // 2. Add Manual Hospitals for Demo (Ensures Sparsha and others always appear in the dashboard list)
@@ -324,7 +329,9 @@ public class PatientController {
                     VitalAidApp.showSuccessAlert("Success", 
                         "Your " + type + " request has been submitted successfully!\n" +
                         "Request ID: " + requestId + "\n\n" +
-                        "Matching donors and hospitals are being notified.");
+                        "Matching donors and hospitals are being notified." +
+                        (type != Request.RequestType.VENTILATOR
+                            ? "\nWhere nearby hospital stock can cover it is in your notifications." : ""));
                     loadRequests(); // Refresh the table
                 } else {
                     System.err.println("✗ Failed to create request");
@@ -0,0 +1,102 @@
+package controller;
+
+import dao.Page;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+/**
+ * ScrollPager - Feeds a TableView or ListView from a keyset-paginated source
+ * Loads the first page on reset() and appends the next page whenever the
+ * vertical scroll bar reaches the bottom, so only what the user scrolls
+ * through is ever fetched and held in memory.
+ */
+public class ScrollPager<T> {
+
+    /**
+     * Source of pages; receives the cursor of the previous page (null for the first)
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        Page<T> fetch(String cursor);
+    }
+
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final PageSource<T> source;
+    private String cursor;
+    private boolean hasMore;
+
+    private ScrollPager(PageSource<T> source) {
+        this.source = source;
+    }
+
+    /**
+     * Attach a pager to a table; call reset() to load the first page
+     */
+    public static <T> ScrollPager<T> attach(TableView<T> table, PageSource<T> source) {
+        ScrollPager<T> pager = new ScrollPager<>(source);
+        table.setItems(pager.items);
+        pager.watchScrolling(table);
+        return pager;
+    }
+
+    /**
+     * Attach a pager to a list; call reset() to load the first page
+     */
+    public static <T> ScrollPager<T> attach(ListView<T> list, PageSource<T> source) {
+        ScrollPager<T> pager = new ScrollPager<>(source);
+        list.setItems(pager.items);
+        pager.watchScrolling(list);
+        return pager;
+    }
+
+    /**
+     * Drop everything loaded so far and load the first page again
+     */
+    public void reset() {
+        items.clear();
+        cursor = null;
+        hasMore = true;
+        loadNextPage();
+    }
+
+    /**
+     * Append the next page, if there is one
+     */
+    public void loadNextPage() {
+        if (!hasMore) {
+            return;
+        }
+
+        Page<T> page = source.fetch(cursor);
+        items.addAll(page.getItems());
+        cursor = page.getNextCursor();
+        hasMore = page.hasMore();
+    }
+
+    public ObservableList<T> getItems() { return items; }
+
+    public boolean hasMore() { return hasMore; }
+
+    private void watchScrolling(Control control) {
+        // The scroll bars only exist once the skin has been created
+        control.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            for (Node node : control.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar
+                        && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                    ScrollBar bar = (ScrollBar) node;
+                    bar.valueProperty().addListener((o, oldValue, newValue) -> {
+                        if (hasMore && newValue.doubleValue() >= bar.getMax()) {
+                            loadNextPage();
+                        }
+                    });
+                }
+            }
+        });
+    }
+}
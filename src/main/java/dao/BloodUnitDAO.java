@@ -0,0 +1,191 @@
+package dao;
+
+import config.DatabaseConfig;
+import model.*;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BloodUnitDAO - Bag-level inventory (blood_units)
+ * Status changes are conditional on the bag still being AVAILABLE, so a bag
+ * can be issued or expired once only, whoever gets there first.
+ */
+public class BloodUnitDAO {
+
+    // Unit row projection; ENUMs come back as indexes
+    private static final String UNIT_COLUMNS =
+        "unit_id, hospital_id, bag_number, blood_group + 0, product + 0, volume_ml, " +
+        "collected_on, expires_on, status + 0, request_id";
+
+    private final DatabaseConfig dbConfig;
+
+    public BloodUnitDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Register a received bag
+     *
+     * @return Generated unit id, or -1 on failure (e.g. duplicate bag number)
+     */
+    public int addUnit(BloodUnit unit) {
+        String sql = "INSERT INTO blood_units (hospital_id, bag_number, blood_group, product, volume_ml, " +
+                     "collected_on, expires_on, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            pstmt.setInt(1, unit.getHospitalId());
+            pstmt.setString(2, unit.getBagNumber());
+            pstmt.setString(3, unit.getBloodGroup().getDisplay());
+            pstmt.setString(4, unit.getProduct().name());
+            pstmt.setInt(5, unit.getVolumeMl());
+            pstmt.setDate(6, Date.valueOf(unit.getCollectedOn()));
+            pstmt.setDate(7, Date.valueOf(unit.getExpiresOn()));
+            pstmt.setString(8, unit.getStatus().name());
+
+            if (pstmt.executeUpdate() > 0) {
+                ResultSet rs = pstmt.getGeneratedKeys();
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to add blood unit " + unit.getBagNumber() + ": " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Available bags of a hospital, earliest expiry first
+     */
+    public List<BloodUnit> getAvailableUnits(int hospitalId) {
+        String sql = "SELECT " + UNIT_COLUMNS + " FROM blood_units " +
+                     "WHERE hospital_id = ? AND status = 'AVAILABLE' ORDER BY expires_on, unit_id";
+        List<BloodUnit> units = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hospitalId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                units.add(mapUnit(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching blood units: " + e.getMessage());
+        }
+
+        return units;
+    }
+
+    /**
+     * Available bags of every hospital (one pass, to index all hospitals at once)
+     */
+    public List<BloodUnit> getAllAvailableUnits() {
+        String sql = "SELECT " + UNIT_COLUMNS + " FROM blood_units WHERE status = 'AVAILABLE'";
+        List<BloodUnit> units = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                units.add(mapUnit(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching blood units: " + e.getMessage());
+        }
+
+        return units;
+    }
+
+    /**
+     * Issue bags against a request, all or none: if any bag is no longer
+     * available the whole issue is rolled back
+     *
+     * @return true if every bag was issued
+     */
+    public boolean markIssued(List<Integer> unitIds, Integer requestId) {
+        if (unitIds.isEmpty()) {
+            return true;
+        }
+
+        return dbConfig.executeTransaction(conn -> {
+            int updated = updateStatus(conn, unitIds, BloodUnit.UnitStatus.ISSUED, requestId);
+            if (updated != unitIds.size()) {
+                throw new SQLException(unitIds.size() - updated + " bag(s) no longer available");
+            }
+        });
+    }
+
+    /**
+     * Mark bags past their expiry date
+     *
+     * @return Number of bags that were still available and are now expired, or -1 on error
+     */
+    public int markExpired(List<Integer> unitIds) {
+        if (unitIds.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = dbConfig.getNewConnection()) {
+            return updateStatus(conn, unitIds, BloodUnit.UnitStatus.EXPIRED, null);
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to expire blood units: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    private static int updateStatus(Connection conn, List<Integer> unitIds, BloodUnit.UnitStatus status,
+                                    Integer requestId) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(unitIds.size(), "?"));
+        String sql = "UPDATE blood_units SET status = ?, request_id = COALESCE(?, request_id) " +
+                     "WHERE unit_id IN (" + placeholders + ") AND status = 'AVAILABLE'";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, status.name());
+            if (requestId != null) {
+                pstmt.setInt(2, requestId);
+            } else {
+                pstmt.setNull(2, Types.INTEGER);
+            }
+            int idx = 3;
+            for (int unitId : unitIds) {
+                pstmt.setInt(idx++, unitId);
+            }
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Map a UNIT_COLUMNS row (by column index)
+     */
+    private static BloodUnit mapUnit(ResultSet rs) throws SQLException {
+        BloodUnit unit = new BloodUnit();
+        unit.setUnitId(rs.getInt(1));
+        unit.setHospitalId(rs.getInt(2));
+        unit.setBagNumber(rs.getString(3));
+        unit.setBloodGroup(EnumColumns.bloodGroup(rs, 4));
+        unit.setProduct(EnumColumns.stockProduct(rs, 5));
+        unit.setVolumeMl(rs.getInt(6));
+        unit.setCollectedOn(rs.getDate(7).toLocalDate());
+        unit.setExpiresOn(rs.getDate(8).toLocalDate());
+        unit.setStatus(EnumColumns.unitStatus(rs, 9));
+
+        int requestId = rs.getInt(10);
+        if (!rs.wasNull()) {
+            unit.setRequestId(requestId);
+        }
+
+        return unit;
+    }
+}
@@ -2,13 +2,26 @@ package dao;
 
 import config.DatabaseConfig;
 import model.*;
+import util.GeoUtil;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class DonorDAO {
     
+    // Matching projection: everything scoring and notification read, none of the TEXT columns
+    private static final String MATCH_COLUMNS =
+        "donor_id, user_id, full_name, blood_group + 0, city, latitude, longitude, " +
+        "weight, last_donation_date, is_available";
+    
+    // Full profile: the matching projection followed by the remaining profile columns
+    private static final String PROFILE_COLUMNS = MATCH_COLUMNS +
+        ", date_of_birth, gender + 0, address, state, pincode, medical_conditions";
+    
     private final DatabaseConfig dbConfig;
     
     public DonorDAO() {
@@ -25,7 +38,7 @@ public class DonorDAO {
                      "address, city, state, pincode, latitude, longitude, weight, is_available) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, donor.getUserId());
@@ -64,16 +77,39 @@ public class DonorDAO {
         return -1;
     }
     
+    /**
+     * Get donor by donor ID (matching columns only)
+     */
+    public Donor getDonorById(int donorId) {
+        String sql = "SELECT " + MATCH_COLUMNS + " FROM donors WHERE donor_id = ?";
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, donorId);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return mapMatchCandidate(rs);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching donor by ID: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
     /**
      * Get donor by user ID
      */
     public Donor getDonorByUserId(int userId) {
-        String sql = "SELECT * FROM donors WHERE user_id = ?";
+        String sql = "SELECT " + PROFILE_COLUMNS + " FROM donors WHERE user_id = ?";
         
         System.out.println("\n--- DonorDAO.getDonorByUserId() ---");
         System.out.println("Searching for donor with user_id: " + userId);
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
@@ -83,7 +119,7 @@ public class DonorDAO {
             
             if (rs.next()) {
                 System.out.println("✓ Donor record found in database");
-                Donor donor = extractDonorFromResultSet(rs);
+                Donor donor = mapDonorProfile(rs);
                 System.out.println("  Donor ID: " + donor.getDonorId());
                 System.out.println("  Full Name: " + donor.getFullName());
                 System.out.println("  Blood Group: " + donor.getBloodGroup().getDisplay());
@@ -116,7 +152,7 @@ public class DonorDAO {
                      "medical_conditions = ?, updated_at = NOW() " +
                      "WHERE donor_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, donor.getFullName());
@@ -154,13 +190,13 @@ public class DonorDAO {
      * @return List of available donors
      */
     public List<Donor> findAvailableDonors(Donor.BloodGroup bloodGroup, String city) {
-        String sql = "SELECT * FROM donors WHERE blood_group = ? AND city = ? " +
+        String sql = "SELECT " + MATCH_COLUMNS + " FROM donors WHERE blood_group = ? AND city = ? " +
                      "AND is_available = TRUE " +
                      "ORDER BY last_donation_date ASC";
         
         List<Donor> donors = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             // NOTE: This uses the incorrect enum.name() and needs to be replaced 
@@ -171,7 +207,7 @@ public class DonorDAO {
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                donors.add(extractDonorFromResultSet(rs));
+                donors.add(mapMatchCandidate(rs));
             }
             
             System.out.println("✓ Found " + donors.size() + " available donors");
@@ -183,13 +219,37 @@ public class DonorDAO {
         return donors;
     }
     
+    /**
+     * Available donors of every blood group in a city (the donor pool of a batch matching region)
+     */
+    public List<Donor> getAvailableDonorsInCity(String city) {
+        String sql = "SELECT " + MATCH_COLUMNS + " FROM donors WHERE city = ? AND is_available = TRUE";
+        List<Donor> donors = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, city);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                donors.add(mapMatchCandidate(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching donors in " + city + ": " + e.getMessage());
+        }
+
+        return donors;
+    }
+    
     /**
      * Update donor availability status
      */
     public boolean updateAvailability(int donorId, boolean available) {
         String sql = "UPDATE donors SET is_available = ?, updated_at = NOW() WHERE donor_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setBoolean(1, available);
@@ -214,7 +274,7 @@ public class DonorDAO {
     public boolean updateLastDonation(int donorId, java.time.LocalDate donationDate) {
         String sql = "UPDATE donors SET last_donation_date = ?, updated_at = NOW() WHERE donor_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setDate(1, Date.valueOf(donationDate));
@@ -233,10 +293,10 @@ public class DonorDAO {
      * Get donors by blood group (for statistics and matching)
      */
     public List<Donor> getDonorsByBloodGroup(Donor.BloodGroup bloodGroup) {
-        String sql = "SELECT * FROM donors WHERE blood_group = ?";
+        String sql = "SELECT " + MATCH_COLUMNS + " FROM donors WHERE blood_group = ?";
         List<Donor> donors = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             // --- FIX: Use the correct database symbol for the blood group ---
@@ -245,7 +305,7 @@ public class DonorDAO {
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                donors.add(extractDonorFromResultSet(rs));
+                donors.add(mapMatchCandidate(rs));
             }
             
         } catch (SQLException e) {
@@ -256,41 +316,115 @@ public class DonorDAO {
     }
     
     /**
-     * Extract Donor object from ResultSet
+     * Stream donors by blood group over a server-side cursor.
+     * For full scans (index builds, batch matching); rows carry the matching
+     * projection only. Close the stream when done.
      */
-    private Donor extractDonorFromResultSet(ResultSet rs) throws SQLException {
-        Donor donor = new Donor();
-        donor.setDonorId(rs.getInt("donor_id"));
-        donor.setUserId(rs.getInt("user_id"));
-        donor.setFullName(rs.getString("full_name"));
+    public Stream<Donor> streamDonorsByBloodGroup(Donor.BloodGroup bloodGroup) {
+        String sql = "SELECT " + MATCH_COLUMNS + " FROM donors WHERE blood_group = ?";
         
-        String bloodGroupStr = rs.getString("blood_group");
-        if (bloodGroupStr != null) {
-            bloodGroupStr = bloodGroupStr
-                .replace("+", "_POSITIVE")
-                .replace("-", "_NEGATIVE")
-                .toUpperCase();
+        return StreamingQuery.query(sql,
+            pstmt -> pstmt.setString(1, bloodGroup.getDisplay()),
+            DonorDAO::mapMatchCandidate, "donors by blood group");
+    }
+    
+    /**
+     * Visit every donor of a blood group without holding them in memory
+     * @return Number of donors visited
+     */
+    public int forEachDonorByBloodGroup(Donor.BloodGroup bloodGroup, Consumer<Donor> callback) {
+        return StreamingQuery.forEach(streamDonorsByBloodGroup(bloodGroup), callback);
+    }
+    
+    /**
+     * Available donors of the given groups in a ring around a point: inside the bounding
+     * box of outerKm but outside that of innerKm (uses idx_location). Donors without
+     * coordinates (stored as 0/0) are returned with the innermost ring.
+     * @param innerKm 0 for the first ring
+     */
+    public List<Donor> getAvailableDonorsInRing(List<Donor.BloodGroup> bloodGroups, double latitude,
+                                                double longitude, double innerKm, double outerKm) {
+        List<Donor> donors = new ArrayList<>();
+        if (bloodGroups.isEmpty()) {
+            return donors;
         }
         
-        donor.setBloodGroup(Donor.BloodGroup.valueOf(bloodGroupStr));
+        String groups = String.join(", ", Collections.nCopies(bloodGroups.size(), "?"));
+        String box = "(latitude BETWEEN ? AND ? AND longitude BETWEEN ? AND ?)";
+        String sql = "SELECT " + MATCH_COLUMNS + " FROM donors " +
+                     "WHERE is_available = TRUE AND blood_group IN (" + groups + ") AND " +
+                     (innerKm > 0 ? box + " AND NOT " + box
+                                  : "(" + box + " OR (latitude = 0 AND longitude = 0))");
         
-        donor.setDateOfBirth(rs.getDate("date_of_birth").toLocalDate());
-        donor.setGender(Donor.Gender.valueOf(rs.getString("gender")));
-        donor.setAddress(rs.getString("address"));
-        donor.setCity(rs.getString("city"));
-        donor.setState(rs.getString("state"));
-        donor.setPincode(rs.getString("pincode"));
-        donor.setLatitude(rs.getDouble("latitude"));
-        donor.setLongitude(rs.getDouble("longitude"));
-        donor.setWeight(rs.getDouble("weight"));
-        donor.setAvailable(rs.getBoolean("is_available"));
-        donor.setMedicalConditions(rs.getString("medical_conditions"));
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int idx = 1;
+            for (Donor.BloodGroup bloodGroup : bloodGroups) {
+                pstmt.setString(idx++, bloodGroup.getDisplay());
+            }
+            idx = bindBox(pstmt, idx, latitude, longitude, outerKm);
+            if (innerKm > 0) {
+                bindBox(pstmt, idx, latitude, longitude, innerKm);
+            }
+            
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                donors.add(mapMatchCandidate(rs));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching donors within " + outerKm + "km: " + e.getMessage());
+        }
         
-        Date lastDonation = rs.getDate("last_donation_date");
+        return donors;
+    }
+    
+    private static int bindBox(PreparedStatement pstmt, int idx, double latitude, double longitude, double km)
+            throws SQLException {
+        double latDelta = GeoUtil.latitudeDelta(km);
+        double lonDelta = GeoUtil.longitudeDelta(km, latitude);
+        pstmt.setDouble(idx++, latitude - latDelta);
+        pstmt.setDouble(idx++, latitude + latDelta);
+        pstmt.setDouble(idx++, longitude - lonDelta);
+        pstmt.setDouble(idx++, longitude + lonDelta);
+        return idx;
+    }
+    
+    /**
+     * Map a MATCH_COLUMNS row (by column index)
+     */
+    private static Donor mapMatchCandidate(ResultSet rs) throws SQLException {
+        Donor donor = new Donor();
+        donor.setDonorId(rs.getInt(1));
+        donor.setUserId(rs.getInt(2));
+        donor.setFullName(rs.getString(3));
+        donor.setBloodGroup(EnumColumns.bloodGroup(rs, 4));
+        donor.setCity(rs.getString(5));
+        donor.setLatitude(rs.getDouble(6));
+        donor.setLongitude(rs.getDouble(7));
+        donor.setWeight(rs.getDouble(8));
+        
+        Date lastDonation = rs.getDate(9);
         if (lastDonation != null) {
             donor.setLastDonationDate(lastDonation.toLocalDate());
         }
         
+        donor.setAvailable(rs.getBoolean(10));
+        return donor;
+    }
+    
+    /**
+     * Map a PROFILE_COLUMNS row (by column index)
+     */
+    private static Donor mapDonorProfile(ResultSet rs) throws SQLException {
+        Donor donor = mapMatchCandidate(rs);
+        donor.setDateOfBirth(rs.getDate(11).toLocalDate());
+        donor.setGender(EnumColumns.gender(rs, 12));
+        donor.setAddress(rs.getString(13));
+        donor.setState(rs.getString(14));
+        donor.setPincode(rs.getString(15));
+        donor.setMedicalConditions(rs.getString(16));
         return donor;
     }
-}
\ No newline at end of file
+}
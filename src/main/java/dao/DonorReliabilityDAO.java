@@ -0,0 +1,86 @@
+package dao;
+
+import config.DatabaseConfig;
+import model.*;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DonorReliabilityDAO - Per-donor response statistics (donor_reliability)
+ * Read once at start-up; afterwards rows are only written, as snapshots of
+ * the in-memory counters (one batched upsert per flush).
+ */
+public class DonorReliabilityDAO {
+
+    private final DatabaseConfig dbConfig;
+
+    public DonorReliabilityDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Statistics of every donor that has been notified
+     */
+    public List<DonorReliability> getAllReliability() {
+        String sql = "SELECT donor_id, notified, accepted, rejected, avg_response_seconds FROM donor_reliability";
+        List<DonorReliability> rows = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                double avg = rs.getDouble(5);
+                rows.add(new DonorReliability(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4),
+                    rs.wasNull() ? null : avg));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching donor reliability: " + e.getMessage());
+        }
+
+        return rows;
+    }
+
+    /**
+     * Write donor snapshots in one round trip
+     *
+     * @return true if every row was written
+     */
+    public boolean saveReliability(List<DonorReliability> rows) {
+        if (rows.isEmpty()) {
+            return true;
+        }
+
+        String sql = "INSERT INTO donor_reliability (donor_id, notified, accepted, rejected, avg_response_seconds) " +
+                     "VALUES (?, ?, ?, ?, ?) AS new ON DUPLICATE KEY UPDATE notified = new.notified, " +
+                     "accepted = new.accepted, rejected = new.rejected, " +
+                     "avg_response_seconds = new.avg_response_seconds";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (DonorReliability row : rows) {
+                pstmt.setInt(1, row.getDonorId());
+                pstmt.setInt(2, row.getNotified());
+                pstmt.setInt(3, row.getAccepted());
+                pstmt.setInt(4, row.getRejected());
+                if (row.getAvgResponseSeconds() != null) {
+                    pstmt.setDouble(5, row.getAvgResponseSeconds());
+                } else {
+                    pstmt.setNull(5, Types.DOUBLE);
+                }
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to save reliability of " + rows.size() + " donor(s): " + e.getMessage());
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package dao;
+
+import model.*;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * EnumColumns - Decodes MySQL ENUM columns through static lookup tables
+ * Projections select "column + 0", the 1-based ENUM index (0 for NULL), and
+ * the Java enums declare their constants in schema order, so decoding a row
+ * is an array read instead of string rewriting plus valueOf.
+ */
+public final class EnumColumns {
+
+    private static final Donor.BloodGroup[] BLOOD_GROUPS = Donor.BloodGroup.values();
+    private static final Donor.Gender[] GENDERS = Donor.Gender.values();
+    private static final Request.RequestType[] REQUEST_TYPES = Request.RequestType.values();
+    private static final Request.Urgency[] URGENCIES = Request.Urgency.values();
+    private static final Request.RequestStatus[] REQUEST_STATUSES = Request.RequestStatus.values();
+    private static final Ventilator.VentilatorType[] VENTILATOR_TYPES = Ventilator.VentilatorType.values();
+    private static final Ventilator.VentilatorStatus[] VENTILATOR_STATUSES = Ventilator.VentilatorStatus.values();
+    private static final Notification.NotificationType[] NOTIFICATION_TYPES = Notification.NotificationType.values();
+    private static final Notification.Priority[] PRIORITIES = Notification.Priority.values();
+    private static final StockProduct[] STOCK_PRODUCTS = StockProduct.values();
+    private static final BloodUnit.UnitStatus[] UNIT_STATUSES = BloodUnit.UnitStatus.values();
+    private static final VentilatorAllocation.AllocationStatus[] ALLOCATION_STATUSES =
+        VentilatorAllocation.AllocationStatus.values();
+    private static final Ward[] WARDS = Ward.values();
+
+    private EnumColumns() {
+        // Utility class
+    }
+
+    public static Donor.BloodGroup bloodGroup(ResultSet rs, int column) throws SQLException {
+        return lookup(BLOOD_GROUPS, rs.getInt(column));
+    }
+
+    public static Donor.Gender gender(ResultSet rs, int column) throws SQLException {
+        return lookup(GENDERS, rs.getInt(column));
+    }
+
+    public static Request.RequestType requestType(ResultSet rs, int column) throws SQLException {
+        return lookup(REQUEST_TYPES, rs.getInt(column));
+    }
+
+    public static Request.Urgency urgency(ResultSet rs, int column) throws SQLException {
+        return lookup(URGENCIES, rs.getInt(column));
+    }
+
+    public static Request.RequestStatus requestStatus(ResultSet rs, int column) throws SQLException {
+        return lookup(REQUEST_STATUSES, rs.getInt(column));
+    }
+
+    public static Ventilator.VentilatorType ventilatorType(ResultSet rs, int column) throws SQLException {
+        return lookup(VENTILATOR_TYPES, rs.getInt(column));
+    }
+
+    public static Ventilator.VentilatorStatus ventilatorStatus(ResultSet rs, int column) throws SQLException {
+        return lookup(VENTILATOR_STATUSES, rs.getInt(column));
+    }
+
+    public static Notification.NotificationType notificationType(ResultSet rs, int column) throws SQLException {
+        return lookup(NOTIFICATION_TYPES, rs.getInt(column));
+    }
+
+    public static Notification.Priority priority(ResultSet rs, int column) throws SQLException {
+        return lookup(PRIORITIES, rs.getInt(column));
+    }
+
+    public static StockProduct stockProduct(ResultSet rs, int column) throws SQLException {
+        return lookup(STOCK_PRODUCTS, rs.getInt(column));
+    }
+
+    public static BloodUnit.UnitStatus unitStatus(ResultSet rs, int column) throws SQLException {
+        return lookup(UNIT_STATUSES, rs.getInt(column));
+    }
+
+    public static VentilatorAllocation.AllocationStatus allocationStatus(ResultSet rs, int column) throws SQLException {
+        return lookup(ALLOCATION_STATUSES, rs.getInt(column));
+    }
+
+    public static Ward ward(ResultSet rs, int column) throws SQLException {
+        return lookup(WARDS, rs.getInt(column));
+    }
+
+    /**
+     * Map a 1-based ENUM index onto its constant; NULL (0) and unknown indexes yield null
+     */
+    private static <E> E lookup(E[] table, int enumIndex) {
+        return enumIndex > 0 && enumIndex <= table.length ? table[enumIndex - 1] : null;
+    }
+}
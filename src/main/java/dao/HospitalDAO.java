@@ -7,12 +7,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * HospitalDAO - Data Access Object for Hospital operations
  */
 public class HospitalDAO {
     
+    // Hospital row projection (everything the model carries, no audit timestamps)
+    private static final String HOSPITAL_COLUMNS =
+        "hospital_id, user_id, hospital_name, registration_number, address, city, state, pincode, " +
+        "latitude, longitude, contact_person, license_number, is_verified, bed_capacity, has_blood_bank";
+    
     private final DatabaseConfig dbConfig;
     
     public HospitalDAO() {
@@ -20,61 +27,76 @@ public class HospitalDAO {
     }
     
     /**
-     * Register new hospital
+     * Register new hospital, with its general ward sized from the bed capacity and
+     * an empty ICU (ward_occupancy), all or nothing
      */
     public int registerHospital(Hospital hospital) {
         String sql = "INSERT INTO hospitals (user_id, hospital_name, registration_number, address, " +
                      "city, state, pincode, latitude, longitude, contact_person, license_number, " +
                      "bed_capacity, has_blood_bank) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String wardSql = "INSERT INTO ward_occupancy (hospital_id, ward, capacity, occupied) VALUES (?, ?, ?, 0)";
+        int[] hospitalId = {-1};
         
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, hospital.getUserId());
-            pstmt.setString(2, hospital.getHospitalName());
-            pstmt.setString(3, hospital.getRegistrationNumber());
-            pstmt.setString(4, hospital.getAddress());
-            pstmt.setString(5, hospital.getCity());
-            pstmt.setString(6, hospital.getState());
-            pstmt.setString(7, hospital.getPincode());
-            pstmt.setDouble(8, hospital.getLatitude());
-            pstmt.setDouble(9, hospital.getLongitude());
-            pstmt.setString(10, hospital.getContactPerson());
-            pstmt.setString(11, hospital.getLicenseNumber());
-            pstmt.setInt(12, hospital.getBedCapacity());
-            pstmt.setBoolean(13, hospital.hasBloodBank());
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    return rs.getInt(1);
+        boolean registered = dbConfig.executeTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setInt(1, hospital.getUserId());
+                pstmt.setString(2, hospital.getHospitalName());
+                pstmt.setString(3, hospital.getRegistrationNumber());
+                pstmt.setString(4, hospital.getAddress());
+                pstmt.setString(5, hospital.getCity());
+                pstmt.setString(6, hospital.getState());
+                pstmt.setString(7, hospital.getPincode());
+                pstmt.setDouble(8, hospital.getLatitude());
+                pstmt.setDouble(9, hospital.getLongitude());
+                pstmt.setString(10, hospital.getContactPerson());
+                pstmt.setString(11, hospital.getLicenseNumber());
+                pstmt.setInt(12, hospital.getBedCapacity());
+                pstmt.setBoolean(13, hospital.hasBloodBank());
+                pstmt.executeUpdate();
+                
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    if (!rs.next()) {
+                        throw new SQLException("No hospital id generated");
+                    }
+                    hospitalId[0] = rs.getInt(1);
                 }
             }
             
-        } catch (SQLException e) {
-            System.err.println("✗ Failed to register hospital: " + e.getMessage());
-        }
+            try (PreparedStatement ward = conn.prepareStatement(wardSql)) {
+                ward.setInt(1, hospitalId[0]);
+                ward.setString(2, Ward.GENERAL.name());
+                ward.setInt(3, Math.max(0, hospital.getBedCapacity()));
+                ward.addBatch();
+                ward.setInt(1, hospitalId[0]);
+                ward.setString(2, Ward.ICU.name());
+                ward.setInt(3, 0);
+                ward.addBatch();
+                ward.executeBatch();
+            }
+        });
         
-        return -1;
+        if (!registered) {
+            System.err.println("✗ Failed to register hospital " + hospital.getHospitalName());
+            return -1;
+        }
+        return hospitalId[0];
     }
     
     /**
      * Get hospital by user ID (Used for login/session loading)
      */
     public Hospital getHospitalByUserId(int userId) {
-        String sql = "SELECT * FROM hospitals WHERE user_id = ?";
+        String sql = "SELECT " + HOSPITAL_COLUMNS + " FROM hospitals WHERE user_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractHospitalFromResultSet(rs);
+                return mapHospital(rs);
             }
             
         } catch (SQLException e) {
@@ -88,16 +110,16 @@ public class HospitalDAO {
      * Get hospital by hospital ID (Used by services and controllers)
      */
     public Hospital getHospitalById(int hospitalId) {
-        String sql = "SELECT * FROM hospitals WHERE hospital_id = ?";
+        String sql = "SELECT " + HOSPITAL_COLUMNS + " FROM hospitals WHERE hospital_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractHospitalFromResultSet(rs);
+                return mapHospital(rs);
             }
             
         } catch (SQLException e) {
@@ -107,21 +129,49 @@ public class HospitalDAO {
         return null;
     }
     
+    /**
+     * Update the contact and location details a hospital edits itself
+     */
+    public boolean updateHospitalProfile(Hospital hospital) {
+        String sql = "UPDATE hospitals SET address = ?, city = ?, state = ?, pincode = ?, latitude = ?, " +
+                     "longitude = ?, contact_person = ? WHERE hospital_id = ?";
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, hospital.getAddress());
+            pstmt.setString(2, hospital.getCity());
+            pstmt.setString(3, hospital.getState());
+            pstmt.setString(4, hospital.getPincode());
+            pstmt.setDouble(5, hospital.getLatitude());
+            pstmt.setDouble(6, hospital.getLongitude());
+            pstmt.setString(7, hospital.getContactPerson());
+            pstmt.setInt(8, hospital.getHospitalId());
+            
+            return pstmt.executeUpdate() > 0;
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to update hospital profile: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
     /**
      * Get all verified hospitals in a city
      */
     public List<Hospital> getHospitalsByCity(String city) {
-        String sql = "SELECT * FROM hospitals WHERE city = ? AND is_verified = TRUE";
+        String sql = "SELECT " + HOSPITAL_COLUMNS + " FROM hospitals WHERE city = ? AND is_verified = TRUE";
         List<Hospital> hospitals = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, city);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                hospitals.add(extractHospitalFromResultSet(rs));
+                hospitals.add(mapHospital(rs));
             }
             
         } catch (SQLException e) {
@@ -135,15 +185,15 @@ public class HospitalDAO {
      * Get all hospitals
      */
     public List<Hospital> getAllHospitals() {
-        String sql = "SELECT * FROM hospitals ORDER BY hospital_name";
+        String sql = "SELECT " + HOSPITAL_COLUMNS + " FROM hospitals ORDER BY hospital_name";
         List<Hospital> hospitals = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                hospitals.add(extractHospitalFromResultSet(rs));
+                hospitals.add(mapHospital(rs));
             }
             
         } catch (SQLException e) {
@@ -153,28 +203,86 @@ public class HospitalDAO {
         return hospitals;
     }
     
-    private Hospital extractHospitalFromResultSet(ResultSet rs) throws SQLException {
-        Hospital hospital = new Hospital();
-        hospital.setHospitalId(rs.getInt("hospital_id"));
-        hospital.setUserId(rs.getInt("user_id"));
-        hospital.setHospitalName(rs.getString("hospital_name"));
-        hospital.setRegistrationNumber(rs.getString("registration_number"));
-        hospital.setAddress(rs.getString("address"));
-        hospital.setCity(rs.getString("city"));
-        hospital.setState(rs.getString("state"));
-        hospital.setPincode(rs.getString("pincode"));
-        hospital.setLatitude(rs.getDouble("latitude"));
-        hospital.setLongitude(rs.getDouble("longitude"));
-        hospital.setContactPerson(rs.getString("contact_person"));
-        hospital.setLicenseNumber(rs.getString("license_number"));
-        hospital.setVerified(rs.getBoolean("is_verified"));
-        hospital.setBedCapacity(rs.getInt("bed_capacity"));
-        hospital.setHasBloodBank(rs.getBoolean("has_blood_bank"));
-        
-        // Handle timestamps if necessary (though not explicitly in this model)
-        // hospital.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        // hospital.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+    /**
+     * Get one page of all hospitals ordered by name
+     */
+    public Page<Hospital> getAllHospitals(int pageSize, String cursor) {
+        String sql = "SELECT " + HOSPITAL_COLUMNS + " FROM hospitals" +
+                     (cursor != null ? " WHERE hospital_name > ? OR (hospital_name = ? AND hospital_id > ?)" : "") +
+                     " ORDER BY hospital_name, hospital_id LIMIT ?";
+        List<Hospital> hospitals = new ArrayList<>();
         
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int idx = 1;
+            if (cursor != null) {
+                String[] key = PageCursor.decode(cursor, 2);
+                pstmt.setString(idx++, key[0]);
+                pstmt.setString(idx++, key[0]);
+                pstmt.setInt(idx++, Integer.parseInt(key[1]));
+            }
+            pstmt.setInt(idx, pageSize + 1);
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                hospitals.add(mapHospital(rs));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching hospitals page: " + e.getMessage());
+            return Page.empty();
+        }
+        
+        String nextCursor = null;
+        if (hospitals.size() > pageSize) {
+            hospitals = new ArrayList<>(hospitals.subList(0, pageSize));
+            Hospital last = hospitals.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.getHospitalName(), last.getHospitalId());
+        }
+        
+        return new Page<>(hospitals, nextCursor);
+    }
+    
+    /**
+     * Stream all hospitals over a server-side cursor (close the stream when done)
+     */
+    public Stream<Hospital> streamAllHospitals() {
+        String sql = "SELECT " + HOSPITAL_COLUMNS + " FROM hospitals ORDER BY hospital_id";
+        
+        return StreamingQuery.query(sql, pstmt -> { },
+            HospitalDAO::mapHospital, "all hospitals");
+    }
+    
+    /**
+     * Visit every hospital without holding them in memory
+     * @return Number of hospitals visited
+     */
+    public int forEachHospital(Consumer<Hospital> callback) {
+        return StreamingQuery.forEach(streamAllHospitals(), callback);
+    }
+    
+    /**
+     * Map a HOSPITAL_COLUMNS row (by column index)
+     */
+    private static Hospital mapHospital(ResultSet rs) throws SQLException {
+        Hospital hospital = new Hospital();
+        hospital.setHospitalId(rs.getInt(1));
+        hospital.setUserId(rs.getInt(2));
+        hospital.setHospitalName(rs.getString(3));
+        hospital.setRegistrationNumber(rs.getString(4));
+        hospital.setAddress(rs.getString(5));
+        hospital.setCity(rs.getString(6));
+        hospital.setState(rs.getString(7));
+        hospital.setPincode(rs.getString(8));
+        hospital.setLatitude(rs.getDouble(9));
+        hospital.setLongitude(rs.getDouble(10));
+        hospital.setContactPerson(rs.getString(11));
+        hospital.setLicenseNumber(rs.getString(12));
+        hospital.setVerified(rs.getBoolean(13));
+        hospital.setBedCapacity(rs.getInt(14));
+        hospital.setHasBloodBank(rs.getBoolean(15));
         return hospital;
     }
-}
\ No newline at end of file
+}
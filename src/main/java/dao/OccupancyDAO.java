@@ -0,0 +1,77 @@
+package dao;
+
+import config.DatabaseConfig;
+import model.*;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OccupancyDAO - Bed capacity and occupancy per hospital ward (ward_occupancy)
+ * Read once at start-up; afterwards rows are only written, as snapshots of
+ * the in-memory counters (one batched upsert per flush).
+ */
+public class OccupancyDAO {
+
+    private final DatabaseConfig dbConfig;
+
+    public OccupancyDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Every ward of every hospital
+     */
+    public List<WardOccupancy> getAllOccupancy() {
+        String sql = "SELECT hospital_id, ward + 0, capacity, occupied FROM ward_occupancy";
+        List<WardOccupancy> wards = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                wards.add(new WardOccupancy(rs.getInt(1), EnumColumns.ward(rs, 2), rs.getInt(3), rs.getInt(4)));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching ward occupancy: " + e.getMessage());
+        }
+
+        return wards;
+    }
+
+    /**
+     * Write ward snapshots in one round trip
+     *
+     * @return true if every row was written
+     */
+    public boolean saveOccupancy(List<WardOccupancy> wards) {
+        if (wards.isEmpty()) {
+            return true;
+        }
+
+        String sql = "INSERT INTO ward_occupancy (hospital_id, ward, capacity, occupied) VALUES (?, ?, ?, ?) AS new " +
+                     "ON DUPLICATE KEY UPDATE capacity = new.capacity, occupied = new.occupied";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (WardOccupancy ward : wards) {
+                pstmt.setInt(1, ward.getHospitalId());
+                pstmt.setString(2, ward.getWard().name());
+                pstmt.setInt(3, ward.getCapacity());
+                pstmt.setInt(4, ward.getOccupied());
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to save occupancy of " + wards.size() + " ward(s): " + e.getMessage());
+        }
+
+        return false;
+    }
+}
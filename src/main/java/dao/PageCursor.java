@@ -0,0 +1,59 @@
+package dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * PageCursor - Encodes and decodes opaque keyset cursors
+ * A cursor is the sort-key values of the last row of a page, each Base64
+ * encoded and joined, so callers (and the UI) treat it as an opaque token
+ * and free-text keys such as names cannot collide with the separator.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = ".";
+
+    private PageCursor() {
+        // Utility class
+    }
+
+    /**
+     * Build a cursor from the sort-key values of the last row
+     */
+    public static String encode(Object... keyParts) {
+        StringBuilder cursor = new StringBuilder();
+        for (int i = 0; i < keyParts.length; i++) {
+            if (i > 0) {
+                cursor.append(SEPARATOR);
+            }
+            cursor.append(Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(keyParts[i]).getBytes(StandardCharsets.UTF_8)));
+        }
+        return cursor.toString();
+    }
+    
+    /**
+     * Split a cursor back into its sort-key values
+     *
+     * @param cursor Cursor returned with a previous page
+     * @param expectedParts Number of sort keys the listing uses
+     * @return Sort-key values as strings
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to another listing
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        String[] parts = cursor.split("\\" + SEPARATOR, -1);
+        if (parts.length != expectedParts) {
+            throw new IllegalArgumentException("Page cursor has " + parts.length +
+                " keys, expected " + expectedParts);
+        }
+
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed page cursor", e);
+        }
+        return parts;
+    }
+}
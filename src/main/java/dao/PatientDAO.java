@@ -6,9 +6,19 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PatientDAO {
     
+    // List views: identity and contact columns, without the address/medical_history TEXT
+    private static final String LIST_COLUMNS =
+        "patient_id, user_id, full_name, blood_group + 0, date_of_birth, gender + 0, " +
+        "city, state, pincode, emergency_contact";
+    
+    // Full record: the list columns followed by the free-text columns
+    private static final String PROFILE_COLUMNS = LIST_COLUMNS + ", address, medical_history";
+    
     private final DatabaseConfig dbConfig;
     
     public PatientDAO() {
@@ -28,7 +38,7 @@ public class PatientDAO {
         System.out.println("Blood Group Enum: " + patient.getBloodGroup());
         System.out.println("Blood Group for DB: " + patient.getBloodGroup().getDisplay());
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, patient.getUserId());
@@ -67,12 +77,12 @@ public class PatientDAO {
      * Get patient by user ID
      */
     public Patient getPatientByUserId(int userId) {
-        String sql = "SELECT * FROM patients WHERE user_id = ?";
+        String sql = "SELECT " + PROFILE_COLUMNS + " FROM patients WHERE user_id = ?";
         
         System.out.println("\n--- PatientDAO.getPatientByUserId() ---");
         System.out.println("Searching for patient with user_id: " + userId);
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
@@ -80,7 +90,7 @@ public class PatientDAO {
             
             if (rs.next()) {
                 System.out.println("✓ Patient record found in database");
-                Patient patient = extractPatientFromResultSet(rs);
+                Patient patient = mapPatientProfile(rs);
                 System.out.println("  Patient ID: " + patient.getPatientId());
                 System.out.println("  Full Name: " + patient.getFullName());
                 System.out.println("  Blood Group: " + patient.getBloodGroup().getDisplay());
@@ -104,16 +114,16 @@ public class PatientDAO {
      * Get patient by ID
      */
     public Patient getPatientById(int patientId) {
-        String sql = "SELECT * FROM patients WHERE patient_id = ?";
+        String sql = "SELECT " + PROFILE_COLUMNS + " FROM patients WHERE patient_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, patientId);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractPatientFromResultSet(rs);
+                return mapPatientProfile(rs);
             }
             
         } catch (SQLException e) {
@@ -131,7 +141,7 @@ public class PatientDAO {
                      "city = ?, state = ?, pincode = ?, emergency_contact = ?, " +
                      "medical_history = ?, updated_at = NOW() WHERE patient_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, patient.getFullName());
@@ -162,17 +172,17 @@ public class PatientDAO {
      * Get all patients by city
      */
     public List<Patient> getPatientsByCity(String city) {
-        String sql = "SELECT * FROM patients WHERE city = ?";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM patients WHERE city = ?";
         List<Patient> patients = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, city);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                patients.add(extractPatientFromResultSet(rs));
+                patients.add(mapPatientRow(rs));
             }
             
         } catch (SQLException e) {
@@ -183,29 +193,49 @@ public class PatientDAO {
     }
     
     /**
-     * Extract Patient object from ResultSet
+     * Stream patients of a city over a server-side cursor (close the stream when done)
      */
-    private Patient extractPatientFromResultSet(ResultSet rs) throws SQLException {
-        Patient patient = new Patient();
-        patient.setPatientId(rs.getInt("patient_id"));
-        patient.setUserId(rs.getInt("user_id"));
-        patient.setFullName(rs.getString("full_name"));
-        
-        // Parse blood group from database (A+, B+, etc.) to enum (A_POSITIVE, B_POSITIVE, etc.)
-        String bloodGroupStr = rs.getString("blood_group")
-            .replace("+", "_POSITIVE")
-            .replace("-", "_NEGATIVE");
-        patient.setBloodGroup(Donor.BloodGroup.valueOf(bloodGroupStr));
-        
-        patient.setDateOfBirth(rs.getDate("date_of_birth").toLocalDate());
-        patient.setGender(Donor.Gender.valueOf(rs.getString("gender")));
-        patient.setAddress(rs.getString("address"));
-        patient.setCity(rs.getString("city"));
-        patient.setState(rs.getString("state"));
-        patient.setPincode(rs.getString("pincode"));
-        patient.setEmergencyContact(rs.getString("emergency_contact"));
-        patient.setMedicalHistory(rs.getString("medical_history"));
+    public Stream<Patient> streamPatientsByCity(String city) {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM patients WHERE city = ?";
         
+        return StreamingQuery.query(sql,
+            pstmt -> pstmt.setString(1, city),
+            PatientDAO::mapPatientRow, "patients by city");
+    }
+    
+    /**
+     * Visit every patient of a city without holding them in memory
+     * @return Number of patients visited
+     */
+    public int forEachPatientByCity(String city, Consumer<Patient> callback) {
+        return StreamingQuery.forEach(streamPatientsByCity(city), callback);
+    }
+    
+    /**
+     * Map a LIST_COLUMNS row (by column index)
+     */
+    private static Patient mapPatientRow(ResultSet rs) throws SQLException {
+        Patient patient = new Patient();
+        patient.setPatientId(rs.getInt(1));
+        patient.setUserId(rs.getInt(2));
+        patient.setFullName(rs.getString(3));
+        patient.setBloodGroup(EnumColumns.bloodGroup(rs, 4));
+        patient.setDateOfBirth(rs.getDate(5).toLocalDate());
+        patient.setGender(EnumColumns.gender(rs, 6));
+        patient.setCity(rs.getString(7));
+        patient.setState(rs.getString(8));
+        patient.setPincode(rs.getString(9));
+        patient.setEmergencyContact(rs.getString(10));
+        return patient;
+    }
+    
+    /**
+     * Map a PROFILE_COLUMNS row (by column index)
+     */
+    private static Patient mapPatientProfile(ResultSet rs) throws SQLException {
+        Patient patient = mapPatientRow(rs);
+        patient.setAddress(rs.getString(11));
+        patient.setMedicalHistory(rs.getString(12));
         return patient;
     }
-}
\ No newline at end of file
+}
@@ -3,11 +3,25 @@ package dao;
 import config.DatabaseConfig;
 import model.*;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class RequestDAO {
     
+    // List views: every column the tables and queue logic read, without the reason/notes TEXT.
+    // ENUMs come back as indexes; the aliases let the UNION query sort on them by name.
+    private static final String LIST_COLUMNS =
+        "r.request_id, r.patient_id, r.request_type + 0 AS request_type_idx, " +
+        "r.blood_group + 0 AS blood_group_idx, r.quantity_ml, r.urgency + 0 AS urgency_idx, " +
+        "r.required_by, r.hospital_id, r.status + 0 AS status_idx, r.created_at";
+    
+    // Detail view: the list columns followed by the free-text columns
+    private static final String DETAIL_COLUMNS = LIST_COLUMNS + ", r.reason, r.notes, r.accepted_donor_id";
+    
     private final DatabaseConfig dbConfig;
     
     public RequestDAO() {
@@ -22,7 +36,7 @@ public class RequestDAO {
                      "urgency, required_by, hospital_id, reason, notes) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, request.getPatientId());
@@ -72,16 +86,16 @@ public class RequestDAO {
      * Get request by ID
      */
     public Request getRequestById(int requestId) {
-        String sql = "SELECT * FROM requests WHERE request_id = ?";
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM requests r WHERE r.request_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, requestId);
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractRequestFromResultSet(rs);
+                return mapRequestDetail(rs);
             }
             
         } catch (SQLException e) {
@@ -95,17 +109,18 @@ public class RequestDAO {
      * Get requests by patient ID
      */
     public List<Request> getRequestsByPatient(int patientId) {
-        String sql = "SELECT * FROM requests WHERE patient_id = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r WHERE r.patient_id = ? " +
+                     "ORDER BY r.created_at DESC";
         List<Request> requests = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, patientId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                requests.add(extractRequestFromResultSet(rs));
+                requests.add(mapRequestRow(rs));
             }
             
         } catch (SQLException e) {
@@ -115,20 +130,44 @@ public class RequestDAO {
         return requests;
     }
     
+    /**
+     * Get one page of a patient's requests, newest first
+     */
+    public Page<Request> getRequestsByPatient(int patientId, int pageSize, String cursor) {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r WHERE r.patient_id = ?" +
+                     (cursor != null ? " AND (r.created_at < ? OR (r.created_at = ? AND r.request_id < ?))" : "") +
+                     " ORDER BY r.created_at DESC, r.request_id DESC LIMIT ?";
+
+        return fetchRequestPage(sql, pageSize,
+            last -> PageCursor.encode(last.getCreatedAt(), last.getRequestId()),
+            (pstmt, idx) -> {
+                pstmt.setInt(idx++, patientId);
+                if (cursor != null) {
+                    String[] key = PageCursor.decode(cursor, 2);
+                    Timestamp createdAt = Timestamp.valueOf(LocalDateTime.parse(key[0]));
+                    pstmt.setTimestamp(idx++, createdAt);
+                    pstmt.setTimestamp(idx++, createdAt);
+                    pstmt.setInt(idx++, Integer.parseInt(key[1]));
+                }
+                pstmt.setInt(idx++, pageSize + 1);
+                return idx;
+            }, "patient requests");
+    }
+    
     /**
      * Get pending requests by urgency
      */
     public List<Request> getPendingRequests() {
-        String sql = "SELECT * FROM requests WHERE status = 'PENDING' " +
-                     "ORDER BY FIELD(urgency, 'CRITICAL', 'URGENT', 'NORMAL'), created_at ASC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r WHERE r.status = 'PENDING' " +
+                     "ORDER BY FIELD(r.urgency, 'CRITICAL', 'URGENT', 'NORMAL'), r.created_at ASC";
         List<Request> requests = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                requests.add(extractRequestFromResultSet(rs));
+                requests.add(mapRequestRow(rs));
             }
             
         } catch (SQLException e) {
@@ -137,14 +176,120 @@ public class RequestDAO {
         
         return requests;
     }
-    
+
+    /**
+     * Quantity asked for by pending blood/plasma requests, per stock line of their hospital
+     */
+    public Map<StockKey, Integer> getPendingDemand() {
+        String sql = "SELECT r.hospital_id, r.blood_group + 0, r.request_type, SUM(r.quantity_ml) FROM requests r " +
+                     "WHERE r.status = 'PENDING' AND r.hospital_id IS NOT NULL AND r.request_type IN ('BLOOD', 'PLASMA') " +
+                     "GROUP BY r.hospital_id, r.blood_group, r.request_type";
+        Map<StockKey, Integer> demand = new HashMap<>();
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                StockKey key = new StockKey(rs.getInt(1), EnumColumns.bloodGroup(rs, 2), StockProduct.valueOf(rs.getString(3)));
+                demand.put(key, rs.getInt(4));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching pending demand: " + e.getMessage());
+        }
+        
+        return demand;
+    }
+
+    /**
+     * Get one page of all pending requests (same order as getPendingRequests)
+     */
+    public Page<Request> getPendingRequests(int pageSize, String cursor) {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r WHERE r.status = 'PENDING'" +
+                     (cursor != null ? PENDING_QUEUE_KEYSET : "") +
+                     " ORDER BY r.urgency, r.created_at, r.request_id LIMIT ?";
+
+        return fetchRequestPage(sql, pageSize, this::pendingQueueCursor, (pstmt, idx) -> {
+            idx = bindPendingQueueCursor(pstmt, idx, cursor);
+            pstmt.setInt(idx++, pageSize + 1);
+            return idx;
+        }, "pending requests");
+    }
+
+    /**
+     * Get one page of the pending queue relevant to a hospital:
+     * requests assigned to it, plus unassigned requests from patients in its city.
+     * Ordered CRITICAL -> URGENT -> NORMAL, then oldest first. Each branch is a
+     * range scan on idx_status_hospital_urgency_created, so the cost tracks the
+     * hospital's own workload rather than the national backlog.
+     *
+     * @param hospital Hospital whose queue is requested
+     * @param pageSize Maximum rows to return
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @return Page of requests with the cursor for the next page
+     */
+    public Page<Request> getPendingRequestsForHospital(Hospital hospital, int pageSize, String cursor) {
+        String keyset = cursor != null ? PENDING_QUEUE_KEYSET : "";
+        String sql = "SELECT * FROM (" +
+                     "(SELECT " + LIST_COLUMNS + " FROM requests r " +
+                     "WHERE r.status = 'PENDING' AND r.hospital_id = ?" + keyset +
+                     " ORDER BY r.urgency, r.created_at, r.request_id LIMIT ?) " +
+                     "UNION ALL " +
+                     "(SELECT " + LIST_COLUMNS + " FROM requests r " +
+                     "JOIN patients p ON r.patient_id = p.patient_id " +
+                     "WHERE r.status = 'PENDING' AND r.hospital_id IS NULL AND p.city = ?" + keyset +
+                     " ORDER BY r.urgency, r.created_at, r.request_id LIMIT ?)" +
+                     // Sort on the selected ENUM index, not the column itself, which UNION turns into a string
+                     ") q ORDER BY urgency_idx, created_at, request_id LIMIT ?";
+
+        return fetchRequestPage(sql, pageSize, this::pendingQueueCursor, (pstmt, idx) -> {
+            int limit = pageSize + 1;
+            pstmt.setInt(idx++, hospital.getHospitalId());
+            idx = bindPendingQueueCursor(pstmt, idx, cursor);
+            pstmt.setInt(idx++, limit);
+            pstmt.setString(idx++, hospital.getCity());
+            idx = bindPendingQueueCursor(pstmt, idx, cursor);
+            pstmt.setInt(idx++, limit);
+            pstmt.setInt(idx++, limit);
+            return idx;
+        }, "hospital request queue");
+    }
+
+    /**
+     * Count the pending queue relevant to a hospital (same scope as getPendingRequestsForHospital)
+     */
+    public int countPendingRequestsForHospital(Hospital hospital) {
+        String sql = "SELECT " +
+                     "(SELECT COUNT(*) FROM requests WHERE status = 'PENDING' AND hospital_id = ?) + " +
+                     "(SELECT COUNT(*) FROM requests r JOIN patients p ON r.patient_id = p.patient_id " +
+                     "WHERE r.status = 'PENDING' AND r.hospital_id IS NULL AND p.city = ?)";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hospital.getHospitalId());
+            pstmt.setString(2, hospital.getCity());
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error counting hospital request queue: " + e.getMessage());
+        }
+
+        return 0;
+    }
+
     /**
      * Update request status
      */
     public boolean updateRequestStatus(int requestId, Request.RequestStatus status) {
         String sql = "UPDATE requests SET status = ?, updated_at = NOW() WHERE request_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, status.name());
@@ -164,6 +309,61 @@ public class RequestDAO {
         return false;
     }
     
+    /**
+     * Approve a pending request at a hospital (an unassigned request is assigned to it).
+     * Only a request still PENDING changes, so two hospitals approving the same
+     * request cannot both win.
+     *
+     * @return 1 if approved, 0 if the request was no longer pending, -1 on failure
+     */
+    public int approvePendingRequest(int requestId, int hospitalId) {
+        String sql = "UPDATE requests SET status = 'APPROVED', hospital_id = COALESCE(hospital_id, ?), " +
+                     "updated_at = NOW() WHERE request_id = ? AND status = 'PENDING'";
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, hospitalId);
+            pstmt.setInt(2, requestId);
+            
+            int rows = pstmt.executeUpdate();
+            if (rows > 0) {
+                System.out.println("✓ Request #" + requestId + " approved by hospital " + hospitalId);
+            }
+            return rows;
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to approve request: " + e.getMessage());
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Mark an approved request as fulfilled once what it asked for was issued
+     *
+     * @return true if the request was still APPROVED and is now FULFILLED
+     */
+    public boolean fulfilApprovedRequest(int requestId) {
+        String sql = "UPDATE requests SET status = 'FULFILLED', updated_at = NOW() " +
+                     "WHERE request_id = ? AND status = 'APPROVED'";
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, requestId);
+            if (pstmt.executeUpdate() > 0) {
+                System.out.println("✓ Request #" + requestId + " fulfilled");
+                return true;
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to fulfil request: " + e.getMessage());
+        }
+        
+        return false;
+    }
+    
     /**
      * Assign hospital to request
      */
@@ -171,7 +371,7 @@ public class RequestDAO {
         String sql = "UPDATE requests SET hospital_id = ?, status = 'APPROVED', updated_at = NOW() " +
                      "WHERE request_id = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
@@ -186,20 +386,120 @@ public class RequestDAO {
         return false;
     }
     
+    /**
+     * Pending blood/plasma requests at a hospital that no donor has been matched to yet
+     * (the input of a batch matching run)
+     */
+    public List<Request> getUnmatchedDonationRequests() {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r " +
+                     "WHERE r.status = 'PENDING' AND r.request_type IN ('BLOOD', 'PLASMA') " +
+                     "AND r.hospital_id IS NOT NULL " +
+                     "AND NOT EXISTS (SELECT 1 FROM donor_matches m WHERE m.request_id = r.request_id)";
+        List<Request> requests = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                requests.add(mapRequestRow(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching unmatched requests: " + e.getMessage());
+        }
+
+        return requests;
+    }
+
+    /**
+     * Check that a request is still pending and no donor has accepted it (donor fan-out)
+     */
+    public boolean isAwaitingDonor(int requestId) {
+        String sql = "SELECT 1 FROM requests r WHERE r.request_id = ? AND r.status = 'PENDING' " +
+                     "AND NOT EXISTS (SELECT 1 FROM donor_matches m " +
+                     "WHERE m.request_id = r.request_id AND m.donor_response = 'ACCEPTED')";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, requestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error checking donor responses: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Pending ventilator requests assigned to a hospital (its ventilator waitlist)
+     */
+    public List<Request> getPendingVentilatorRequests(int hospitalId) {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r " +
+                     "WHERE r.status = 'PENDING' AND r.hospital_id = ? AND r.request_type = 'VENTILATOR'";
+        List<Request> requests = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hospitalId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                requests.add(mapRequestRow(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching ventilator waitlist: " + e.getMessage());
+        }
+
+        return requests;
+    }
+
+    /**
+     * Approved blood/plasma requests of a hospital still waiting to be issued, most urgent first
+     */
+    public List<Request> getApprovedSupplyRequests(int hospitalId) {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r " +
+                     "WHERE r.status = 'APPROVED' AND r.hospital_id = ? AND r.request_type IN ('BLOOD', 'PLASMA') " +
+                     "ORDER BY r.urgency, r.created_at, r.request_id";
+        List<Request> requests = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hospitalId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                requests.add(mapRequestRow(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching approved requests: " + e.getMessage());
+        }
+
+        return requests;
+    }
+
     /**
      * Get critical requests (for alerts)
      */
     public List<Request> getCriticalRequests() {
-        String sql = "SELECT * FROM requests WHERE urgency = 'CRITICAL' AND status = 'PENDING' " +
-                     "ORDER BY required_by ASC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r " +
+                     "WHERE r.urgency = 'CRITICAL' AND r.status = 'PENDING' ORDER BY r.required_by ASC";
         List<Request> requests = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                requests.add(extractRequestFromResultSet(rs));
+                requests.add(mapRequestRow(rs));
             }
             
         } catch (SQLException e) {
@@ -210,38 +510,120 @@ public class RequestDAO {
     }
     
     /**
-     * Extract Request object from ResultSet
+     * Get one page of critical pending requests, earliest deadline first
      */
-    private Request extractRequestFromResultSet(ResultSet rs) throws SQLException {
-        Request request = new Request();
-        request.setRequestId(rs.getInt("request_id"));
-        request.setPatientId(rs.getInt("patient_id"));
-        request.setRequestType(Request.RequestType.valueOf(rs.getString("request_type")));
-        
-        String bloodGroupStr = rs.getString("blood_group");
-        if (bloodGroupStr != null) {
-            request.setBloodGroup(Donor.BloodGroup.valueOf(
-                bloodGroupStr.replace("+", "_POSITIVE").replace("-", "_NEGATIVE")));
+    public Page<Request> getCriticalRequests(int pageSize, String cursor) {
+        String sql = "SELECT " + LIST_COLUMNS + " FROM requests r WHERE r.urgency = 'CRITICAL' AND r.status = 'PENDING'" +
+                     (cursor != null ? " AND (r.required_by > ? OR (r.required_by = ? AND r.request_id > ?))" : "") +
+                     " ORDER BY r.required_by, r.request_id LIMIT ?";
+
+        return fetchRequestPage(sql, pageSize,
+            last -> PageCursor.encode(last.getRequiredBy(), last.getRequestId()),
+            (pstmt, idx) -> {
+                if (cursor != null) {
+                    String[] key = PageCursor.decode(cursor, 2);
+                    Timestamp requiredBy = Timestamp.valueOf(LocalDateTime.parse(key[0]));
+                    pstmt.setTimestamp(idx++, requiredBy);
+                    pstmt.setTimestamp(idx++, requiredBy);
+                    pstmt.setInt(idx++, Integer.parseInt(key[1]));
+                }
+                pstmt.setInt(idx++, pageSize + 1);
+                return idx;
+            }, "critical requests");
+    }
+    
+    /**
+     * Run a keyset page query: the binder sets every parameter (including LIMIT pageSize + 1),
+     * the extra row only tells whether another page exists and is dropped.
+     */
+    private Page<Request> fetchRequestPage(String sql, int pageSize, Function<Request, String> cursorOf,
+                                           ParameterBinder binder, String listing) {
+        List<Request> requests = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            binder.bind(pstmt, 1);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                requests.add(mapRequestRow(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching " + listing + ": " + e.getMessage());
+            return Page.empty();
         }
+
+        String nextCursor = null;
+        if (requests.size() > pageSize) {
+            requests = new ArrayList<>(requests.subList(0, pageSize));
+            nextCursor = cursorOf.apply(requests.get(pageSize - 1));
+        }
+
+        return new Page<>(requests, nextCursor);
+    }
+    
+    /**
+     * Binds query parameters starting at idx and returns the next free index
+     */
+    @FunctionalInterface
+    private interface ParameterBinder {
+        int bind(PreparedStatement pstmt, int idx) throws SQLException;
+    }
+    
+    // Keyset predicate for (urgency, created_at, request_id); urgency is compared by ENUM index
+    private static final String PENDING_QUEUE_KEYSET =
+        " AND (r.urgency > ? OR (r.urgency = ? AND (r.created_at > ? OR " +
+        "(r.created_at = ? AND r.request_id > ?))))";
+
+    private int bindPendingQueueCursor(PreparedStatement pstmt, int idx, String cursor) throws SQLException {
+        if (cursor == null) {
+            return idx;
+        }
+
+        String[] key = PageCursor.decode(cursor, 3);
+        int urgencyIndex = Integer.parseInt(key[0]);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.parse(key[1]));
+
+        pstmt.setInt(idx++, urgencyIndex);
+        pstmt.setInt(idx++, urgencyIndex);
+        pstmt.setTimestamp(idx++, createdAt);
+        pstmt.setTimestamp(idx++, createdAt);
+        pstmt.setInt(idx++, Integer.parseInt(key[2]));
+        return idx;
+    }
+
+    private String pendingQueueCursor(Request last) {
+        // MySQL ENUM indexes are 1-based and follow the declaration order of Request.Urgency
+        return PageCursor.encode(last.getUrgency().ordinal() + 1, last.getCreatedAt(), last.getRequestId());
+    }
+    
+    /**
+     * Map a LIST_COLUMNS row (by column index)
+     */
+    private static Request mapRequestRow(ResultSet rs) throws SQLException {
+        Request request = new Request();
+        request.setRequestId(rs.getInt(1));
+        request.setPatientId(rs.getInt(2));
+        request.setRequestType(EnumColumns.requestType(rs, 3));
+        request.setBloodGroup(EnumColumns.bloodGroup(rs, 4));
+        request.setQuantityMl(rs.getInt(5));
+        request.setUrgency(EnumColumns.urgency(rs, 6));
         
-        request.setQuantityMl(rs.getInt("quantity_ml"));
-        request.setUrgency(Request.Urgency.valueOf(rs.getString("urgency")));
-        
-        Timestamp requiredBy = rs.getTimestamp("required_by");
+        Timestamp requiredBy = rs.getTimestamp(7);
         if (requiredBy != null) {
-             request.setRequiredBy(requiredBy.toLocalDateTime());
+            request.setRequiredBy(requiredBy.toLocalDateTime());
         }
         
-        int hospitalId = rs.getInt("hospital_id");
+        int hospitalId = rs.getInt(8);
         if (!rs.wasNull()) {
             request.setHospitalId(hospitalId);
         }
         
-        request.setStatus(Request.RequestStatus.valueOf(rs.getString("status")));
-        request.setReason(rs.getString("reason"));
-        request.setNotes(rs.getString("notes"));
+        request.setStatus(EnumColumns.requestStatus(rs, 9));
         
-        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp createdAt = rs.getTimestamp(10);
         if (createdAt != null) {
             request.setCreatedAt(createdAt.toLocalDateTime());
         }
@@ -249,6 +631,18 @@ public class RequestDAO {
         return request;
     }
     
+    /**
+     * Map a DETAIL_COLUMNS row (by column index)
+     */
+    private static Request mapRequestDetail(ResultSet rs) throws SQLException {
+        Request request = mapRequestRow(rs);
+        request.setReason(rs.getString(11));
+        request.setNotes(rs.getString(12));
+        int acceptedDonorId = rs.getInt(13);
+        request.setAcceptedDonorId(rs.wasNull() ? null : acceptedDonorId);
+        return request;
+    }
+    
     /**
      * Converts enum blood group (e.g., A_POSITIVE) to symbol (A+, B-, etc.)
      */
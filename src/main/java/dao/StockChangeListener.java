@@ -0,0 +1,29 @@
+package dao;
+
+import model.StockKey;
+
+/**
+ * StockChangeListener - Told about every stock write StockDAO commits
+ * Called on the writing thread right after the statement, so keep it cheap.
+ */
+public interface StockChangeListener {
+
+    /**
+     * @param quantityChange Change that was applied (non-zero)
+     * @param newQuantity    Quantity of the line after the change
+     */
+    void stockChanged(StockKey key, int quantityChange, int newQuantity);
+
+    /**
+     * A stock write created the line, so it had no previous level
+     */
+    default void stockLineCreated(StockKey key, int newQuantity) {
+        stockChanged(key, newQuantity, newQuantity);
+    }
+
+    /**
+     * The line's minimum threshold was changed
+     */
+    default void thresholdChanged(StockKey key, int newThreshold) {
+    }
+}
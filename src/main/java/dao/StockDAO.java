@@ -3,12 +3,29 @@ package dao;
 import config.DatabaseConfig;
 import model.*;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class StockDAO {
     
+    // Thresholds given to stock lines created by their first write
+    public static final int DEFAULT_BLOOD_THRESHOLD_ML = 500;
+    public static final int DEFAULT_PLASMA_THRESHOLD_ML = 200;
+    
+    // Results of a stock write besides the new quantity
+    public static final int WRITE_FAILED = -1;      // Nothing was committed; safe to retry
+    public static final int QUANTITY_UNKNOWN = -2;  // Committed, but the new quantity could not be read
+    
+    private static final List<StockChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+    
+    // Holds live in memory, shared by every StockDAO
+    private static final StockHolds HOLDS = new StockHolds(key -> new StockDAO().getQuantity(key));
+    
     private final DatabaseConfig dbConfig;
     
     public StockDAO() {
@@ -20,24 +37,28 @@ public class StockDAO {
         return bg.getDisplay(); // Assuming Donor.BloodGroup has a getDisplay() method that returns "A+", "O-", etc.
     }
     
-    // Helper method to extract BloodStock from ResultSet
-    private BloodStock extractBloodStockFromResultSet(ResultSet rs) throws SQLException {
+    // Stock row projection; blood_group comes back as its ENUM index
+    private static final String BLOOD_STOCK_COLUMNS =
+        "stock_id, hospital_id, blood_group + 0, quantity_ml, min_threshold, last_updated, expiry_date";
+    
+    private static final String PLASMA_STOCK_COLUMNS =
+        "plasma_id, hospital_id, blood_group + 0, quantity_ml, min_threshold, last_updated, expiry_date";
+    
+    // Helper method to map a BLOOD_STOCK_COLUMNS row (by column index)
+    private static BloodStock mapBloodStock(ResultSet rs) throws SQLException {
         BloodStock stock = new BloodStock();
-        stock.setStockId(rs.getInt("stock_id"));
-        stock.setHospitalId(rs.getInt("hospital_id"));
-        
-        String bloodGroupStr = rs.getString("blood_group").replace("+", "_POSITIVE").replace("-", "_NEGATIVE");
-        stock.setBloodGroup(Donor.BloodGroup.valueOf(bloodGroupStr));
+        stock.setStockId(rs.getInt(1));
+        stock.setHospitalId(rs.getInt(2));
+        stock.setBloodGroup(EnumColumns.bloodGroup(rs, 3));
+        stock.setQuantityMl(rs.getInt(4));
+        stock.setMinThreshold(rs.getInt(5));
         
-        stock.setQuantityMl(rs.getInt("quantity_ml"));
-        stock.setMinThreshold(rs.getInt("min_threshold"));
-        
-        Timestamp lastUpdatedTs = rs.getTimestamp("last_updated");
+        Timestamp lastUpdatedTs = rs.getTimestamp(6);
         if (lastUpdatedTs != null) {
             stock.setLastUpdated(lastUpdatedTs.toLocalDateTime());
         }
         
-        Date expiryDate = rs.getDate("expiry_date");
+        Date expiryDate = rs.getDate(7);
         if (expiryDate != null) {
             stock.setExpiryDate(expiryDate.toLocalDate());
         }
@@ -45,24 +66,21 @@ public class StockDAO {
         return stock;
     }
     
-    // Helper method to extract PlasmaStock from ResultSet
-    private PlasmaStock extractPlasmaStockFromResultSet(ResultSet rs) throws SQLException {
+    // Helper method to map a PLASMA_STOCK_COLUMNS row (by column index)
+    private static PlasmaStock mapPlasmaStock(ResultSet rs) throws SQLException {
         PlasmaStock stock = new PlasmaStock();
-        stock.setPlasmaId(rs.getInt("plasma_id"));
-        stock.setHospitalId(rs.getInt("hospital_id"));
-        
-        String bloodGroupStr = rs.getString("blood_group").replace("+", "_POSITIVE").replace("-", "_NEGATIVE");
-        stock.setBloodGroup(Donor.BloodGroup.valueOf(bloodGroupStr));
+        stock.setPlasmaId(rs.getInt(1));
+        stock.setHospitalId(rs.getInt(2));
+        stock.setBloodGroup(EnumColumns.bloodGroup(rs, 3));
+        stock.setQuantityMl(rs.getInt(4));
+        stock.setMinThreshold(rs.getInt(5));
         
-        stock.setQuantityMl(rs.getInt("quantity_ml"));
-        stock.setMinThreshold(rs.getInt("min_threshold"));
-        
-        Timestamp lastUpdatedTs = rs.getTimestamp("last_updated");
+        Timestamp lastUpdatedTs = rs.getTimestamp(6);
         if (lastUpdatedTs != null) {
             stock.setLastUpdated(lastUpdatedTs.toLocalDateTime());
         }
         
-        Date expiryDate = rs.getDate("expiry_date");
+        Date expiryDate = rs.getDate(7);
         if (expiryDate != null) {
             stock.setExpiryDate(expiryDate.toLocalDate());
         }
@@ -74,9 +92,9 @@ public class StockDAO {
      * Get blood stock for a hospital and blood group
      */
     public BloodStock getBloodStock(int hospitalId, Donor.BloodGroup bloodGroup) {
-        String sql = "SELECT * FROM blood_stock WHERE hospital_id = ? AND blood_group = ?";
+        String sql = "SELECT " + BLOOD_STOCK_COLUMNS + " FROM blood_stock WHERE hospital_id = ? AND blood_group = ?";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
@@ -85,7 +103,7 @@ public class StockDAO {
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return extractBloodStockFromResultSet(rs);
+                return mapBloodStock(rs);
             }
             
         } catch (SQLException e) {
@@ -99,17 +117,17 @@ public class StockDAO {
      * Get all blood stock for a hospital
      */
     public List<BloodStock> getAllBloodStock(int hospitalId) {
-        String sql = "SELECT * FROM blood_stock WHERE hospital_id = ? ORDER BY blood_group";
+        String sql = "SELECT " + BLOOD_STOCK_COLUMNS + " FROM blood_stock WHERE hospital_id = ? ORDER BY blood_group";
         List<BloodStock> stocks = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                stocks.add(extractBloodStockFromResultSet(rs));
+                stocks.add(mapBloodStock(rs));
             }
             
         } catch (SQLException e) {
@@ -120,74 +138,42 @@ public class StockDAO {
     }
     
     /**
-     * FIX: Implemented UPSERT logic for Blood Stock.
-     * Attempts to UPDATE, and if no rows affected, INSERTs a new record.
+     * Add (or, with a negative change, remove) blood stock in one atomic statement.
+     * Creates the row on first use (threshold 500). The expiry date follows the
+     * earliest available bag of the line, or 30 days out when no bags are tracked.
+     * The quantity never goes below 0.
+     * 
+     * @return Resulting quantity in ml, WRITE_FAILED or QUANTITY_UNKNOWN
      */
-    public boolean updateBloodStock(int hospitalId, Donor.BloodGroup bloodGroup, int quantityChange) {
-        String bloodGroupSymbol = mapBloodGroupSymbol(bloodGroup);
-
-        // 1. Attempt to UPDATE existing stock
-        String updateSql = "UPDATE blood_stock SET quantity_ml = quantity_ml + ?, " +
-                           "last_updated = NOW() WHERE hospital_id = ? AND blood_group = ?";
-        
-        // 2. INSERT new record if UPDATE fails (quantityChange is the initial quantity)
-        // Set expiry date to 30 days from now, and min_threshold to default 500
-        String insertSql = "INSERT INTO blood_stock (hospital_id, blood_group, quantity_ml, expiry_date, min_threshold) " +
-                           "VALUES (?, ?, ?, DATE_ADD(CURDATE(), INTERVAL 30 DAY), 500)";
-
-        try (Connection conn = dbConfig.getConnection()) {
-            
-            // Try Update
-            try (PreparedStatement updatePstmt = conn.prepareStatement(updateSql)) {
-                updatePstmt.setInt(1, quantityChange);
-                updatePstmt.setInt(2, hospitalId);
-                updatePstmt.setString(3, bloodGroupSymbol);
-                
-                int rows = updatePstmt.executeUpdate();
-                
-                if (rows > 0) {
-                    System.out.println("✓ Blood stock UPDATED successfully for " + bloodGroupSymbol);
-                    return true;
-                }
-            }
-            
-            // If Update failed (0 rows affected), try Insert
-            try (PreparedStatement insertPstmt = conn.prepareStatement(insertSql)) {
-                insertPstmt.setInt(1, hospitalId);
-                insertPstmt.setString(2, bloodGroupSymbol);
-                insertPstmt.setInt(3, quantityChange);
-                
-                int rows = insertPstmt.executeUpdate();
-                
-                if (rows > 0) {
-                    System.out.println("✓ Blood stock INSERTED successfully for " + bloodGroupSymbol);
-                    return true;
-                }
-            }
-
-        } catch (SQLException e) {
-            System.err.println("✗ Failed to UPSERT blood stock for " + bloodGroupSymbol + ": " + e.getMessage());
-            // Ignore common race condition errors like "Duplicate entry" that result from concurrent updates/inserts
+    public int updateBloodStock(int hospitalId, Donor.BloodGroup bloodGroup, int quantityChange) {
+        String sql = "INSERT INTO blood_stock (hospital_id, blood_group, quantity_ml, expiry_date, min_threshold) " +
+                     "VALUES (?, ?, GREATEST(0, ?), COALESCE(" + earliestUnitExpiry(StockProduct.BLOOD, "?", "?") +
+                     ", DATE_ADD(CURDATE(), INTERVAL 30 DAY)), " + DEFAULT_BLOOD_THRESHOLD_ML + ") " +
+                     stockUpsertClause(StockProduct.BLOOD);
+        
+        if (quantityChange == 0) {
+            BloodStock stock = getBloodStock(hospitalId, bloodGroup);
+            return stock != null ? stock.getQuantityMl() : 0;
         }
         
-        return false;
+        return upsertStock(sql, hospitalId, bloodGroup, quantityChange, StockProduct.BLOOD);
     }
     
     /**
      * Get low stock alerts (below threshold)
      */
     public List<BloodStock> getLowStockAlerts(int hospitalId) {
-        String sql = "SELECT * FROM blood_stock WHERE hospital_id = ? AND quantity_ml < min_threshold";
+        String sql = "SELECT " + BLOOD_STOCK_COLUMNS + " FROM blood_stock WHERE hospital_id = ? AND quantity_ml < min_threshold";
         List<BloodStock> lowStocks = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                lowStocks.add(extractBloodStockFromResultSet(rs));
+                lowStocks.add(mapBloodStock(rs));
             }
             
         } catch (SQLException e) {
@@ -201,17 +187,17 @@ public class StockDAO {
      * Get all plasma stock for a hospital
      */
     public List<PlasmaStock> getAllPlasmaStock(int hospitalId) {
-        String sql = "SELECT * FROM plasma_stock WHERE hospital_id = ? ORDER BY blood_group";
+        String sql = "SELECT " + PLASMA_STOCK_COLUMNS + " FROM plasma_stock WHERE hospital_id = ? ORDER BY blood_group";
         List<PlasmaStock> stocks = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                stocks.add(extractPlasmaStockFromResultSet(rs));
+                stocks.add(mapPlasmaStock(rs));
             }
             
         } catch (SQLException e) {
@@ -222,63 +208,331 @@ public class StockDAO {
     }
     
     /**
-     * FIX: Implemented UPSERT logic for Plasma Stock.
-     * Attempts to UPDATE, and if no rows affected, INSERTs a new record.
+     * Add (or, with a negative change, remove) plasma stock in one atomic statement.
+     * Creates the row on first use (threshold 200). The expiry date follows the
+     * earliest available bag of the line, or 60 days out when no bags are tracked.
+     * The quantity never goes below 0.
+     * 
+     * @return Resulting quantity in ml, WRITE_FAILED or QUANTITY_UNKNOWN
      */
-    public boolean updatePlasmaStock(int hospitalId, Donor.BloodGroup bloodGroup, int quantityChange) {
-        String bloodGroupSymbol = mapBloodGroupSymbol(bloodGroup);
+    public int updatePlasmaStock(int hospitalId, Donor.BloodGroup bloodGroup, int quantityChange) {
+        String sql = "INSERT INTO plasma_stock (hospital_id, blood_group, quantity_ml, expiry_date, min_threshold) " +
+                     "VALUES (?, ?, GREATEST(0, ?), COALESCE(" + earliestUnitExpiry(StockProduct.PLASMA, "?", "?") +
+                     ", DATE_ADD(CURDATE(), INTERVAL 60 DAY)), " + DEFAULT_PLASMA_THRESHOLD_ML + ") " +
+                     stockUpsertClause(StockProduct.PLASMA);
         
-        // 1. Attempt to UPDATE existing stock
-        String updateSql = "UPDATE plasma_stock SET quantity_ml = quantity_ml + ?, " +
-                           "last_updated = NOW() WHERE hospital_id = ? AND blood_group = ?";
-        
-        // 2. INSERT new record if UPDATE fails (quantityChange is the initial quantity)
-        // Set expiry date to 60 days from now, and min_threshold to default 200
-        String insertSql = "INSERT INTO plasma_stock (hospital_id, blood_group, quantity_ml, expiry_date, min_threshold) " +
-                           "VALUES (?, ?, ?, DATE_ADD(CURDATE(), INTERVAL 60 DAY), 200)";
-
-        try (Connection conn = dbConfig.getConnection()) {
-            
-            // Try Update
-            try (PreparedStatement updatePstmt = conn.prepareStatement(updateSql)) {
-                updatePstmt.setInt(1, quantityChange);
-                updatePstmt.setInt(2, hospitalId);
-                updatePstmt.setString(3, bloodGroupSymbol);
-                
-                int rows = updatePstmt.executeUpdate();
-                
-                if (rows > 0) {
-                    System.out.println("✓ Plasma stock UPDATED successfully for " + bloodGroupSymbol);
-                    return true;
+        if (quantityChange == 0) {
+            for (PlasmaStock stock : getAllPlasmaStock(hospitalId)) {
+                if (stock.getBloodGroup() == bloodGroup) {
+                    return stock.getQuantityMl();
                 }
             }
+            return 0;
+        }
+        
+        return upsertStock(sql, hospitalId, bloodGroup, quantityChange, StockProduct.PLASMA);
+    }
+    
+    /**
+     * Apply a stock change to the blood or plasma table
+     * 
+     * @return Resulting quantity in ml, WRITE_FAILED (not committed, retry) or
+     *         QUANTITY_UNKNOWN (committed, do not retry)
+     */
+    public int adjustStock(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product, int quantityChange) {
+        return product == StockProduct.PLASMA
+            ? updatePlasmaStock(hospitalId, bloodGroup, quantityChange)
+            : updateBloodStock(hospitalId, bloodGroup, quantityChange);
+    }
+    
+    // On an existing (hospital, group) row, add the change and hand the new quantity
+    // back through LAST_INSERT_ID(expr), which the driver reports as the generated key.
+    // The expiry date is re-derived from the bags in the same statement. The change,
+    // hospital and group are bound again (parameters 6-8) rather than read through the
+    // deprecated VALUES() function. GREATEST keeps the quantity (and with it the
+    // generated key, which comes back unsigned) from going negative.
+    private static String stockUpsertClause(StockProduct product) {
+        return "ON DUPLICATE KEY UPDATE quantity_ml = LAST_INSERT_ID(GREATEST(0, quantity_ml + ?)), " +
+               "expiry_date = COALESCE(" + earliestUnitExpiry(product, "?", "?") + ", expiry_date), " +
+               "last_updated = NOW()";
+    }
+    
+    // Earliest expiry among the available bags of a stock line (NULL when it has none)
+    private static String earliestUnitExpiry(StockProduct product, String hospitalExpr, String bloodGroupExpr) {
+        return "(SELECT MIN(u.expires_on) FROM blood_units u " +
+               "WHERE u.hospital_id = " + hospitalExpr + " AND u.blood_group = " + bloodGroupExpr +
+               " AND u.product = '" + product.name() + "' AND u.status = 'AVAILABLE')";
+    }
+    
+    /**
+     * Set the minimum threshold (low stock alert level) of an existing stock line
+     *
+     * @return true if the line exists and was updated
+     */
+    public boolean updateThreshold(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product, int thresholdMl) {
+        String table = product == StockProduct.PLASMA ? "plasma_stock" : "blood_stock";
+        String sql = "UPDATE " + table + " SET min_threshold = ? WHERE hospital_id = ? AND blood_group = ?";
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            // If Update failed (0 rows affected), try Insert
-            try (PreparedStatement insertPstmt = conn.prepareStatement(insertSql)) {
-                insertPstmt.setInt(1, hospitalId);
-                insertPstmt.setString(2, bloodGroupSymbol);
-                insertPstmt.setInt(3, quantityChange);
-                
-                int rows = insertPstmt.executeUpdate();
-                
-                if (rows > 0) {
-                    System.out.println("✓ Plasma stock INSERTED successfully for " + bloodGroupSymbol);
-                    return true;
+            pstmt.setInt(1, thresholdMl);
+            pstmt.setInt(2, hospitalId);
+            pstmt.setString(3, mapBloodGroupSymbol(bloodGroup));
+            
+            if (pstmt.executeUpdate() > 0) {
+                StockKey key = new StockKey(hospitalId, bloodGroup, product);
+                for (StockChangeListener listener : LISTENERS) {
+                    listener.thresholdChanged(key, thresholdMl);
                 }
+                System.out.println("✓ Threshold of " + key + " set to " + thresholdMl + "ml");
+                return true;
             }
-
+            
         } catch (SQLException e) {
-            System.err.println("✗ Failed to UPSERT plasma stock for " + bloodGroupSymbol + ": " + e.getMessage());
+            System.err.println("✗ Failed to update stock threshold: " + e.getMessage());
         }
         
         return false;
     }
     
+    /**
+     * Register a listener for every committed stock change
+     */
+    public static void addStockChangeListener(StockChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+    
+    private static void fireStockChanged(StockKey key, int quantityChange, int newQuantity, boolean created) {
+        HOLDS.onHandChanged(key, newQuantity);
+        for (StockChangeListener listener : LISTENERS) {
+            try {
+                if (created) {
+                    listener.stockLineCreated(key, newQuantity);
+                } else {
+                    listener.stockChanged(key, quantityChange, newQuantity);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("✗ Stock change listener failed for " + key + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Run a stock upsert on a pooled connection and return the resulting quantity.
+     * MySQL reports 2 affected rows for an update of the existing row (the quantity
+     * is the generated key); anything else is read back from the row. Once the
+     * statement has run the change is committed, so a failure after that point is
+     * reported as QUANTITY_UNKNOWN, never as WRITE_FAILED.
+     * quantityChange must be non-zero, otherwise an existing row would not change.
+     */
+    private int upsertStock(String sql, int hospitalId, Donor.BloodGroup bloodGroup,
+                            int quantityChange, StockProduct product) {
+        String bloodGroupSymbol = mapBloodGroupSymbol(bloodGroup);
+        String label = product == StockProduct.PLASMA ? "Plasma" : "Blood";
+        StockKey key = new StockKey(hospitalId, bloodGroup, product);
+        boolean committed = false;
+        boolean created = false;
+        int quantity = -1;
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            
+            pstmt.setInt(1, hospitalId);
+            pstmt.setString(2, bloodGroupSymbol);
+            pstmt.setInt(3, quantityChange);
+            pstmt.setInt(4, hospitalId);
+            pstmt.setString(5, bloodGroupSymbol);
+            pstmt.setInt(6, quantityChange);
+            pstmt.setInt(7, hospitalId);
+            pstmt.setString(8, bloodGroupSymbol);
+            
+            int rows = pstmt.executeUpdate();
+            committed = true;
+            created = rows == 1;
+            
+            if (rows == 2) {
+                try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        quantity = rs.getInt(1);
+                    }
+                }
+            }
+            
+            // A new row, or the driver reported no key (new quantity 0): read the row itself
+            if (quantity < 0) {
+                quantity = readQuantity(conn, key);
+            }
+            
+            System.out.println("✓ " + label + " stock " + (rows == 2 ? "UPDATED" : "INSERTED") + " for " +
+                               bloodGroupSymbol + ": " + quantity + "ml");
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to UPSERT " + label.toLowerCase() + " stock for " + bloodGroupSymbol + ": " + e.getMessage());
+        }
+        
+        if (!committed) {
+            return WRITE_FAILED;
+        }
+        if (quantity < 0) {
+            System.err.println("✗ " + label + " stock for " + bloodGroupSymbol + " written, but its new quantity is unknown");
+            return QUANTITY_UNKNOWN;
+        }
+        
+        if (quantity == 0 && quantityChange < 0) {
+            System.out.println("⚠ " + label + " stock for " + bloodGroupSymbol + " would have gone below 0; set to 0");
+        }
+        
+        fireStockChanged(key, quantityChange, quantity, created);
+        return quantity;
+    }
+    
+    private static int readQuantity(Connection conn, StockKey key) throws SQLException {
+        String table = key.getProduct() == StockProduct.PLASMA ? "plasma_stock" : "blood_stock";
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT quantity_ml FROM " + table + " WHERE hospital_id = ? AND blood_group = ?")) {
+            pstmt.setInt(1, key.getHospitalId());
+            pstmt.setString(2, key.getBloodGroup().getDisplay());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+    
+    /**
+     * Current quantity of one stock line
+     * 
+     * @return Quantity in ml (0 if the line has no row yet), or -1 on error
+     */
+    public int getQuantity(StockKey key) {
+        String table = key.getProduct() == StockProduct.PLASMA ? "plasma_stock" : "blood_stock";
+        String sql = "SELECT quantity_ml FROM " + table + " WHERE hospital_id = ? AND blood_group = ?";
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, key.getHospitalId());
+            pstmt.setString(2, mapBloodGroupSymbol(key.getBloodGroup()));
+            ResultSet rs = pstmt.executeQuery();
+            
+            return rs.next() ? rs.getInt(1) : 0;
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Error reading stock quantity for " + key + ": " + e.getMessage());
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Set stock aside for a request. The hold lapses by itself after ttlMinutes
+     * unless it is confirmed or released first.
+     * 
+     * @param requestId Request the stock is promised to (may be null)
+     * @return The hold, or null if less than quantityMl is available
+     */
+    public StockHold placeHold(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product,
+                               int quantityMl, Integer requestId, long ttlMinutes) {
+        return HOLDS.place(new StockKey(hospitalId, bloodGroup, product), quantityMl, requestId, ttlMinutes);
+    }
+    
+    /**
+     * Turn a hold into an issue: the held quantity stops counting as held and
+     * as on hand. The caller then writes the matching stock change.
+     * 
+     * @return The confirmed hold, or null if it already lapsed or was released
+     */
+    public StockHold confirmHold(long holdId) {
+        return HOLDS.finish(holdId, StockHold.HoldStatus.CONFIRMED);
+    }
+    
+    /**
+     * Give held stock back (request rejected or cancelled)
+     */
+    public boolean releaseHold(long holdId) {
+        return HOLDS.finish(holdId, StockHold.HoldStatus.RELEASED) != null;
+    }
+    
+    /**
+     * Active hold placed for a request, or null
+     */
+    public StockHold getHoldForRequest(int requestId) {
+        return HOLDS.activeHoldFor(requestId);
+    }
+    
+    /**
+     * Quantity of a stock line that is on hand and not held
+     * 
+     * @return Quantity in ml, or -1 on error
+     */
+    public int getAvailableQuantity(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product) {
+        return HOLDS.available(new StockKey(hospitalId, bloodGroup, product));
+    }
+    
+    /**
+     * Quantity of a stock line under active holds
+     */
+    public int getHeldQuantity(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product) {
+        return HOLDS.held(new StockKey(hospitalId, bloodGroup, product));
+    }
+    
+    /**
+     * Current quantity of every blood and plasma stock line (one pass, for in-memory indexes)
+     */
+    public Map<StockKey, Integer> getAllStockLevels() {
+        String sql = "SELECT hospital_id, blood_group + 0, 'BLOOD', quantity_ml FROM blood_stock " +
+                     "UNION ALL SELECT hospital_id, blood_group + 0, 'PLASMA', quantity_ml FROM plasma_stock";
+        Map<StockKey, Integer> levels = new HashMap<>();
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                StockKey key = new StockKey(rs.getInt(1), EnumColumns.bloodGroup(rs, 2), StockProduct.valueOf(rs.getString(3)));
+                levels.put(key, rs.getInt(4));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching stock levels: " + e.getMessage());
+        }
+        
+        return levels;
+    }
+    
+    /**
+     * Expiry date of every stock line that has stock (the earliest bag's, or the line's own)
+     */
+    public Map<StockKey, LocalDate> getAllStockExpiryDates() {
+        String sql = "SELECT hospital_id, blood_group + 0, 'BLOOD', expiry_date FROM blood_stock " +
+                     "WHERE quantity_ml > 0 AND expiry_date IS NOT NULL " +
+                     "UNION ALL SELECT hospital_id, blood_group + 0, 'PLASMA', expiry_date FROM plasma_stock " +
+                     "WHERE quantity_ml > 0 AND expiry_date IS NOT NULL";
+        Map<StockKey, LocalDate> expiries = new HashMap<>();
+        
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                StockKey key = new StockKey(rs.getInt(1), EnumColumns.bloodGroup(rs, 2), StockProduct.valueOf(rs.getString(3)));
+                expiries.put(key, rs.getDate(4).toLocalDate());
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching stock expiry dates: " + e.getMessage());
+        }
+        
+        return expiries;
+    }
+    
     /**
      * Find hospitals with available blood stock
+     * (radius and compatible-group searches go through service.InventoryIndex)
      */
     public List<Hospital> findHospitalsWithStock(Donor.BloodGroup bloodGroup, String city, int requiredQuantity) {
-        String sql = "SELECT h.* FROM hospitals h " +
+        String sql = "SELECT h.hospital_id, h.hospital_name, h.address, h.city, h.contact_person, " +
+                     "h.latitude, h.longitude FROM hospitals h " +
                      "JOIN blood_stock bs ON h.hospital_id = bs.hospital_id " +
                      "WHERE bs.blood_group = ? AND h.city = ? AND bs.quantity_ml >= ? " +
                      "AND h.is_verified = TRUE " +
@@ -286,7 +540,7 @@ public class StockDAO {
         
         List<Hospital> hospitals = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, mapBloodGroupSymbol(bloodGroup));
@@ -297,13 +551,13 @@ public class StockDAO {
             
             while (rs.next()) {
                 Hospital hospital = new Hospital();
-                hospital.setHospitalId(rs.getInt("hospital_id"));
-                hospital.setHospitalName(rs.getString("hospital_name"));
-                hospital.setAddress(rs.getString("address"));
-                hospital.setCity(rs.getString("city"));
-                hospital.setContactPerson(rs.getString("contact_person"));
-                hospital.setLatitude(rs.getDouble("latitude"));
-                hospital.setLongitude(rs.getDouble("longitude"));
+                hospital.setHospitalId(rs.getInt(1));
+                hospital.setHospitalName(rs.getString(2));
+                hospital.setAddress(rs.getString(3));
+                hospital.setCity(rs.getString(4));
+                hospital.setContactPerson(rs.getString(5));
+                hospital.setLatitude(rs.getDouble(6));
+                hospital.setLongitude(rs.getDouble(7));
                 hospitals.add(hospital);
             }
             
@@ -0,0 +1,135 @@
+package dao;
+
+import model.StockHold;
+import model.StockKey;
+import util.TimerWheel;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * StockHolds - In-memory holds on stock lines, behind the StockDAO hold API
+ * Each line keeps its on-hand quantity (read once, then updated from stock
+ * writes) and the total held, so "available = on hand - held" is a field
+ * read under the line's monitor, not a locking read on the stock table.
+ * Every hold gets a timeout on the shared TimerWheel and lapses by itself.
+ */
+final class StockHolds {
+
+    private final ToIntFunction<StockKey> onHandLoader;
+    private final Map<StockKey, Line> lines = new ConcurrentHashMap<>();
+    private final Map<Long, StockHold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, TimerWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+    private final AtomicLong nextHoldId = new AtomicLong();
+
+    /**
+     * On-hand and held quantity of one stock line
+     */
+    private static final class Line {
+        private int onHand = -1; // Not read yet
+        private int held;
+    }
+
+    StockHolds(ToIntFunction<StockKey> onHandLoader) {
+        this.onHandLoader = onHandLoader;
+    }
+
+    StockHold place(StockKey key, int quantityMl, Integer requestId, long ttlMinutes) {
+        Line line = lines.computeIfAbsent(key, k -> new Line());
+        StockHold hold;
+
+        synchronized (line) {
+            if (!ensureOnHand(key, line) || line.onHand - line.held < quantityMl) {
+                return null;
+            }
+            line.held += quantityMl;
+            hold = new StockHold(nextHoldId.incrementAndGet(), key, quantityMl, requestId,
+                LocalDateTime.now().plusMinutes(ttlMinutes));
+            holds.put(hold.getHoldId(), hold);
+        }
+
+        long holdId = hold.getHoldId();
+        timeouts.put(holdId, TimerWheel.getInstance().schedule(
+            () -> finish(holdId, StockHold.HoldStatus.EXPIRED), ttlMinutes, TimeUnit.MINUTES));
+
+        System.out.println("✓ Hold " + holdId + " placed: " + quantityMl + "ml of " + key);
+        return hold;
+    }
+
+    /**
+     * End an active hold. Confirming only stops counting the quantity as held:
+     * on hand drops through the stock write of the issue (onHandChanged), which
+     * should land before the hold is confirmed.
+     *
+     * @return The hold, or null if it was not active any more
+     */
+    StockHold finish(long holdId, StockHold.HoldStatus status) {
+        StockHold hold = holds.remove(holdId);
+        if (hold == null) {
+            return null;
+        }
+
+        Line line = lines.get(hold.getStockKey());
+        synchronized (line) {
+            line.held -= hold.getQuantityMl();
+            hold.setStatus(status);
+        }
+
+        TimerWheel.Timeout timeout = timeouts.remove(holdId);
+        if (timeout != null && status != StockHold.HoldStatus.EXPIRED) {
+            timeout.cancel();
+        }
+
+        System.out.println((status == StockHold.HoldStatus.EXPIRED ? "⚠ Hold " : "✓ Hold ") + holdId + " " +
+            status.name().toLowerCase() + ": " + hold.getQuantityMl() + "ml of " + hold.getStockKey());
+        return hold;
+    }
+
+    int available(StockKey key) {
+        Line line = lines.computeIfAbsent(key, k -> new Line());
+        synchronized (line) {
+            return ensureOnHand(key, line) ? Math.max(0, line.onHand - line.held) : -1;
+        }
+    }
+
+    int held(StockKey key) {
+        Line line = lines.get(key);
+        if (line == null) {
+            return 0;
+        }
+        synchronized (line) {
+            return line.held;
+        }
+    }
+
+    StockHold activeHoldFor(int requestId) {
+        for (StockHold hold : holds.values()) {
+            if (hold.getRequestId() != null && hold.getRequestId() == requestId) {
+                return hold;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A stock write reported the new level of a line
+     */
+    void onHandChanged(StockKey key, int newQuantity) {
+        Line line = lines.get(key);
+        if (line != null) {
+            synchronized (line) {
+                line.onHand = newQuantity;
+            }
+        }
+    }
+
+    private boolean ensureOnHand(StockKey key, Line line) {
+        if (line.onHand < 0) {
+            line.onHand = onHandLoader.applyAsInt(key);
+        }
+        return line.onHand >= 0;
+    }
+}
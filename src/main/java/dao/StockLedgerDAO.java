@@ -0,0 +1,282 @@
+package dao;
+
+import config.DatabaseConfig;
+import model.*;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * StockLedgerDAO - Append-only stock history and compacted level snapshots
+ * Every stock change is an INSERT into stock_ledger (no row contention).
+ * A level is the latest snapshot of the line plus the ledger tail after it;
+ * compact() folds the tail into new snapshots so that tail stays short.
+ */
+public class StockLedgerDAO {
+
+    // Ledger row projection; ENUMs come back as indexes
+    private static final String ENTRY_COLUMNS =
+        "entry_id, hospital_id, blood_group + 0, product + 0, delta_ml, reason, request_id, created_at";
+
+    private static final int COMPACTION_LAG_SECONDS = 5;
+
+    private final DatabaseConfig dbConfig;
+
+    public StockLedgerDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Append a batch of entries in one round trip
+     *
+     * @return true if every entry was written
+     */
+    public boolean append(List<StockLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+
+        // created_at is left to the server so it follows entry_id order (see compact)
+        String sql = "INSERT INTO stock_ledger (hospital_id, blood_group, product, delta_ml, reason, request_id) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (StockLedgerEntry entry : entries) {
+                StockKey key = entry.getStockKey();
+                pstmt.setInt(1, key.getHospitalId());
+                pstmt.setString(2, key.getBloodGroup().getDisplay());
+                pstmt.setString(3, key.getProduct().name());
+                pstmt.setInt(4, entry.getDeltaMl());
+                pstmt.setString(5, entry.getReason().name());
+                if (entry.getRequestId() != null) {
+                    pstmt.setInt(6, entry.getRequestId());
+                } else {
+                    pstmt.setNull(6, Types.INTEGER);
+                }
+                pstmt.addBatch();
+            }
+
+            pstmt.executeBatch();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to append " + entries.size() + " stock ledger entries: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Current level of a stock line: latest snapshot plus the ledger tail
+     */
+    public int getCurrentLevel(StockKey key) {
+        String sql = "SELECT COALESCE(s.quantity_ml, 0) + COALESCE(" +
+                     "(SELECT SUM(l.delta_ml) FROM stock_ledger l " +
+                     " WHERE l.hospital_id = ? AND l.blood_group = ? AND l.product = ? " +
+                     " AND l.entry_id > COALESCE(s.last_entry_id, 0)), 0) " +
+                     "FROM (SELECT 1) one LEFT JOIN (" + LATEST_SNAPSHOT_SQL + ") s ON TRUE";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int idx = bindKey(pstmt, 1, key);
+            bindKey(pstmt, idx, key);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error reading stock level: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Level of a stock line at a point in time: the latest snapshot taken by then
+     * plus the ledger entries after it that were recorded by then
+     *
+     * @return Quantity in ml, or -1 on error
+     */
+    public int getLevelAt(StockKey key, LocalDateTime at) {
+        String snapshotAt = "SELECT quantity_ml, last_entry_id FROM stock_snapshots " +
+                            "WHERE hospital_id = ? AND blood_group = ? AND product = ? AND taken_at <= ? " +
+                            "ORDER BY taken_at DESC, snapshot_id DESC LIMIT 1";
+        String sql = "SELECT COALESCE(s.quantity_ml, 0) + COALESCE(" +
+                     "(SELECT SUM(l.delta_ml) FROM stock_ledger l " +
+                     " WHERE l.hospital_id = ? AND l.blood_group = ? AND l.product = ? " +
+                     " AND l.entry_id > COALESCE(s.last_entry_id, 0) AND l.created_at <= ?), 0) " +
+                     "FROM (SELECT 1) one LEFT JOIN (" + snapshotAt + ") s ON TRUE";
+
+        Timestamp atTs = Timestamp.valueOf(at);
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int idx = bindKey(pstmt, 1, key);
+            pstmt.setTimestamp(idx++, atTs);
+            idx = bindKey(pstmt, idx, key);
+            pstmt.setTimestamp(idx, atTs);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error reading historical stock level: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Ledger entries of a stock line in a time window, oldest first (trend views, audits)
+     */
+    public List<StockLedgerEntry> getEntries(StockKey key, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM stock_ledger " +
+                     "WHERE hospital_id = ? AND blood_group = ? AND product = ? " +
+                     "AND created_at >= ? AND created_at < ? ORDER BY entry_id";
+        List<StockLedgerEntry> entries = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int idx = bindKey(pstmt, 1, key);
+            pstmt.setTimestamp(idx++, Timestamp.valueOf(from));
+            pstmt.setTimestamp(idx, Timestamp.valueOf(to));
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                entries.add(mapEntry(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching stock ledger: " + e.getMessage());
+        }
+
+        return entries;
+    }
+
+    /**
+     * Daily consumption (issues and manual removals, not expiries) of every line
+     * of a hospital over the last days, oldest day first. Used to warm up demand
+     * forecasts once; live consumption is fed to them directly.
+     */
+    public Map<StockKey, SortedMap<LocalDate, Integer>> getDailyConsumption(int hospitalId, int days) {
+        String sql = "SELECT blood_group + 0, product + 0, DATE(created_at), -SUM(delta_ml) FROM stock_ledger " +
+                     "WHERE hospital_id = ? AND delta_ml < 0 AND reason IN ('ISSUED', 'ADJUSTMENT') " +
+                     "AND created_at >= CURDATE() - INTERVAL ? DAY " +
+                     "GROUP BY blood_group, product, DATE(created_at)";
+        Map<StockKey, SortedMap<LocalDate, Integer>> consumption = new HashMap<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hospitalId);
+            pstmt.setInt(2, days);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                StockKey key = new StockKey(hospitalId, EnumColumns.bloodGroup(rs, 1), EnumColumns.stockProduct(rs, 2));
+                consumption.computeIfAbsent(key, k -> new TreeMap<>())
+                           .put(rs.getDate(3).toLocalDate(), rs.getInt(4));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error reading stock consumption history: " + e.getMessage());
+        }
+
+        return consumption;
+    }
+
+    /**
+     * Fold the ledger tail of every line into a new snapshot.
+     * The tail is bounded by the highest entry id older than COMPACTION_LAG_SECONDS:
+     * ids are assigned at insert but become visible at commit, so the lag keeps
+     * a still-committing batch out of the snapshot (it stays in the next tail).
+     *
+     * @return Number of snapshots written, or -1 on failure
+     */
+    public int compact() {
+        String sql = "INSERT INTO stock_snapshots (hospital_id, blood_group, product, quantity_ml, last_entry_id) " +
+                     "SELECT l.hospital_id, l.blood_group, l.product, " +
+                     "COALESCE(MAX(s.quantity_ml), 0) + SUM(l.delta_ml), MAX(l.entry_id) " +
+                     "FROM stock_ledger l " +
+                     "LEFT JOIN stock_snapshots s ON s.snapshot_id = (" +
+                     "  SELECT MAX(x.snapshot_id) FROM stock_snapshots x " +
+                     "  WHERE x.hospital_id = l.hospital_id AND x.blood_group = l.blood_group " +
+                     "  AND x.product = l.product) " +
+                     "WHERE l.entry_id > COALESCE(s.last_entry_id, 0) AND l.entry_id <= ? " +
+                     "GROUP BY l.hospital_id, l.blood_group, l.product";
+
+        int[] written = {-1};
+
+        boolean ok = dbConfig.executeTransaction(conn -> {
+            long bound;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(entry_id), 0) FROM stock_ledger " +
+                     "WHERE created_at < NOW(3) - INTERVAL " + COMPACTION_LAG_SECONDS + " SECOND")) {
+                rs.next();
+                bound = rs.getLong(1);
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, bound);
+                written[0] = pstmt.executeUpdate();
+            }
+        });
+
+        if (ok) {
+            System.out.println("✓ Stock ledger compacted into " + written[0] + " snapshot(s)");
+            return written[0];
+        }
+        return -1;
+    }
+
+    // Latest snapshot of one line (key bound as hospital, group, product)
+    private static final String LATEST_SNAPSHOT_SQL =
+        "SELECT quantity_ml, last_entry_id FROM stock_snapshots " +
+        "WHERE hospital_id = ? AND blood_group = ? AND product = ? " +
+        "ORDER BY snapshot_id DESC LIMIT 1";
+
+    private static int bindKey(PreparedStatement pstmt, int idx, StockKey key) throws SQLException {
+        pstmt.setInt(idx++, key.getHospitalId());
+        pstmt.setString(idx++, key.getBloodGroup().getDisplay());
+        pstmt.setString(idx++, key.getProduct().name());
+        return idx;
+    }
+
+    /**
+     * Map an ENTRY_COLUMNS row (by column index)
+     */
+    private static StockLedgerEntry mapEntry(ResultSet rs) throws SQLException {
+        StockLedgerEntry entry = new StockLedgerEntry();
+        entry.setEntryId(rs.getLong(1));
+        entry.setStockKey(new StockKey(rs.getInt(2), EnumColumns.bloodGroup(rs, 3), EnumColumns.stockProduct(rs, 4)));
+        entry.setDeltaMl(rs.getInt(5));
+        entry.setReason(StockLedgerEntry.Reason.valueOf(rs.getString(6)));
+
+        int requestId = rs.getInt(7);
+        if (!rs.wasNull()) {
+            entry.setRequestId(requestId);
+        }
+
+        Timestamp createdAt = rs.getTimestamp(8);
+        if (createdAt != null) {
+            entry.setCreatedAt(createdAt.toLocalDateTime());
+        }
+
+        return entry;
+    }
+}
@@ -0,0 +1,108 @@
+package dao;
+
+import config.DatabaseConfig;
+import java.sql.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * StreamingQuery - Walks a result set row by row over a server-side cursor
+ * The returned Stream owns the statement and its dedicated connection;
+ * closing the stream (try-with-resources) releases both. Rows are mapped
+ * lazily, so memory stays constant however large the table is.
+ */
+public final class StreamingQuery {
+
+    private StreamingQuery() {
+        // Utility class
+    }
+
+    /**
+     * Prepare a forward-only, read-only statement that fetches in batches
+     */
+    public static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql,
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(DatabaseConfig.STREAM_FETCH_SIZE);
+        return pstmt;
+    }
+
+    /**
+     * Execute the statement and expose its rows as a lazily mapped Stream
+     *
+     * @param conn Dedicated connection (closed with the stream)
+     * @param pstmt Statement with all parameters bound (closed with the stream)
+     * @param mapper Row mapper
+     * @return Stream of mapped rows; must be closed by the caller
+     * @throws SQLException if the query cannot be executed
+     */
+    public static <T> Stream<T> stream(Connection conn, PreparedStatement pstmt, RowMapper<T> mapper)
+            throws SQLException {
+        ResultSet rs = pstmt.executeQuery();
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Streaming query failed: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false)
+            .onClose(() -> DatabaseConfig.closeResources(rs, pstmt, conn));
+    }
+
+    /**
+     * Open a dedicated streaming connection, bind and stream a query.
+     * Failures are logged and yield an empty stream, like the list-returning DAO methods.
+     */
+    public static <T> Stream<T> query(String sql, ParameterSetter setter, RowMapper<T> mapper, String listing) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConfig.getInstance().getStreamingConnection();
+            pstmt = prepare(conn, sql);
+            setter.set(pstmt);
+            return stream(conn, pstmt, mapper);
+        } catch (SQLException e) {
+            System.err.println("✗ Error streaming " + listing + ": " + e.getMessage());
+            DatabaseConfig.closeResources(null, pstmt, conn);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Run a streaming query and hand every row to a callback
+     *
+     * @return Number of rows visited
+     */
+    public static <T> int forEach(Stream<T> rows, Consumer<? super T> callback) {
+        int[] count = {0};
+        try (Stream<T> stream = rows) {
+            stream.forEach(row -> {
+                callback.accept(row);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    /**
+     * Binds the parameters of a streaming statement
+     */
+    @FunctionalInterface
+    public interface ParameterSetter {
+        void set(PreparedStatement pstmt) throws SQLException;
+    }
+}
@@ -0,0 +1,274 @@
+package dao;
+
+import config.DatabaseConfig;
+import model.*;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * VentilatorAllocationDAO - Ventilators assigned to patients (ventilator_allocations)
+ * Claiming and releasing a ventilator each run in one transaction that moves
+ * the ventilator's status and the allocation row together. The status change
+ * is conditional (AVAILABLE to IN_USE), so when two approvals race for the
+ * same unit exactly one of them gets it. A unit can also pass straight from
+ * one patient (or from maintenance) to a waiting request without ever being
+ * AVAILABLE in between.
+ */
+public class VentilatorAllocationDAO {
+
+    // Allocation row projection; status comes back as an ENUM index
+    private static final String ALLOCATION_COLUMNS =
+        "a.allocation_id, a.ventilator_id, v.hospital_id, a.patient_id, a.request_id, " +
+        "a.allocated_at, a.released_at, a.status + 0, a.notes";
+
+    private static final String WAITLIST_NOTE = "Assigned from the ventilator waitlist";
+
+    private static final String ALLOCATION_FROM =
+        " FROM ventilator_allocations a JOIN ventilators v ON v.ventilator_id = a.ventilator_id";
+
+    private final DatabaseConfig dbConfig;
+
+    public VentilatorAllocationDAO() {
+        this.dbConfig = DatabaseConfig.getInstance();
+    }
+
+    /**
+     * Claim an AVAILABLE ventilator for a patient and record the allocation
+     *
+     * @param requestId Request the ventilator is allocated for (may be null)
+     * @return Generated allocation id, or -1 if the ventilator was no longer available or on error
+     */
+    public int allocate(int ventilatorId, int patientId, Integer requestId, String notes) {
+        int[] allocationId = {-1};
+
+        boolean claimed = dbConfig.executeTransaction(conn -> {
+            claim(conn, ventilatorId, "status = 'AVAILABLE'");
+            allocationId[0] = insertAllocation(conn, ventilatorId, patientId, requestId, notes);
+        });
+
+        return claimed ? allocationId[0] : -1;
+    }
+
+    /**
+     * Put a ventilator that is back in service (or free) straight onto a waiting
+     * request: the unit goes to IN_USE, the allocation is recorded and the request
+     * approved at the hospital, all or nothing
+     *
+     * @return Generated allocation id, or -1 if the unit is in use, the request is no longer pending, or on error
+     */
+    public int allocateToWaiting(int ventilatorId, int hospitalId, Request request) {
+        int[] allocationId = {-1};
+
+        boolean claimed = dbConfig.executeTransaction(conn -> {
+            claim(conn, ventilatorId, "status <> 'IN_USE'");
+            allocationId[0] = insertAllocation(conn, ventilatorId, request.getPatientId(), request.getRequestId(),
+                WAITLIST_NOTE);
+            approveWaiting(conn, request.getRequestId(), hospitalId);
+        });
+
+        return claimed ? allocationId[0] : -1;
+    }
+
+    /**
+     * End an ACTIVE allocation and hand its ventilator back (IN_USE to AVAILABLE).
+     * A ventilator that was meanwhile taken out of service keeps its status.
+     *
+     * @param outcome COMPLETED or TERMINATED
+     * @return true if the allocation was active and is now ended
+     */
+    public boolean release(int allocationId, VentilatorAllocation.AllocationStatus outcome, String notes) {
+        String freeSql = "UPDATE ventilators v JOIN ventilator_allocations a ON a.ventilator_id = v.ventilator_id " +
+                         "SET v.status = 'AVAILABLE', v.updated_at = NOW() " +
+                         "WHERE a.allocation_id = ? AND v.status = 'IN_USE'";
+
+        return dbConfig.executeTransaction(conn -> {
+            endAllocation(conn, allocationId, outcome, notes);
+
+            try (PreparedStatement free = conn.prepareStatement(freeSql)) {
+                free.setInt(1, allocationId);
+                free.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * End an ACTIVE allocation and pass its ventilator (which stays IN_USE) to a
+     * waiting request, approving the request at the hospital, all or nothing
+     *
+     * @return Generated allocation id of the new allocation, or -1 if the allocation
+     *         was not active, the request is no longer pending, or on error
+     */
+    public int handOver(VentilatorAllocation allocation, VentilatorAllocation.AllocationStatus outcome,
+                        String notes, Request next) {
+        int[] allocationId = {-1};
+
+        boolean handed = dbConfig.executeTransaction(conn -> {
+            endAllocation(conn, allocation.getAllocationId(), outcome, notes);
+            allocationId[0] = insertAllocation(conn, allocation.getVentilatorId(), next.getPatientId(),
+                next.getRequestId(), WAITLIST_NOTE);
+            approveWaiting(conn, next.getRequestId(), allocation.getHospitalId());
+        });
+
+        return handed ? allocationId[0] : -1;
+    }
+
+    /**
+     * Get an allocation by id
+     */
+    public VentilatorAllocation getAllocationById(int allocationId) {
+        return querySingle("SELECT " + ALLOCATION_COLUMNS + ALLOCATION_FROM + " WHERE a.allocation_id = ?",
+            allocationId);
+    }
+
+    /**
+     * Active allocation made for a request, or null
+     */
+    public VentilatorAllocation getActiveAllocationForRequest(int requestId) {
+        return querySingle("SELECT " + ALLOCATION_COLUMNS + ALLOCATION_FROM +
+                           " WHERE a.request_id = ? AND a.status = 'ACTIVE'", requestId);
+    }
+
+    /**
+     * Active allocation of a ventilator, or null if it is not allocated
+     */
+    public VentilatorAllocation getActiveAllocationForVentilator(int ventilatorId) {
+        return querySingle("SELECT " + ALLOCATION_COLUMNS + ALLOCATION_FROM +
+                           " WHERE a.ventilator_id = ? AND a.status = 'ACTIVE'", ventilatorId);
+    }
+
+    /**
+     * Active allocations of a hospital's ventilators, oldest first
+     */
+    public List<VentilatorAllocation> getActiveAllocationsByHospital(int hospitalId) {
+        String sql = "SELECT " + ALLOCATION_COLUMNS + ALLOCATION_FROM +
+                     " WHERE v.hospital_id = ? AND a.status = 'ACTIVE' ORDER BY a.allocated_at";
+        List<VentilatorAllocation> allocations = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hospitalId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                allocations.add(mapAllocation(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching ventilator allocations: " + e.getMessage());
+        }
+
+        return allocations;
+    }
+
+    private VentilatorAllocation querySingle(String sql, int id) {
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                return mapAllocation(rs);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching ventilator allocation: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    private static void claim(Connection conn, int ventilatorId, String fromStatus) throws SQLException {
+        String sql = "UPDATE ventilators SET status = 'IN_USE', updated_at = NOW() " +
+                     "WHERE ventilator_id = ? AND " + fromStatus;
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, ventilatorId);
+            if (pstmt.executeUpdate() != 1) {
+                throw new SQLException("Ventilator " + ventilatorId + " is no longer available");
+            }
+        }
+    }
+
+    private static int insertAllocation(Connection conn, int ventilatorId, int patientId, Integer requestId,
+                                        String notes) throws SQLException {
+        String sql = "INSERT INTO ventilator_allocations (ventilator_id, patient_id, request_id, status, notes) " +
+                     "VALUES (?, ?, ?, 'ACTIVE', ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, ventilatorId);
+            pstmt.setInt(2, patientId);
+            if (requestId != null) {
+                pstmt.setInt(3, requestId);
+            } else {
+                pstmt.setNull(3, Types.INTEGER);
+            }
+            pstmt.setString(4, notes);
+            pstmt.executeUpdate();
+
+            ResultSet rs = pstmt.getGeneratedKeys();
+            if (!rs.next()) {
+                throw new SQLException("No allocation id generated");
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    private static void endAllocation(Connection conn, int allocationId, VentilatorAllocation.AllocationStatus outcome,
+                                      String notes) throws SQLException {
+        String sql = "UPDATE ventilator_allocations SET status = ?, released_at = NOW(), " +
+                     "notes = COALESCE(?, notes) WHERE allocation_id = ? AND status = 'ACTIVE'";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, outcome.name());
+            pstmt.setString(2, notes);
+            pstmt.setInt(3, allocationId);
+            if (pstmt.executeUpdate() != 1) {
+                throw new SQLException("Allocation " + allocationId + " is not active");
+            }
+        }
+    }
+
+    private static void approveWaiting(Connection conn, int requestId, int hospitalId) throws SQLException {
+        String sql = "UPDATE requests SET status = 'APPROVED', hospital_id = ?, updated_at = NOW() " +
+                     "WHERE request_id = ? AND status = 'PENDING'";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, hospitalId);
+            pstmt.setInt(2, requestId);
+            if (pstmt.executeUpdate() != 1) {
+                throw new SQLException("Request " + requestId + " is no longer pending");
+            }
+        }
+    }
+
+    /**
+     * Map an ALLOCATION_COLUMNS row (by column index)
+     */
+    private static VentilatorAllocation mapAllocation(ResultSet rs) throws SQLException {
+        VentilatorAllocation allocation = new VentilatorAllocation();
+        allocation.setAllocationId(rs.getInt(1));
+        allocation.setVentilatorId(rs.getInt(2));
+        allocation.setHospitalId(rs.getInt(3));
+        allocation.setPatientId(rs.getInt(4));
+
+        int requestId = rs.getInt(5);
+        allocation.setRequestId(rs.wasNull() ? null : requestId);
+
+        Timestamp allocatedAt = rs.getTimestamp(6);
+        if (allocatedAt != null) {
+            allocation.setAllocatedAt(allocatedAt.toLocalDateTime());
+        }
+
+        Timestamp releasedAt = rs.getTimestamp(7);
+        if (releasedAt != null) {
+            allocation.setReleasedAt(releasedAt.toLocalDateTime());
+        }
+
+        allocation.setStatus(EnumColumns.allocationStatus(rs, 8));
+        allocation.setNotes(rs.getString(9));
+        return allocation;
+    }
+}
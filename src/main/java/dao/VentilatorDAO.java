@@ -11,11 +11,17 @@ package dao;
 import config.DatabaseConfig;
 import model.*;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 public class VentilatorDAO {
     
+    // Ventilator row projection; type and status come back as ENUM indexes
+    private static final String VENTILATOR_COLUMNS =
+        "ventilator_id, hospital_id, ventilator_type + 0, model_name, serial_number, status + 0, " +
+        "location_in_hospital, last_maintenance_date, next_maintenance_date";
+    
     private final DatabaseConfig dbConfig;
     
     public VentilatorDAO() {
@@ -30,7 +36,7 @@ public class VentilatorDAO {
                      "serial_number, status, location_in_hospital) " +
                      "VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, ventilator.getHospitalId());
@@ -60,17 +66,17 @@ public class VentilatorDAO {
      * Get all ventilators for a hospital
      */
     public List<Ventilator> getVentilatorsByHospital(int hospitalId) {
-        String sql = "SELECT * FROM ventilators WHERE hospital_id = ? ORDER BY status, serial_number";
+        String sql = "SELECT " + VENTILATOR_COLUMNS + " FROM ventilators WHERE hospital_id = ? ORDER BY status, serial_number";
         List<Ventilator> ventilators = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                ventilators.add(extractVentilatorFromResultSet(rs));
+                ventilators.add(mapVentilator(rs));
             }
             
         } catch (SQLException e) {
@@ -80,21 +86,43 @@ public class VentilatorDAO {
         return ventilators;
     }
     
+    /**
+     * Get every ventilator of every hospital (one pass, to index all hospitals at once)
+     */
+    public List<Ventilator> getAllVentilators() {
+        String sql = "SELECT " + VENTILATOR_COLUMNS + " FROM ventilators";
+        List<Ventilator> ventilators = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                ventilators.add(mapVentilator(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching ventilators: " + e.getMessage());
+        }
+
+        return ventilators;
+    }
+
     /**
      * Get available ventilators
      */
     public List<Ventilator> getAvailableVentilators(int hospitalId) {
-        String sql = "SELECT * FROM ventilators WHERE hospital_id = ? AND status = 'AVAILABLE'";
+        String sql = "SELECT " + VENTILATOR_COLUMNS + " FROM ventilators WHERE hospital_id = ? AND status = 'AVAILABLE'";
         List<Ventilator> ventilators = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, hospitalId);
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                ventilators.add(extractVentilatorFromResultSet(rs));
+                ventilators.add(mapVentilator(rs));
             }
             
         } catch (SQLException e) {
@@ -105,18 +133,22 @@ public class VentilatorDAO {
     }
     
     /**
-     * Update ventilator status
+     * Update the status of a ventilator that is not in use (allocations move units
+     * in and out of IN_USE themselves)
+     *
+     * @return true if the unit was not in use and now has the status
      */
     public boolean updateVentilatorStatus(int ventilatorId, Ventilator.VentilatorStatus status) {
-        String sql = "UPDATE ventilators SET status = ?, updated_at = NOW() WHERE ventilator_id = ?";
+        String sql = "UPDATE ventilators SET status = ?, updated_at = NOW() " +
+                     "WHERE ventilator_id = ? AND status <> 'IN_USE'";
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, status.name());
             pstmt.setInt(2, ventilatorId);
             
-            return pstmt.executeUpdate() > 0;
+            return pstmt.executeUpdate() == 1;
             
         } catch (SQLException e) {
             System.err.println("✗ Failed to update ventilator status: " + e.getMessage());
@@ -125,17 +157,88 @@ public class VentilatorDAO {
         return false;
     }
     
+    /**
+     * Ventilators with a maintenance date that are not already in maintenance (scheduler load)
+     */
+    public List<Ventilator> getScheduledMaintenance() {
+        String sql = "SELECT " + VENTILATOR_COLUMNS + " FROM ventilators " +
+                     "WHERE next_maintenance_date IS NOT NULL AND status <> 'MAINTENANCE'";
+        List<Ventilator> ventilators = new ArrayList<>();
+
+        try (Connection conn = dbConfig.getNewConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                ventilators.add(mapVentilator(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("✗ Error fetching maintenance schedule: " + e.getMessage());
+        }
+
+        return ventilators;
+    }
+
+    /**
+     * Take a ventilator out of service for maintenance, only if it is not in use
+     *
+     * @return true if the ventilator was AVAILABLE or DAMAGED and is now in MAINTENANCE
+     */
+    public boolean startMaintenance(int ventilatorId) {
+        String sql = "UPDATE ventilators SET status = 'MAINTENANCE', updated_at = NOW() " +
+                     "WHERE ventilator_id = ? AND status IN ('AVAILABLE', 'DAMAGED')";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, ventilatorId);
+            return pstmt.executeUpdate() == 1;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to start ventilator maintenance: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Record a completed maintenance (done today) and the date of the next one
+     */
+    public boolean recordMaintenance(int ventilatorId, LocalDate nextMaintenanceDate) {
+        String sql = "UPDATE ventilators SET last_maintenance_date = CURDATE(), next_maintenance_date = ?, " +
+                     "updated_at = NOW() WHERE ventilator_id = ?";
+
+        try (Connection conn = dbConfig.getNewConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            if (nextMaintenanceDate != null) {
+                pstmt.setDate(1, Date.valueOf(nextMaintenanceDate));
+            } else {
+                pstmt.setNull(1, Types.DATE);
+            }
+            pstmt.setInt(2, ventilatorId);
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("✗ Failed to record ventilator maintenance: " + e.getMessage());
+        }
+
+        return false;
+    }
+
     /**
      * Find hospitals with available ventilators
      */
     public List<Hospital> findHospitalsWithVentilators(String city) {
-        String sql = "SELECT DISTINCT h.* FROM hospitals h " +
+        String sql = "SELECT DISTINCT h.hospital_id, h.hospital_name, h.address, h.city, h.contact_person " +
+                     "FROM hospitals h " +
                      "JOIN ventilators v ON h.hospital_id = v.hospital_id " +
                      "WHERE h.city = ? AND v.status = 'AVAILABLE' AND h.is_verified = TRUE";
         
         List<Hospital> hospitals = new ArrayList<>();
         
-        try (Connection conn = dbConfig.getConnection();
+        try (Connection conn = dbConfig.getNewConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, city);
@@ -143,11 +246,11 @@ public class VentilatorDAO {
             
             while (rs.next()) {
                 Hospital hospital = new Hospital();
-                hospital.setHospitalId(rs.getInt("hospital_id"));
-                hospital.setHospitalName(rs.getString("hospital_name"));
-                hospital.setAddress(rs.getString("address"));
-                hospital.setCity(rs.getString("city"));
-                hospital.setContactPerson(rs.getString("contact_person"));
+                hospital.setHospitalId(rs.getInt(1));
+                hospital.setHospitalName(rs.getString(2));
+                hospital.setAddress(rs.getString(3));
+                hospital.setCity(rs.getString(4));
+                hospital.setContactPerson(rs.getString(5));
                 hospitals.add(hospital);
             }
             
@@ -158,26 +261,29 @@ public class VentilatorDAO {
         return hospitals;
     }
     
-    private Ventilator extractVentilatorFromResultSet(ResultSet rs) throws SQLException {
+    /**
+     * Map a VENTILATOR_COLUMNS row (by column index)
+     */
+    private static Ventilator mapVentilator(ResultSet rs) throws SQLException {
         Ventilator ventilator = new Ventilator();
-        ventilator.setVentilatorId(rs.getInt("ventilator_id"));
-        ventilator.setHospitalId(rs.getInt("hospital_id"));
-        ventilator.setVentilatorType(Ventilator.VentilatorType.valueOf(rs.getString("ventilator_type")));
-        ventilator.setModelName(rs.getString("model_name"));
-        ventilator.setSerialNumber(rs.getString("serial_number"));
-        ventilator.setStatus(Ventilator.VentilatorStatus.valueOf(rs.getString("status")));
-        ventilator.setLocationInHospital(rs.getString("location_in_hospital"));
+        ventilator.setVentilatorId(rs.getInt(1));
+        ventilator.setHospitalId(rs.getInt(2));
+        ventilator.setVentilatorType(EnumColumns.ventilatorType(rs, 3));
+        ventilator.setModelName(rs.getString(4));
+        ventilator.setSerialNumber(rs.getString(5));
+        ventilator.setStatus(EnumColumns.ventilatorStatus(rs, 6));
+        ventilator.setLocationInHospital(rs.getString(7));
         
-        Date lastMaintenance = rs.getDate("last_maintenance_date");
+        Date lastMaintenance = rs.getDate(8);
         if (lastMaintenance != null) {
             ventilator.setLastMaintenanceDate(lastMaintenance.toLocalDate());
         }
         
-        Date nextMaintenance = rs.getDate("next_maintenance_date");
+        Date nextMaintenance = rs.getDate(9);
         if (nextMaintenance != null) {
             ventilator.setNextMaintenanceDate(nextMaintenance.toLocalDate());
         }
         
         return ventilator;
     }
-}
\ No newline at end of file
+}
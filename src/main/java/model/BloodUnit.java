@@ -0,0 +1,91 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * BloodUnit - One collected bag of blood or plasma (a row of blood_units)
+ */
+public class BloodUnit {
+    private int unitId;
+    private int hospitalId;
+    private String bagNumber;
+    private Donor.BloodGroup bloodGroup;
+    private StockProduct product;
+    private int volumeMl;
+    private LocalDate collectedOn;
+    private LocalDate expiresOn;
+    private UnitStatus status;
+    private Integer requestId;
+
+    public enum UnitStatus {
+        AVAILABLE, ISSUED, EXPIRED, DISCARDED
+    }
+
+    // Constructors
+    public BloodUnit() {}
+
+    public BloodUnit(int hospitalId, String bagNumber, Donor.BloodGroup bloodGroup, StockProduct product,
+                     int volumeMl, LocalDate collectedOn, LocalDate expiresOn) {
+        this.hospitalId = hospitalId;
+        this.bagNumber = bagNumber;
+        this.bloodGroup = bloodGroup;
+        this.product = product;
+        this.volumeMl = volumeMl;
+        this.collectedOn = collectedOn;
+        this.expiresOn = expiresOn;
+        this.status = UnitStatus.AVAILABLE;
+    }
+
+    // Getters and Setters
+    public int getUnitId() { return unitId; }
+    public void setUnitId(int unitId) { this.unitId = unitId; }
+
+    public int getHospitalId() { return hospitalId; }
+    public void setHospitalId(int hospitalId) { this.hospitalId = hospitalId; }
+
+    public String getBagNumber() { return bagNumber; }
+    public void setBagNumber(String bagNumber) { this.bagNumber = bagNumber; }
+
+    public Donor.BloodGroup getBloodGroup() { return bloodGroup; }
+    public void setBloodGroup(Donor.BloodGroup bloodGroup) { this.bloodGroup = bloodGroup; }
+
+    public StockProduct getProduct() { return product; }
+    public void setProduct(StockProduct product) { this.product = product; }
+
+    public int getVolumeMl() { return volumeMl; }
+    public void setVolumeMl(int volumeMl) { this.volumeMl = volumeMl; }
+
+    public LocalDate getCollectedOn() { return collectedOn; }
+    public void setCollectedOn(LocalDate collectedOn) { this.collectedOn = collectedOn; }
+
+    public LocalDate getExpiresOn() { return expiresOn; }
+    public void setExpiresOn(LocalDate expiresOn) { this.expiresOn = expiresOn; }
+
+    public UnitStatus getStatus() { return status; }
+    public void setStatus(UnitStatus status) { this.status = status; }
+
+    public Integer getRequestId() { return requestId; }
+    public void setRequestId(Integer requestId) { this.requestId = requestId; }
+
+    public StockKey getStockKey() {
+        return new StockKey(hospitalId, bloodGroup, product);
+    }
+
+    /**
+     * Check if the unit is past its expiry date
+     */
+    public boolean isExpired(LocalDate today) {
+        return expiresOn.isBefore(today);
+    }
+
+    @Override
+    public String toString() {
+        return "BloodUnit{" +
+                "bagNumber='" + bagNumber + '\'' +
+                ", bloodGroup=" + bloodGroup.getDisplay() +
+                ", product=" + product +
+                ", volumeMl=" + volumeMl +
+                ", expiresOn=" + expiresOn +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package model;
+
+/**
+ * DonorReliability - How often a donor answers and accepts match notifications (a row of donor_reliability)
+ */
+public class DonorReliability {
+    private int donorId;
+    private int notified;
+    private int accepted;
+    private int rejected;
+    private Double avgResponseSeconds;
+
+    // Constructors
+    public DonorReliability() {}
+
+    public DonorReliability(int donorId, int notified, int accepted, int rejected, Double avgResponseSeconds) {
+        this.donorId = donorId;
+        this.notified = notified;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.avgResponseSeconds = avgResponseSeconds;
+    }
+
+    // Getters and Setters
+    public int getDonorId() { return donorId; }
+    public void setDonorId(int donorId) { this.donorId = donorId; }
+
+    public int getNotified() { return notified; }
+    public void setNotified(int notified) { this.notified = notified; }
+
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    /**
+     * Moving average of the time from notification to answer, or null if the donor never answered
+     */
+    public Double getAvgResponseSeconds() { return avgResponseSeconds; }
+    public void setAvgResponseSeconds(Double avgResponseSeconds) { this.avgResponseSeconds = avgResponseSeconds; }
+
+    /**
+     * Notifications the donor never answered
+     */
+    public int getUnanswered() {
+        return Math.max(0, notified - accepted - rejected);
+    }
+
+    @Override
+    public String toString() {
+        return "DonorReliability{" +
+                "donorId=" + donorId +
+                ", notified=" + notified +
+                ", accepted=" + accepted +
+                ", rejected=" + rejected +
+                ", avgResponseSeconds=" + avgResponseSeconds +
+                '}';
+    }
+}
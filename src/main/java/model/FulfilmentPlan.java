@@ -0,0 +1,75 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FulfilmentPlan - How a blood/plasma request is split across hospitals and donor groups
+ */
+public class FulfilmentPlan {
+    private int requiredMl;
+    private List<Allocation> allocations = new ArrayList<>();
+
+    /**
+     * One leg of the plan: a quantity of one group from one hospital
+     */
+    public static class Allocation {
+        private final Hospital hospital;
+        private final Donor.BloodGroup bloodGroup;
+        private final int quantityMl;
+        private final double distanceKm;
+
+        public Allocation(Hospital hospital, Donor.BloodGroup bloodGroup, int quantityMl, double distanceKm) {
+            this.hospital = hospital;
+            this.bloodGroup = bloodGroup;
+            this.quantityMl = quantityMl;
+            this.distanceKm = distanceKm;
+        }
+
+        public Hospital getHospital() { return hospital; }
+        public Donor.BloodGroup getBloodGroup() { return bloodGroup; }
+        public int getQuantityMl() { return quantityMl; }
+        public double getDistanceKm() { return distanceKm; }
+
+        @Override
+        public String toString() {
+            return quantityMl + "ml " + bloodGroup.getDisplay() + " from " + hospital.getHospitalName() +
+                   " (" + String.format("%.1f", distanceKm) + " km)";
+        }
+    }
+
+    // Constructors
+    public FulfilmentPlan() {}
+
+    public FulfilmentPlan(int requiredMl) {
+        this.requiredMl = requiredMl;
+    }
+
+    // Getters and Setters
+    public int getRequiredMl() { return requiredMl; }
+    public void setRequiredMl(int requiredMl) { this.requiredMl = requiredMl; }
+
+    public List<Allocation> getAllocations() { return allocations; }
+    public void setAllocations(List<Allocation> allocations) { this.allocations = allocations; }
+
+    public int getPlannedMl() {
+        return allocations.stream().mapToInt(Allocation::getQuantityMl).sum();
+    }
+
+    public int getShortfallMl() {
+        return Math.max(0, requiredMl - getPlannedMl());
+    }
+
+    public boolean isComplete() {
+        return getShortfallMl() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FulfilmentPlan{" +
+                "requiredMl=" + requiredMl +
+                ", plannedMl=" + getPlannedMl() +
+                ", allocations=" + allocations +
+                '}';
+    }
+}
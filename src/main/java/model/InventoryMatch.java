@@ -0,0 +1,47 @@
+package model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * InventoryMatch - A hospital that can supply a compatible product, with its distance
+ */
+public class InventoryMatch {
+    private Hospital hospital;
+    private double distanceKm;
+    private Map<Donor.BloodGroup, Integer> availableMl = new EnumMap<>(Donor.BloodGroup.class);
+
+    // Constructors
+    public InventoryMatch() {}
+
+    public InventoryMatch(Hospital hospital, double distanceKm) {
+        this.hospital = hospital;
+        this.distanceKm = distanceKm;
+    }
+
+    // Getters and Setters
+    public Hospital getHospital() { return hospital; }
+    public void setHospital(Hospital hospital) { this.hospital = hospital; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+
+    /**
+     * Quantity on hand per compatible donor group (groups with none are absent)
+     */
+    public Map<Donor.BloodGroup, Integer> getAvailableMl() { return availableMl; }
+    public void setAvailableMl(Map<Donor.BloodGroup, Integer> availableMl) { this.availableMl = availableMl; }
+
+    public int getTotalMl() {
+        return availableMl.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryMatch{" +
+                "hospital=" + hospital.getHospitalName() +
+                ", distanceKm=" + String.format("%.1f", distanceKm) +
+                ", totalMl=" + getTotalMl() +
+                '}';
+    }
+}
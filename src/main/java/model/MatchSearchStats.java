@@ -0,0 +1,54 @@
+package model;
+
+/**
+ * MatchSearchStats - How far a ring search for donors had to go for one request
+ */
+public class MatchSearchStats {
+    private int requestId;
+    private int ringsSearched;
+    private double radiusKm;
+    private int donorsScanned;
+    private int candidatesFound;
+
+    // Constructors
+    public MatchSearchStats() {}
+
+    public MatchSearchStats(int requestId, int ringsSearched, double radiusKm, int donorsScanned,
+                            int candidatesFound) {
+        this.requestId = requestId;
+        this.ringsSearched = ringsSearched;
+        this.radiusKm = radiusKm;
+        this.donorsScanned = donorsScanned;
+        this.candidatesFound = candidatesFound;
+    }
+
+    // Getters and Setters
+    public int getRequestId() { return requestId; }
+    public void setRequestId(int requestId) { this.requestId = requestId; }
+
+    public int getRingsSearched() { return ringsSearched; }
+    public void setRingsSearched(int ringsSearched) { this.ringsSearched = ringsSearched; }
+
+    /**
+     * Radius of the last ring searched
+     */
+    public double getRadiusKm() { return radiusKm; }
+    public void setRadiusKm(double radiusKm) { this.radiusKm = radiusKm; }
+
+    public int getDonorsScanned() { return donorsScanned; }
+    public void setDonorsScanned(int donorsScanned) { this.donorsScanned = donorsScanned; }
+
+    public int getCandidatesFound() { return candidatesFound; }
+    public void setCandidatesFound(int candidatesFound) { this.candidatesFound = candidatesFound; }
+
+    @Override
+    public String toString() {
+        return "MatchSearchStats{" +
+                "requestId=" + requestId +
+                ", ringsSearched=" + ringsSearched +
+                ", radiusKm=" + radiusKm +
+                ", donorsScanned=" + donorsScanned +
+                ", candidatesFound=" + candidatesFound +
+                '}';
+    }
+}
@@ -15,6 +15,7 @@ public class Request {
     private Urgency urgency;
     private LocalDateTime requiredBy;
     private Integer hospitalId;
+    private Integer acceptedDonorId;
     private RequestStatus status;
     private String reason;
     private String notes;
@@ -69,6 +70,12 @@ public class Request {
     public Integer getHospitalId() { return hospitalId; }
     public void setHospitalId(Integer hospitalId) { this.hospitalId = hospitalId; }
     
+    /**
+     * Donor whose acceptance claimed the request, or null
+     */
+    public Integer getAcceptedDonorId() { return acceptedDonorId; }
+    public void setAcceptedDonorId(Integer acceptedDonorId) { this.acceptedDonorId = acceptedDonorId; }
+    
     public RequestStatus getStatus() { return status; }
     public void setStatus(RequestStatus status) { this.status = status; }
     
@@ -0,0 +1,60 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * StockHold - Stock set aside for an approved request until it is issued or the hold lapses
+ */
+public class StockHold {
+    private long holdId;
+    private StockKey stockKey;
+    private int quantityMl;
+    private Integer requestId;
+    private LocalDateTime expiresAt;
+    private HoldStatus status;
+
+    public enum HoldStatus {
+        ACTIVE, CONFIRMED, RELEASED, EXPIRED
+    }
+
+    // Constructors
+    public StockHold() {}
+
+    public StockHold(long holdId, StockKey stockKey, int quantityMl, Integer requestId, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.stockKey = stockKey;
+        this.quantityMl = quantityMl;
+        this.requestId = requestId;
+        this.expiresAt = expiresAt;
+        this.status = HoldStatus.ACTIVE;
+    }
+
+    // Getters and Setters
+    public long getHoldId() { return holdId; }
+    public void setHoldId(long holdId) { this.holdId = holdId; }
+
+    public StockKey getStockKey() { return stockKey; }
+    public void setStockKey(StockKey stockKey) { this.stockKey = stockKey; }
+
+    public int getQuantityMl() { return quantityMl; }
+    public void setQuantityMl(int quantityMl) { this.quantityMl = quantityMl; }
+
+    public Integer getRequestId() { return requestId; }
+    public void setRequestId(Integer requestId) { this.requestId = requestId; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public HoldStatus getStatus() { return status; }
+    public void setStatus(HoldStatus status) { this.status = status; }
+
+    @Override
+    public String toString() {
+        return "StockHold{" +
+                "holdId=" + holdId +
+                ", stockKey=" + stockKey +
+                ", quantityMl=" + quantityMl +
+                ", status=" + status +
+                '}';
+    }
+}
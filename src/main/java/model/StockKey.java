@@ -0,0 +1,45 @@
+package model;
+
+/**
+ * StockKey - Identifies one stock line: (hospital, blood group, product)
+ * Immutable, so it can key in-memory counters and indexes.
+ */
+public final class StockKey {
+    private final int hospitalId;
+    private final Donor.BloodGroup bloodGroup;
+    private final StockProduct product;
+    
+    public StockKey(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product) {
+        this.hospitalId = hospitalId;
+        this.bloodGroup = bloodGroup;
+        this.product = product;
+    }
+    
+    public int getHospitalId() { return hospitalId; }
+    public Donor.BloodGroup getBloodGroup() { return bloodGroup; }
+    public StockProduct getProduct() { return product; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StockKey)) return false;
+        StockKey other = (StockKey) o;
+        return hospitalId == other.hospitalId
+            && bloodGroup == other.bloodGroup
+            && product == other.product;
+    }
+    
+    @Override
+    public int hashCode() {
+        return (hospitalId * 31 + bloodGroup.ordinal()) * 2 + product.ordinal();
+    }
+    
+    @Override
+    public String toString() {
+        return "StockKey{" +
+                "hospitalId=" + hospitalId +
+                ", bloodGroup=" + bloodGroup.getDisplay() +
+                ", product=" + product +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * StockLedgerEntry - One append-only stock change (a row of stock_ledger)
+ */
+public class StockLedgerEntry {
+    private long entryId;
+    private StockKey stockKey;
+    private int deltaMl;
+    private Reason reason;
+    private Integer requestId;
+    private LocalDateTime createdAt;
+
+    public enum Reason {
+        RECEIVED, ISSUED, ADJUSTMENT, EXPIRED, TRANSFER
+    }
+
+    // Constructors
+    public StockLedgerEntry() {}
+
+    public StockLedgerEntry(StockKey stockKey, int deltaMl, Reason reason, Integer requestId) {
+        this.stockKey = stockKey;
+        this.deltaMl = deltaMl;
+        this.reason = reason;
+        this.requestId = requestId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public long getEntryId() { return entryId; }
+    public void setEntryId(long entryId) { this.entryId = entryId; }
+
+    public StockKey getStockKey() { return stockKey; }
+    public void setStockKey(StockKey stockKey) { this.stockKey = stockKey; }
+
+    public int getDeltaMl() { return deltaMl; }
+    public void setDeltaMl(int deltaMl) { this.deltaMl = deltaMl; }
+
+    public Reason getReason() { return reason; }
+    public void setReason(Reason reason) { this.reason = reason; }
+
+    public Integer getRequestId() { return requestId; }
+    public void setRequestId(Integer requestId) { this.requestId = requestId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "StockLedgerEntry{" +
+                "stockKey=" + stockKey +
+                ", deltaMl=" + deltaMl +
+                ", reason=" + reason +
+                '}';
+    }
+}
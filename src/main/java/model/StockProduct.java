@@ -0,0 +1,9 @@
+package model;
+
+/**
+ * StockProduct - Kind of stock a hospital holds per blood group
+ * (blood_stock vs plasma_stock rows)
+ */
+public enum StockProduct {
+    BLOOD, PLASMA
+}
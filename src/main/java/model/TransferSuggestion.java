@@ -0,0 +1,63 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * TransferSuggestion - Near-expiry stock one hospital should send to another that will use it
+ */
+public class TransferSuggestion {
+    private Hospital fromHospital;
+    private Hospital toHospital;
+    private Donor.BloodGroup bloodGroup;
+    private StockProduct product;
+    private int quantityMl;
+    private double distanceKm;
+    private LocalDate expiresOn;
+
+    // Constructors
+    public TransferSuggestion() {}
+
+    public TransferSuggestion(Hospital fromHospital, Hospital toHospital, Donor.BloodGroup bloodGroup,
+                              StockProduct product, int quantityMl, double distanceKm, LocalDate expiresOn) {
+        this.fromHospital = fromHospital;
+        this.toHospital = toHospital;
+        this.bloodGroup = bloodGroup;
+        this.product = product;
+        this.quantityMl = quantityMl;
+        this.distanceKm = distanceKm;
+        this.expiresOn = expiresOn;
+    }
+
+    // Getters and Setters
+    public Hospital getFromHospital() { return fromHospital; }
+    public void setFromHospital(Hospital fromHospital) { this.fromHospital = fromHospital; }
+
+    public Hospital getToHospital() { return toHospital; }
+    public void setToHospital(Hospital toHospital) { this.toHospital = toHospital; }
+
+    public Donor.BloodGroup getBloodGroup() { return bloodGroup; }
+    public void setBloodGroup(Donor.BloodGroup bloodGroup) { this.bloodGroup = bloodGroup; }
+
+    public StockProduct getProduct() { return product; }
+    public void setProduct(StockProduct product) { this.product = product; }
+
+    public int getQuantityMl() { return quantityMl; }
+    public void setQuantityMl(int quantityMl) { this.quantityMl = quantityMl; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+
+    public LocalDate getExpiresOn() { return expiresOn; }
+    public void setExpiresOn(LocalDate expiresOn) { this.expiresOn = expiresOn; }
+
+    @Override
+    public String toString() {
+        return "TransferSuggestion{" +
+                quantityMl + "ml " + bloodGroup.getDisplay() + " " + product +
+                " from " + fromHospital.getHospitalName() +
+                " to " + toHospital.getHospitalName() +
+                ", distanceKm=" + String.format("%.1f", distanceKm) +
+                ", expiresOn=" + expiresOn +
+                '}';
+    }
+}
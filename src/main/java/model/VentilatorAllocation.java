@@ -0,0 +1,76 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * VentilatorAllocation - A ventilator assigned to a patient (a row of ventilator_allocations)
+ */
+public class VentilatorAllocation {
+    private int allocationId;
+    private int ventilatorId;
+    private int hospitalId;
+    private int patientId;
+    private Integer requestId;
+    private LocalDateTime allocatedAt;
+    private LocalDateTime releasedAt;
+    private AllocationStatus status;
+    private String notes;
+
+    public enum AllocationStatus {
+        ACTIVE, COMPLETED, TERMINATED
+    }
+
+    // Constructors
+    public VentilatorAllocation() {}
+
+    public VentilatorAllocation(int ventilatorId, int hospitalId, int patientId, Integer requestId) {
+        this.ventilatorId = ventilatorId;
+        this.hospitalId = hospitalId;
+        this.patientId = patientId;
+        this.requestId = requestId;
+        this.status = AllocationStatus.ACTIVE;
+    }
+
+    // Getters and Setters
+    public int getAllocationId() { return allocationId; }
+    public void setAllocationId(int allocationId) { this.allocationId = allocationId; }
+
+    public int getVentilatorId() { return ventilatorId; }
+    public void setVentilatorId(int ventilatorId) { this.ventilatorId = ventilatorId; }
+
+    public int getHospitalId() { return hospitalId; }
+    public void setHospitalId(int hospitalId) { this.hospitalId = hospitalId; }
+
+    public int getPatientId() { return patientId; }
+    public void setPatientId(int patientId) { this.patientId = patientId; }
+
+    public Integer getRequestId() { return requestId; }
+    public void setRequestId(Integer requestId) { this.requestId = requestId; }
+
+    public LocalDateTime getAllocatedAt() { return allocatedAt; }
+    public void setAllocatedAt(LocalDateTime allocatedAt) { this.allocatedAt = allocatedAt; }
+
+    public LocalDateTime getReleasedAt() { return releasedAt; }
+    public void setReleasedAt(LocalDateTime releasedAt) { this.releasedAt = releasedAt; }
+
+    public AllocationStatus getStatus() { return status; }
+    public void setStatus(AllocationStatus status) { this.status = status; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public boolean isActive() {
+        return status == AllocationStatus.ACTIVE;
+    }
+
+    @Override
+    public String toString() {
+        return "VentilatorAllocation{" +
+                "allocationId=" + allocationId +
+                ", ventilatorId=" + ventilatorId +
+                ", patientId=" + patientId +
+                ", requestId=" + requestId +
+                ", status=" + status +
+                '}';
+    }
+}
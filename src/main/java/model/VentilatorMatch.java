@@ -0,0 +1,53 @@
+package model;
+
+/**
+ * VentilatorMatch - A hospital with free ventilators of a requested type, with its distance
+ */
+public class VentilatorMatch {
+    private Hospital hospital;
+    private double distanceKm;
+    private Ventilator.VentilatorType ventilatorType;
+    private int freeCount;
+    private int icuBedsFree;
+
+    // Constructors
+    public VentilatorMatch() {}
+
+    public VentilatorMatch(Hospital hospital, double distanceKm, Ventilator.VentilatorType ventilatorType,
+                           int freeCount) {
+        this.hospital = hospital;
+        this.distanceKm = distanceKm;
+        this.ventilatorType = ventilatorType;
+        this.freeCount = freeCount;
+    }
+
+    // Getters and Setters
+    public Hospital getHospital() { return hospital; }
+    public void setHospital(Hospital hospital) { this.hospital = hospital; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+
+    /**
+     * Type searched for, or null if any type was accepted
+     */
+    public Ventilator.VentilatorType getVentilatorType() { return ventilatorType; }
+    public void setVentilatorType(Ventilator.VentilatorType ventilatorType) { this.ventilatorType = ventilatorType; }
+
+    public int getFreeCount() { return freeCount; }
+    public void setFreeCount(int freeCount) { this.freeCount = freeCount; }
+
+    public int getIcuBedsFree() { return icuBedsFree; }
+    public void setIcuBedsFree(int icuBedsFree) { this.icuBedsFree = icuBedsFree; }
+
+    @Override
+    public String toString() {
+        return "VentilatorMatch{" +
+                "hospital=" + hospital.getHospitalName() +
+                ", distanceKm=" + String.format("%.1f", distanceKm) +
+                ", type=" + (ventilatorType != null ? ventilatorType : "ANY") +
+                ", freeCount=" + freeCount +
+                ", icuBedsFree=" + icuBedsFree +
+                '}';
+    }
+}
@@ -0,0 +1,9 @@
+package model;
+
+/**
+ * Ward - Bed pool of a hospital whose occupancy is tracked
+ * (ward_occupancy.ward; declared in schema order)
+ */
+public enum Ward {
+    GENERAL, ICU
+}
@@ -0,0 +1,47 @@
+package model;
+
+/**
+ * WardOccupancy - Beds of one hospital ward and how many are taken (a row of ward_occupancy)
+ */
+public class WardOccupancy {
+    private int hospitalId;
+    private Ward ward;
+    private int capacity;
+    private int occupied;
+
+    // Constructors
+    public WardOccupancy() {}
+
+    public WardOccupancy(int hospitalId, Ward ward, int capacity, int occupied) {
+        this.hospitalId = hospitalId;
+        this.ward = ward;
+        this.capacity = capacity;
+        this.occupied = occupied;
+    }
+
+    // Getters and Setters
+    public int getHospitalId() { return hospitalId; }
+    public void setHospitalId(int hospitalId) { this.hospitalId = hospitalId; }
+
+    public Ward getWard() { return ward; }
+    public void setWard(Ward ward) { this.ward = ward; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public int getOccupied() { return occupied; }
+    public void setOccupied(int occupied) { this.occupied = occupied; }
+
+    public int getFree() {
+        return Math.max(0, capacity - occupied);
+    }
+
+    @Override
+    public String toString() {
+        return "WardOccupancy{" +
+                "hospitalId=" + hospitalId +
+                ", ward=" + ward +
+                ", occupied=" + occupied + "/" + capacity +
+                '}';
+    }
+}
@@ -0,0 +1,389 @@
+package service;
+
+import dao.DonorDAO;
+import dao.HospitalDAO;
+import dao.RequestDAO;
+import model.Donor;
+import model.Hospital;
+import model.Request;
+import model.StockProduct;
+import service.DonorMatchingService.DonorMatch;
+import util.BloodCompatibility;
+import util.MinCostFlow;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BatchMatchingService - Matches all open blood/plasma requests of a region at once
+ * Matching requests one by one sends the same top donor to every request of a
+ * surge. Here, every RUN_INTERVAL_SECONDS, the pending requests nobody has been
+ * matched to are grouped by their hospital's city, and each city is solved as one
+ * assignment problem: up to DONORS_PER_REQUEST donors per request, at most
+ * MAX_REQUESTS_PER_DONOR requests per donor, the largest total match score, and
+ * one donor for every request that can get one before anyone gets a second.
+ * Small cities are solved exactly with min-cost flow, large ones greedily with
+ * a repair pass. Cities are solved in parallel; notifications go out afterwards,
+ * and DonorFanOutScheduler follows up if nobody accepts. A request the batch
+ * cannot cover (no donor in its city within reach) is handed to the ring search
+ * of findMatchingDonors once, and is left out of later runs.
+ */
+public class BatchMatchingService {
+
+    private static final long RUN_INTERVAL_SECONDS = 10;
+    private static final int DONORS_PER_REQUEST = 5;      // Same as findMatchingDonors
+    private static final int MAX_REQUESTS_PER_DONOR = 2;
+    private static final int CANDIDATES_PER_REQUEST = 20; // Best-scored donors kept per request
+    private static final int MAX_FLOW_ARCS = 2000;        // Larger regions are solved greedily
+    private static final long FIRST_DONOR_BONUS = 100_000; // Covering a request beats any score gain
+
+    private static BatchMatchingService instance;
+
+    private final RequestDAO requestDAO;
+    private final DonorDAO donorDAO;
+    private final HospitalDAO hospitalDAO;
+    private final DonorMatchingService matchingService;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService solvers;
+    private final Set<Integer> matchedAlone = ConcurrentHashMap.newKeySet(); // Requests handed to findMatchingDonors
+
+    private volatile boolean running;
+
+    /**
+     * The requests of one city and their scored candidates
+     */
+    private static final class Region {
+        private final String city;
+        private final List<Request> requests = new ArrayList<>();
+        private final List<List<DonorMatch>> candidates = new ArrayList<>();
+
+        private Region(String city) {
+            this.city = city;
+        }
+    }
+
+    private BatchMatchingService() {
+        this.requestDAO = new RequestDAO();
+        this.donorDAO = new DonorDAO();
+        this.hospitalDAO = new HospitalDAO();
+        this.matchingService = new DonorMatchingService();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "batch-matching");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger solverCount = new AtomicInteger();
+        this.solvers = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+                Thread t = new Thread(r, "batch-matching-" + solverCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    public static synchronized BatchMatchingService getInstance() {
+        if (instance == null) {
+            instance = new BatchMatchingService();
+        }
+        return instance;
+    }
+
+    /**
+     * Run now and every RUN_INTERVAL_SECONDS after
+     */
+    public void start() {
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::run, 0, RUN_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        running = false;
+        scheduler.shutdown();
+        solvers.shutdown();
+    }
+
+    /**
+     * True while batch runs are scheduled (new requests are then left to the next run)
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Match one request right away with the ring search instead of waiting for the next run
+     */
+    public List<DonorMatch> matchNow(Request request) {
+        matchedAlone.add(request.getRequestId());
+        return matchingService.findMatchingDonors(request);
+    }
+
+    private void run() {
+        try {
+            int notified = matchPendingRequests();
+            if (notified > 0) {
+                System.out.println("✓ Batch matching notified " + notified + " donor(s)");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("✗ Batch matching run failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Match every unmatched pending request, one region per city
+     * @return Number of donor notifications sent
+     */
+    public int matchPendingRequests() {
+        List<Request> pending = requestDAO.getUnmatchedDonationRequests();
+        Set<Integer> pendingIds = new HashSet<>();
+        for (Request request : pending) {
+            pendingIds.add(request.getRequestId());
+        }
+        matchedAlone.retainAll(pendingIds); // Forget requests that got a donor or were closed
+        pending.removeIf(request -> matchedAlone.contains(request.getRequestId()));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, Hospital> hospitals = new HashMap<>();
+        for (Hospital hospital : hospitalDAO.getAllHospitals()) {
+            hospitals.put(hospital.getHospitalId(), hospital);
+        }
+
+        Map<String, List<Request>> byCity = new LinkedHashMap<>();
+        List<Request> uncovered = new ArrayList<>();
+        for (Request request : pending) {
+            Hospital hospital = hospitals.get(request.getHospitalId());
+            if (hospital != null && hospital.getCity() != null && request.getBloodGroup() != null) {
+                byCity.computeIfAbsent(hospital.getCity(), c -> new ArrayList<>()).add(request);
+            } else {
+                uncovered.add(request);
+            }
+        }
+
+        List<Future<Map<Request, List<DonorMatch>>>> solved = new ArrayList<>();
+        for (Map.Entry<String, List<Request>> city : byCity.entrySet()) {
+            solved.add(solvers.submit(() -> solveRegion(city.getKey(), city.getValue(), hospitals)));
+        }
+
+        // Sent from this thread so the fan-out sees each region's donors once, in order
+        int notified = 0;
+        int r = 0;
+        for (List<Request> cityRequests : byCity.values()) {
+            Future<Map<Request, List<DonorMatch>>> region = solved.get(r++);
+            Map<Request, List<DonorMatch>> result;
+            try {
+                result = region.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return notified;
+            } catch (ExecutionException e) {
+                System.err.println("✗ Batch matching of a region failed: " + e.getCause().getMessage());
+                result = Collections.emptyMap();
+            }
+
+            for (Request request : cityRequests) {
+                List<DonorMatch> assigned = result.get(request);
+                if (assigned == null) {
+                    uncovered.add(request);
+                    continue;
+                }
+                matchingService.notifyTopDonors(assigned, request);
+                DonorFanOutScheduler.getInstance().watch(request, assigned);
+                notified += assigned.size();
+            }
+        }
+
+        // Nobody in the city within reach: search further out, ring by ring, and fan out from there
+        for (Request request : uncovered) {
+            notified += matchNow(request).size();
+        }
+
+        return notified;
+    }
+
+    /**
+     * Score the city's donors against its requests and assign them
+     */
+    private Map<Request, List<DonorMatch>> solveRegion(String city, List<Request> requests,
+                                                        Map<Integer, Hospital> hospitals) {
+        List<Donor> donors = donorDAO.getAvailableDonorsInCity(city);
+        Region region = new Region(city);
+        int arcCount = 0;
+
+        for (Request request : requests) {
+            double[] center = DonorMatchingService.searchCenter(hospitals.get(request.getHospitalId()));
+            StockProduct product = request.getRequestType() == Request.RequestType.PLASMA
+                ? StockProduct.PLASMA : StockProduct.BLOOD;
+
+            List<DonorMatch> matches = new ArrayList<>();
+            for (Donor donor : donors) {
+                if (!BloodCompatibility.isCompatible(donor.getBloodGroup(), request.getBloodGroup(), product)) {
+                    continue;
+                }
+                DonorMatch match = matchingService.evaluateCandidate(donor, request, center[0], center[1]);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+            if (matches.isEmpty()) {
+                continue;
+            }
+
+            matches.sort((m1, m2) -> Double.compare(m2.getScore(), m1.getScore()));
+            List<DonorMatch> kept = new ArrayList<>(matches.subList(0, Math.min(CANDIDATES_PER_REQUEST, matches.size())));
+            region.requests.add(request);
+            region.candidates.add(kept);
+            arcCount += kept.size();
+        }
+
+        if (region.requests.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<List<DonorMatch>> assigned = arcCount <= MAX_FLOW_ARCS ? assignByFlow(region) : assignGreedy(region);
+
+        Map<Request, List<DonorMatch>> result = new LinkedHashMap<>();
+        int covered = 0;
+        for (int r = 0; r < region.requests.size(); r++) {
+            List<DonorMatch> donorsForRequest = assigned.get(r);
+            if (!donorsForRequest.isEmpty()) {
+                donorsForRequest.sort((m1, m2) -> Double.compare(m2.getScore(), m1.getScore()));
+                result.put(region.requests.get(r), donorsForRequest);
+                covered++;
+            }
+        }
+
+        System.out.println("✓ Batch matching " + city + ": " + covered + "/" + requests.size() +
+                           " request(s) covered from " + donors.size() + " donor(s)" +
+                           (arcCount <= MAX_FLOW_ARCS ? "" : " (greedy)"));
+        return result;
+    }
+
+    /**
+     * Exact assignment: source -> request -> donor -> sink, scores as negative costs.
+     * The first unit into each request carries a large bonus, so coverage comes first.
+     */
+    private List<List<DonorMatch>> assignByFlow(Region region) {
+        Map<Integer, Integer> donorNodes = new HashMap<>();
+        for (List<DonorMatch> matches : region.candidates) {
+            for (DonorMatch match : matches) {
+                donorNodes.putIfAbsent(match.getDonor().getDonorId(), donorNodes.size());
+            }
+        }
+
+        int requestCount = region.requests.size();
+        int source = 0;
+        int sink = 1 + requestCount + donorNodes.size();
+        MinCostFlow network = new MinCostFlow(sink + 1);
+
+        for (int r = 0; r < requestCount; r++) {
+            network.addArc(source, 1 + r, 1, -FIRST_DONOR_BONUS);
+            network.addArc(source, 1 + r, DONORS_PER_REQUEST - 1, 0);
+        }
+        for (int donorNode : donorNodes.values()) {
+            network.addArc(1 + requestCount + donorNode, sink, MAX_REQUESTS_PER_DONOR, 0);
+        }
+
+        List<int[]> matchArcs = new ArrayList<>(); // {request, candidate index, arc id}
+        for (int r = 0; r < requestCount; r++) {
+            List<DonorMatch> matches = region.candidates.get(r);
+            for (int c = 0; c < matches.size(); c++) {
+                int donorNode = donorNodes.get(matches.get(c).getDonor().getDonorId());
+                int arc = network.addArc(1 + r, 1 + requestCount + donorNode, 1,
+                    -Math.round(matches.get(c).getScore() * 100));
+                matchArcs.add(new int[] {r, c, arc});
+            }
+        }
+
+        network.solve(source, sink, (long) requestCount * DONORS_PER_REQUEST);
+
+        List<List<DonorMatch>> assigned = emptyAssignment(requestCount);
+        for (int[] matchArc : matchArcs) {
+            if (network.getFlow(matchArc[2]) > 0) {
+                assigned.get(matchArc[0]).add(region.candidates.get(matchArc[0]).get(matchArc[1]));
+            }
+        }
+        return assigned;
+    }
+
+    /**
+     * Greedy assignment by descending score, then a repair pass that gives each
+     * request left without donors one taken from a request holding several
+     */
+    private List<List<DonorMatch>> assignGreedy(Region region) {
+        int requestCount = region.requests.size();
+
+        List<int[]> pairs = new ArrayList<>(); // {request, candidate index}
+        for (int r = 0; r < requestCount; r++) {
+            for (int c = 0; c < region.candidates.get(r).size(); c++) {
+                pairs.add(new int[] {r, c});
+            }
+        }
+        pairs.sort((p1, p2) -> Double.compare(
+            region.candidates.get(p2[0]).get(p2[1]).getScore(),
+            region.candidates.get(p1[0]).get(p1[1]).getScore()));
+
+        List<List<DonorMatch>> assigned = emptyAssignment(requestCount);
+        Map<Integer, List<Integer>> requestsOfDonor = new HashMap<>();
+
+        for (int[] pair : pairs) {
+            DonorMatch match = region.candidates.get(pair[0]).get(pair[1]);
+            List<Integer> holders = requestsOfDonor.computeIfAbsent(match.getDonor().getDonorId(),
+                id -> new ArrayList<>());
+            if (assigned.get(pair[0]).size() < DONORS_PER_REQUEST && holders.size() < MAX_REQUESTS_PER_DONOR) {
+                assigned.get(pair[0]).add(match);
+                holders.add(pair[0]);
+            }
+        }
+
+        // Repair: a full donor is moved off a request that keeps at least one other donor
+        for (int r = 0; r < requestCount; r++) {
+            if (!assigned.get(r).isEmpty()) {
+                continue;
+            }
+            for (DonorMatch match : region.candidates.get(r)) {
+                List<Integer> holders = requestsOfDonor.get(match.getDonor().getDonorId());
+                Integer donorFrom = null;
+                for (Integer holder : holders) {
+                    if (assigned.get(holder).size() > 1) {
+                        donorFrom = holder;
+                        break;
+                    }
+                }
+                if (holders.size() < MAX_REQUESTS_PER_DONOR || donorFrom != null) {
+                    if (donorFrom != null && holders.size() >= MAX_REQUESTS_PER_DONOR) {
+                        final int donorId = match.getDonor().getDonorId();
+                        assigned.get(donorFrom).removeIf(m -> m.getDonor().getDonorId() == donorId);
+                        holders.remove(donorFrom);
+                    }
+                    assigned.get(r).add(match);
+                    holders.add(r);
+                    break;
+                }
+            }
+        }
+
+        return assigned;
+    }
+
+    private static List<List<DonorMatch>> emptyAssignment(int requestCount) {
+        List<List<DonorMatch>> assigned = new ArrayList<>();
+        for (int r = 0; r < requestCount; r++) {
+            assigned.add(new ArrayList<>());
+        }
+        return assigned;
+    }
+}
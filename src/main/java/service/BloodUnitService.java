@@ -0,0 +1,312 @@
+package service;
+
+import dao.BloodUnitDAO;
+import dao.StockDAO;
+import model.BloodUnit;
+import model.Donor;
+import model.StockHold;
+import model.StockKey;
+import model.StockLedgerEntry;
+import model.StockProduct;
+import util.BloodCompatibility;
+import util.TimerWheel;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BloodUnitService - Bag-level receiving and first-expiry-first-out issuing
+ * Bags live in blood_units; the blood_stock / plasma_stock aggregates follow
+ * them through the stock buffer (RECEIVED, ISSUED and EXPIRED ledger entries),
+ * and each stock upsert re-derives the line's expiry date from its bags.
+ * Available bags of a hospital are indexed by expiry on first use; once
+ * started, bags past their date are expired at start-up and every midnight.
+ */
+public class BloodUnitService {
+
+    private static BloodUnitService instance;
+
+    private final BloodUnitDAO unitDAO;
+    private final StockDAO stockDAO;
+    private final StockAdjustmentBuffer stockBuffer;
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
+    private final Set<Integer> loadedHospitals = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker;
+    private boolean allLoaded;
+    private boolean started;
+
+    private BloodUnitService() {
+        this.unitDAO = new BloodUnitDAO();
+        this.stockDAO = new StockDAO();
+        this.stockBuffer = StockAdjustmentBuffer.getInstance();
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "unit-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized BloodUnitService getInstance() {
+        if (instance == null) {
+            instance = new BloodUnitService();
+        }
+        return instance;
+    }
+
+    /**
+     * Index every available bag, expire those past their date and repeat each midnight
+     */
+    public void start() {
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+            started = true;
+        }
+        worker.execute(this::expireAllDueUnits);
+        scheduleNextMidnight();
+    }
+
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    /**
+     * Receive a bag into a hospital's inventory and wait for its stock line to be written
+     * (the bag's unit id is set on it)
+     *
+     * @return Resulting quantity of the bag's stock line, StockDAO.QUANTITY_UNKNOWN if the bag
+     *         was saved but the line is not written yet, or -1 if the bag could not be saved
+     */
+    public int receiveUnit(BloodUnit unit) {
+        ensureLoaded(unit.getHospitalId());
+
+        int unitId = unitDAO.addUnit(unit);
+        if (unitId < 0) {
+            return -1;
+        }
+
+        unit.setUnitId(unitId);
+        expiryIndex.add(unit);
+        int quantity = stockBuffer.recordAndWait(unit.getHospitalId(), unit.getBloodGroup(), unit.getProduct(),
+            unit.getVolumeMl(), StockLedgerEntry.Reason.RECEIVED, null);
+
+        System.out.println("✓ Received " + unit);
+        return quantity >= 0 ? quantity : StockDAO.QUANTITY_UNKNOWN; // A failed write is retried by the buffer
+    }
+
+    /**
+     * Issue compatible bags covering volumeMl: the recipient's own group first, earliest
+     * expiry first, substitutes only for the shortfall; stock held for other requests is skipped
+     *
+     * @param requestId Request the bags are issued against (may be null)
+     * @return The issued bags, or an empty list if the hospital cannot cover the volume
+     */
+    public List<BloodUnit> allocate(int hospitalId, Donor.BloodGroup recipientGroup, StockProduct product,
+                                    int volumeMl, Integer requestId) {
+        ensureLoaded(hospitalId);
+
+        StockHold ownHold = requestId != null ? stockDAO.getHoldForRequest(requestId) : null;
+        List<Donor.BloodGroup> groups = issueOrder(recipientGroup, product);
+        Map<Donor.BloodGroup, Integer> heldByOthers = new EnumMap<>(Donor.BloodGroup.class);
+        for (Donor.BloodGroup group : groups) {
+            int held = stockDAO.getHeldQuantity(hospitalId, group, product);
+            if (ownHold != null && ownHold.getStockKey().equals(new StockKey(hospitalId, group, product))) {
+                held -= ownHold.getQuantityMl();
+            }
+            if (held > 0) {
+                heldByOthers.put(group, held);
+            }
+        }
+
+        List<BloodUnit> expired = new ArrayList<>();
+        List<BloodUnit> units = expiryIndex.take(hospitalId, product, groups, heldByOthers, volumeMl,
+            LocalDate.now(), expired);
+        retire(expired);
+
+        if (units.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> unitIds = new ArrayList<>();
+        for (BloodUnit unit : units) {
+            unitIds.add(unit.getUnitId());
+        }
+
+        if (!unitDAO.markIssued(unitIds, requestId)) {
+            // The database no longer agrees with the index: rebuild it on next use
+            expiryIndex.evictHospital(hospitalId);
+            loadedHospitals.remove(hospitalId);
+            System.err.println("✗ Could not issue " + units.size() + " bag(s) at hospital " + hospitalId);
+            return Collections.emptyList();
+        }
+
+        for (BloodUnit unit : units) {
+            unit.setStatus(BloodUnit.UnitStatus.ISSUED);
+            unit.setRequestId(requestId);
+            stockBuffer.record(hospitalId, unit.getBloodGroup(), product, -unit.getVolumeMl(),
+                StockLedgerEntry.Reason.ISSUED, requestId);
+        }
+
+        if (requestId != null) {
+            // The issue has to reach the stock lines first, or the held quantity would briefly
+            // count as available again before on hand drops
+            stockBuffer.flushAndWait();
+            settleHold(requestId, units);
+        }
+
+        System.out.println("✓ Issued " + units.size() + " bag(s) for " + volumeMl + "ml of " +
+            recipientGroup.getDisplay() + " " + product);
+        return units;
+    }
+
+    /**
+     * Compatible groups in issue order: the recipient's own group, then substitutes,
+     * O-negative last (as FulfilmentPlanner prices them)
+     */
+    private static List<Donor.BloodGroup> issueOrder(Donor.BloodGroup recipientGroup, StockProduct product) {
+        List<Donor.BloodGroup> compatible = BloodCompatibility.donorGroupsFor(recipientGroup, product);
+        List<Donor.BloodGroup> order = new ArrayList<>();
+        if (compatible.contains(recipientGroup)) {
+            order.add(recipientGroup);
+        }
+        for (Donor.BloodGroup group : compatible) {
+            if (group != recipientGroup && group != Donor.BloodGroup.O_NEGATIVE) {
+                order.add(group);
+            }
+        }
+        if (recipientGroup != Donor.BloodGroup.O_NEGATIVE && compatible.contains(Donor.BloodGroup.O_NEGATIVE)) {
+            order.add(Donor.BloodGroup.O_NEGATIVE);
+        }
+        return order;
+    }
+
+    /**
+     * End the hold placed when the request was approved: confirmed if the bags came
+     * from the held line, released if substitutes were issued instead (their own
+     * stock writes then bring the lines up to date)
+     */
+    private void settleHold(int requestId, List<BloodUnit> issued) {
+        StockHold hold = stockDAO.getHoldForRequest(requestId);
+        if (hold == null) {
+            return;
+        }
+
+        boolean fromHeldLine = issued.stream().allMatch(unit -> unit.getStockKey().equals(hold.getStockKey()));
+        if (fromHeldLine) {
+            stockDAO.confirmHold(hold.getHoldId());
+        } else {
+            stockDAO.releaseHold(hold.getHoldId());
+        }
+    }
+
+    /**
+     * Expire the bags of a hospital that are past their date
+     *
+     * @return Number of bags expired
+     */
+    public int expireDueUnits(int hospitalId) {
+        ensureLoaded(hospitalId);
+        List<BloodUnit> expired = expiryIndex.pollExpired(hospitalId, LocalDate.now());
+        retire(expired);
+        return expired.size();
+    }
+
+    private void expireAllDueUnits() {
+        ensureAllLoaded();
+        int expired = 0;
+        for (int hospitalId : loadedHospitals) {
+            expired += expireDueUnits(hospitalId);
+        }
+        System.out.println("✓ Expiry check done: " + expired + " bag(s) expired");
+    }
+
+    private void scheduleNextMidnight() {
+        LocalDateTime now = LocalDateTime.now();
+        // A second past midnight, so the tick lands on the new day even if the wheel runs early
+        long delayMs = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis() + 1000;
+        TimerWheel.getInstance().schedule(() -> {
+            worker.execute(this::expireAllDueUnits);
+            scheduleNextMidnight();
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Earliest expiry among the available bags of a stock line, or null if it has none
+     */
+    public LocalDate getEarliestExpiry(StockKey key) {
+        ensureLoaded(key.getHospitalId());
+        return expiryIndex.earliestExpiry(key);
+    }
+
+    /**
+     * Usable bags of all hospitals that expire within the given number of days
+     */
+    public List<BloodUnit> getUnitsExpiringWithin(int days) {
+        ensureAllLoaded();
+        LocalDate today = LocalDate.now();
+        return expiryIndex.unitsExpiringBy(today.plusDays(days), today);
+    }
+
+    /**
+     * Mark bags taken out of the index as expired and take them off stock
+     */
+    private void retire(List<BloodUnit> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<Integer> unitIds = new ArrayList<>();
+        for (BloodUnit unit : expired) {
+            unitIds.add(unit.getUnitId());
+        }
+
+        if (unitDAO.markExpired(unitIds) < 0) {
+            // Still AVAILABLE in the database; they come back with the next reload
+            expiryIndex.evictHospital(expired.get(0).getHospitalId());
+            loadedHospitals.remove(expired.get(0).getHospitalId());
+            return;
+        }
+
+        for (BloodUnit unit : expired) {
+            unit.setStatus(BloodUnit.UnitStatus.EXPIRED);
+            stockBuffer.record(unit.getHospitalId(), unit.getBloodGroup(), unit.getProduct(), -unit.getVolumeMl(),
+                StockLedgerEntry.Reason.EXPIRED, null);
+        }
+
+        System.out.println("⚠ " + expired.size() + " expired bag(s) removed from stock");
+    }
+
+    private synchronized void ensureAllLoaded() {
+        if (allLoaded) {
+            return;
+        }
+        Set<Integer> loadedNow = new HashSet<>();
+        for (BloodUnit unit : unitDAO.getAllAvailableUnits()) {
+            // Hospitals indexed before keep their (more current) entries
+            if (!loadedHospitals.contains(unit.getHospitalId())) {
+                expiryIndex.add(unit);
+                loadedNow.add(unit.getHospitalId());
+            }
+        }
+        loadedHospitals.addAll(loadedNow);
+        allLoaded = true;
+    }
+
+    private synchronized void ensureLoaded(int hospitalId) {
+        if (loadedHospitals.add(hospitalId)) {
+            expiryIndex.addAll(unitDAO.getAvailableUnits(hospitalId));
+        }
+    }
+}
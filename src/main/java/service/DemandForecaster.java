@@ -0,0 +1,192 @@
+package service;
+
+import dao.StockLedgerDAO;
+import model.Donor;
+import model.StockKey;
+import model.StockProduct;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DemandForecaster - Exponentially smoothed daily demand per stock line
+ * Consumption (issues, manual removals) and requested volumes are summed per
+ * day; when a day closes its total is folded into an exponentially weighted
+ * mean and variance, so each event costs O(1) and nothing is re-aggregated.
+ * From these it recommends a min_threshold (expected demand over the restock
+ * lead time plus safety stock) and days of cover for a given level.
+ * Each hospital is warmed up once from the stock ledger on first use.
+ */
+public class DemandForecaster {
+
+    private static final double ALPHA = 0.2;             // Weight of the newest day (~9 day memory)
+    private static final int HISTORY_DAYS = 60;          // Ledger history read at warm-up
+    private static final int MAX_IDLE_DAYS = 90;         // Idle days folded one by one; beyond, demand is ~0
+    private static final int LEAD_TIME_DAYS = 3;         // Restock time the threshold must cover
+    private static final double SERVICE_LEVEL_Z = 1.65;  // ~95% chance of not running out in the lead time
+
+    private static DemandForecaster instance;
+
+    private final StockLedgerDAO ledgerDAO;
+    private final Map<StockKey, Series> consumption = new ConcurrentHashMap<>();
+    private final Map<StockKey, Series> requested = new ConcurrentHashMap<>();
+    private final Set<Integer> warmHospitals = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Smoothed daily totals of one stock line
+     */
+    private static final class Series {
+        private long day = LocalDate.now().toEpochDay(); // Day being accumulated
+        private double dayTotal;
+        private double mean;
+        private double variance;
+        private boolean seeded;
+
+        synchronized void add(long onDay, double amount) {
+            rollTo(onDay);
+            dayTotal += amount;
+        }
+
+        /**
+         * Close every day before onDay (idle days count as zero demand)
+         */
+        synchronized void rollTo(long onDay) {
+            if (onDay <= day) {
+                return;
+            }
+            fold(dayTotal);
+            long idle = Math.min(onDay - day - 1, MAX_IDLE_DAYS);
+            for (long i = 0; i < idle; i++) {
+                fold(0);
+            }
+            day = onDay;
+            dayTotal = 0;
+        }
+
+        private void fold(double total) {
+            if (!seeded) {
+                mean = total;
+                variance = 0;
+                seeded = true;
+                return;
+            }
+            double diff = total - mean;
+            double step = ALPHA * diff;
+            mean += step;
+            variance = (1 - ALPHA) * (variance + diff * step);
+        }
+    }
+
+    private DemandForecaster() {
+        this.ledgerDAO = new StockLedgerDAO();
+    }
+
+    public static synchronized DemandForecaster getInstance() {
+        if (instance == null) {
+            instance = new DemandForecaster();
+        }
+        return instance;
+    }
+
+    /**
+     * Stock left a line to be used (issued or removed by hand)
+     */
+    public void recordConsumption(StockKey key, int quantityMl) {
+        ensureWarm(key.getHospitalId());
+        series(consumption, key).add(LocalDate.now().toEpochDay(), quantityMl);
+    }
+
+    /**
+     * A request for a product was raised at a hospital
+     */
+    public void recordRequest(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product, int quantityMl) {
+        series(requested, new StockKey(hospitalId, bloodGroup, product))
+            .add(LocalDate.now().toEpochDay(), quantityMl);
+    }
+
+    /**
+     * Smoothed daily demand of a line in ml: the larger of what is consumed and
+     * what is requested, so unmet requests still count
+     */
+    public double getDailyDemand(StockKey key) {
+        ensureWarm(key.getHospitalId());
+        long today = LocalDate.now().toEpochDay();
+        return Math.max(mean(consumption.get(key), today), mean(requested.get(key), today));
+    }
+
+    /**
+     * Recommended min_threshold: demand over the lead time plus safety stock
+     *
+     * @return Threshold in ml, or -1 while the line has no demand history
+     */
+    public int getRecommendedThreshold(StockKey key) {
+        ensureWarm(key.getHospitalId());
+        Series series = consumption.get(key);
+        if (series == null) {
+            series = requested.get(key);
+        }
+        if (series == null) {
+            return -1;
+        }
+
+        double variance;
+        synchronized (series) {
+            series.rollTo(LocalDate.now().toEpochDay());
+            if (!series.seeded) {
+                return -1;
+            }
+            variance = series.variance;
+        }
+
+        double demand = getDailyDemand(key);
+        double safetyStock = SERVICE_LEVEL_Z * Math.sqrt(variance * LEAD_TIME_DAYS);
+        return (int) Math.ceil(demand * LEAD_TIME_DAYS + safetyStock);
+    }
+
+    /**
+     * Days a quantity lasts at the current demand
+     *
+     * @return Days, or Double.POSITIVE_INFINITY when there is no measurable demand
+     */
+    public double getDaysOfCover(StockKey key, int quantityMl) {
+        double demand = getDailyDemand(key);
+        return demand < 1.0 ? Double.POSITIVE_INFINITY : quantityMl / demand;
+    }
+
+    private static double mean(Series series, long today) {
+        if (series == null) {
+            return 0;
+        }
+        synchronized (series) {
+            series.rollTo(today);
+            return series.seeded ? series.mean : 0;
+        }
+    }
+
+    private static Series series(Map<StockKey, Series> table, StockKey key) {
+        return table.computeIfAbsent(key, k -> new Series());
+    }
+
+    /**
+     * Replay a hospital's recent consumption from the ledger, oldest day first
+     */
+    private void ensureWarm(int hospitalId) {
+        if (!warmHospitals.add(hospitalId)) {
+            return;
+        }
+
+        Map<StockKey, SortedMap<LocalDate, Integer>> history = ledgerDAO.getDailyConsumption(hospitalId, HISTORY_DAYS);
+        for (Map.Entry<StockKey, SortedMap<LocalDate, Integer>> line : history.entrySet()) {
+            Series series = new Series();
+            synchronized (series) {
+                series.day = line.getValue().firstKey().toEpochDay();
+                for (Map.Entry<LocalDate, Integer> day : line.getValue().entrySet()) {
+                    series.add(day.getKey().toEpochDay(), day.getValue());
+                }
+            }
+            consumption.merge(line.getKey(), series, (live, warm) -> live);
+        }
+    }
+}
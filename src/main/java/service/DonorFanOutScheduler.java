@@ -0,0 +1,224 @@
+package service;
+
+import dao.RequestDAO;
+import model.Request;
+import service.DonorMatchingService.DonorMatch;
+import util.TimerWheel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DonorFanOutScheduler - Notifies donors for a request in waves until one accepts
+ * A wave notifies the next WAVE_SIZE ranked donors and sets a timeout on the shared
+ * timer wheel, as long as the request's urgency allows. When it fires and the request
+ * is still pending with no ACCEPTED response in donor_matches, the next band goes out;
+ * once the ranked donors run out the ring search continues past them. If every donor of a
+ * wave declines, the next wave starts right away. An acceptance cancels the timeout.
+ */
+public class DonorFanOutScheduler {
+
+    static final int WAVE_SIZE = 5;
+
+    private static DonorFanOutScheduler instance;
+
+    private final RequestDAO requestDAO;
+    private final DonorMatchingService matchingService;
+    private final ExecutorService worker;
+    private final Map<Request.Urgency, Long> waveIntervalMinutes =
+        Collections.synchronizedMap(new EnumMap<>(Request.Urgency.class));
+    private final Map<Integer, FanOut> active = new ConcurrentHashMap<>(); // Request id -> its fan-out
+
+    /**
+     * Fan-out state of one request (changed on the worker only, after begin)
+     */
+    private static final class FanOut {
+        private final Request request;
+        private final Set<Integer> notified = new HashSet<>();
+        private final Set<Integer> pendingInWave = new HashSet<>();
+        private final Deque<DonorMatch> reserve = new ArrayDeque<>();
+        private boolean exhausted; // The ring search has no further donors to offer
+        private int wave;
+        private volatile TimerWheel.Timeout timeout;
+
+        private FanOut(Request request) {
+            this.request = request;
+        }
+    }
+
+    private DonorFanOutScheduler() {
+        this.requestDAO = new RequestDAO();
+        this.matchingService = new DonorMatchingService();
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "donor-fanout");
+            t.setDaemon(true);
+            return t;
+        });
+        waveIntervalMinutes.put(Request.Urgency.CRITICAL, 10L);
+        waveIntervalMinutes.put(Request.Urgency.URGENT, 30L);
+        waveIntervalMinutes.put(Request.Urgency.NORMAL, 120L);
+    }
+
+    public static synchronized DonorFanOutScheduler getInstance() {
+        if (instance == null) {
+            instance = new DonorFanOutScheduler();
+        }
+        return instance;
+    }
+
+    public void shutdown() {
+        for (FanOut fanOut : active.values()) {
+            cancelTimeout(fanOut);
+        }
+        active.clear();
+        worker.shutdown();
+    }
+
+    /**
+     * Set how long a wave waits for an acceptance before the next one goes out
+     */
+    public void setWaveInterval(Request.Urgency urgency, long minutes) {
+        waveIntervalMinutes.put(urgency, Math.max(1, minutes));
+    }
+
+    /**
+     * How long a wave of this urgency waits for an acceptance, in minutes
+     */
+    public long getWaveInterval(Request.Urgency urgency) {
+        return waveIntervalMinutes.getOrDefault(urgency, 120L);
+    }
+
+    /**
+     * Notify the first wave of a ranked donor list now and keep the rest for later waves
+     */
+    public void begin(Request request, List<DonorMatch> ranked) {
+        FanOut fanOut = new FanOut(request);
+        fanOut.reserve.addAll(ranked);
+        fanOut.exhausted = ranked.size() < WAVE_SIZE; // The search already went as far as it could
+
+        List<DonorMatch> band = takeBand(fanOut);
+        if (band.isEmpty()) {
+            System.out.println("⚠ No donors to notify for request #" + request.getRequestId());
+            return;
+        }
+        matchingService.notifyTopDonors(band, request);
+        track(fanOut, band);
+    }
+
+    /**
+     * Follow up on donors already notified elsewhere (batch matching); later waves search again
+     */
+    public void watch(Request request, List<DonorMatch> notified) {
+        if (!notified.isEmpty()) {
+            track(new FanOut(request), notified);
+        }
+    }
+
+    /**
+     * Stop fanning out a request (a donor accepted, or the request was closed)
+     */
+    public void stop(int requestId) {
+        FanOut fanOut = active.remove(requestId);
+        if (fanOut != null) {
+            cancelTimeout(fanOut);
+            System.out.println("✓ Donor fan-out stopped for request #" + requestId + " after " +
+                               fanOut.wave + " wave(s)");
+        }
+    }
+
+    /**
+     * A donor declined: once the whole current wave has, the next one starts without waiting
+     */
+    public void donorDeclined(int requestId, int donorId) {
+        worker.execute(() -> {
+            FanOut fanOut = active.get(requestId);
+            if (fanOut != null && fanOut.pendingInWave.remove(donorId) && fanOut.pendingInWave.isEmpty()) {
+                cancelTimeout(fanOut);
+                nextWave(fanOut);
+            }
+        });
+    }
+
+    private void track(FanOut fanOut, List<DonorMatch> band) {
+        fanOut.wave++;
+        fanOut.pendingInWave.clear();
+        for (DonorMatch match : band) {
+            fanOut.notified.add(match.getDonor().getDonorId());
+            fanOut.pendingInWave.add(match.getDonor().getDonorId());
+        }
+
+        int requestId = fanOut.request.getRequestId();
+        active.put(requestId, fanOut);
+
+        long minutes = getWaveInterval(fanOut.request.getUrgency());
+        fanOut.timeout = TimerWheel.getInstance().schedule(
+            () -> worker.execute(() -> nextWave(fanOut)), minutes, TimeUnit.MINUTES);
+    }
+
+    private void nextWave(FanOut fanOut) {
+        int requestId = fanOut.request.getRequestId();
+        if (active.get(requestId) != fanOut) {
+            return; // Stopped or replaced meanwhile
+        }
+
+        if (!requestDAO.isAwaitingDonor(requestId)) {
+            active.remove(requestId, fanOut);
+            return;
+        }
+
+        List<DonorMatch> band = takeBand(fanOut);
+        if (band.isEmpty()) {
+            active.remove(requestId, fanOut);
+            System.out.println("⚠ No more donors to notify for request #" + requestId);
+            return;
+        }
+
+        if (active.get(requestId) == fanOut) { // A donor may have accepted during the search
+            matchingService.notifyTopDonors(band, fanOut.request);
+            track(fanOut, band);
+            System.out.println("✓ Wave " + fanOut.wave + " notified " + band.size() + " donor(s) for request #" +
+                               requestId);
+        }
+    }
+
+    /**
+     * Next WAVE_SIZE donors not notified yet, searching further out when the ranked ones run out
+     */
+    private List<DonorMatch> takeBand(FanOut fanOut) {
+        List<DonorMatch> band = new ArrayList<>();
+        while (band.size() < WAVE_SIZE) {
+            DonorMatch next = fanOut.reserve.poll();
+            if (next == null) {
+                if (fanOut.exhausted) {
+                    break;
+                }
+                int needed = WAVE_SIZE - band.size();
+                List<DonorMatch> further = matchingService.rankDonors(fanOut.request, needed, fanOut.notified);
+                fanOut.exhausted = further.size() < needed; // Even the last ring was not enough
+                fanOut.reserve.addAll(further);
+                continue;
+            }
+            if (fanOut.notified.add(next.getDonor().getDonorId())) {
+                band.add(next);
+            }
+        }
+        return band;
+    }
+
+    private static void cancelTimeout(FanOut fanOut) {
+        TimerWheel.Timeout timeout = fanOut.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
@@ -2,7 +2,9 @@ package service;
 
 import dao.*;
 import model.*;
+import util.BloodCompatibility;
 import util.EmailUtil;
+import util.GeoUtil;
 import util.SMSUtil;
 import java.sql.SQLException;
 import java.util.*;
@@ -27,9 +29,18 @@ public class DonorMatchingService {
     private final NotificationService notificationService;
     private final config.DatabaseConfig dbConfig; 
     
-    // Earth's radius in kilometers for distance calculation
-    private static final double EARTH_RADIUS_KM = 6371.0;
-    private static final int MAX_SEARCH_RADIUS_KM = 50; // Search within 50km
+    private static final int MAX_SEARCH_RADIUS_KM = 50; // City-wide search radius; distance score reaches 0 here
+    private static final double[] RING_RADII_KM = {5, 10, 25, 50, 100}; // Ring search, innermost first
+    private static final int MAX_SEARCH_STATS = 1000;
+    
+    // Latest ring search per request (most recent MAX_SEARCH_STATS requests)
+    private static final Map<Integer, MatchSearchStats> SEARCH_STATS =
+        new LinkedHashMap<Integer, MatchSearchStats>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, MatchSearchStats> eldest) {
+                return size() > MAX_SEARCH_STATS;
+            }
+        };
     
     public DonorMatchingService() {
         this.donorDAO = new DonorDAO();
@@ -50,6 +61,27 @@ public class DonorMatchingService {
     public List<DonorMatch> findMatchingDonors(Request request) {
         System.out.println("\n=== Starting Donor Matching Algorithm ===");
         
+        List<DonorMatch> matches = rankDonors(request, DonorFanOutScheduler.WAVE_SIZE, Collections.emptySet());
+        
+        // Notify the first wave now; the next bands follow if nobody accepts in time
+        DonorFanOutScheduler.getInstance().begin(request, matches);
+        
+        System.out.println("=== Donor Matching Complete ===\n");
+        
+        return matches;
+    }
+    
+    /**
+     * Rank compatible donors around the request's hospital (no notifications).
+     * Searches outward ring by ring (RING_RADII_KM) and stops at the first ring
+     * that holds enough candidates, so a dense city reads a few streets and a
+     * rural hospital keeps going out to the last ring.
+     * @param wanted Candidates needed, not counting excluded donors
+     * @param excluded Donor IDs already contacted
+     * @return Matches within the last ring searched, sorted by score (highest first);
+     *         empty if the patient or hospital is missing
+     */
+    List<DonorMatch> rankDonors(Request request, int wanted, Set<Integer> excluded) {
         Patient patient = patientDAO.getPatientById(request.getPatientId());
         Hospital hospital = hospitalDAO.getHospitalById(request.getHospitalId());
         
@@ -58,14 +90,9 @@ public class DonorMatchingService {
             return new ArrayList<>();
         }
         
-        double searchLat = hospital.getLatitude();
-        double searchLon = hospital.getLongitude();
-        
-        if (searchLat == 0.0 && searchLon == 0.0) {
-             System.err.println("⚠ Hospital coordinates not set. Falling back to default Bangalore location (12.9716, 77.5946).");
-             searchLat = 12.9716; 
-             searchLon = 77.5946; 
-        }
+        double[] center = searchCenter(hospital);
+        double searchLat = center[0];
+        double searchLon = center[1];
 
         System.out.println("✓ Matching for Patient " + patient.getFullName() + 
                            " at Hospital " + hospital.getHospitalName() + 
@@ -78,78 +105,127 @@ public class DonorMatchingService {
         
         System.out.println("✓ Compatible blood groups: " + compatibleBloodGroups);
         
-        List<Donor> candidateDonors = new ArrayList<>();
-        for (Donor.BloodGroup bg : compatibleBloodGroups) {
-            candidateDonors.addAll(donorDAO.getDonorsByBloodGroup(bg));
-        }
-        
-        System.out.println("✓ Found " + candidateDonors.size() + " total candidate donors with compatible groups");
-
-        List<DonorMatch> matches = new ArrayList<>();
-        
-        for (Donor donor : candidateDonors) {
-            
-            if (!donor.isAvailable()) {
-                continue;
-            }
-            
-            boolean eligible = (request.getRequestType() == Request.RequestType.BLOOD) 
-                ? donor.isEligibleForBloodDonation() 
-                : donor.isEligibleForPlasmaDonation();
-            
-            if (!eligible) {
-                continue;
-            }
+        // A ring's bounding box reaches past its circle, so candidates are kept at any
+        // distance up to the last ring and only counted once their ring is complete
+        double maxRadius = RING_RADII_KM[RING_RADII_KM.length - 1];
+        List<DonorMatch> pool = new ArrayList<>();
+        int scanned = 0;
+        int rings = 0;
+        double radius = 0;
+        
+        while (rings < RING_RADII_KM.length) {
+            double inner = radius;
+            radius = RING_RADII_KM[rings++];
             
-            double distance = -1;
-            
-            // FIX: Handle Donors with default/zero coordinates
-            if (donor.getLatitude() == 0.0 && donor.getLongitude() == 0.0) {
-                distance = 0.0; 
-                System.out.println("  ⚠ Donor " + donor.getFullName() + " has no coordinates. Assuming local match (distance=0km).");
-            } else {
-                distance = calculateDistance(
-                    donor.getLatitude(), donor.getLongitude(),
-                    searchLat, searchLon 
-                );
-                
-                if (distance > MAX_SEARCH_RADIUS_KM) {
+            List<Donor> ring = donorDAO.getAvailableDonorsInRing(compatibleBloodGroups, searchLat, searchLon,
+                                                                  inner, radius);
+            scanned += ring.size();
+            for (Donor donor : ring) {
+                if (excluded.contains(donor.getDonorId())) {
                     continue;
                 }
+                DonorMatch match = evaluateCandidate(donor, request, searchLat, searchLon, maxRadius);
+                if (match != null) {
+                    pool.add(match);
+                }
             }
             
-            double matchScore = calculateMatchScore(donor, request, distance);
-            
-            DonorMatch match = new DonorMatch(donor, matchScore, distance);
-            matches.add(match);
+            if (countWithin(pool, radius) >= wanted) {
+                break;
+            }
         }
         
-        matches.sort((m1, m2) -> Double.compare(m2.getScore(), m1.getScore()));
-        
-        System.out.println("✓ Generated " + matches.size() + " ranked matches within " + MAX_SEARCH_RADIUS_KM + "km.");
+        final double searched = radius;
+        List<DonorMatch> matches = pool.stream()
+            .filter(m -> m.getDistance() <= searched)
+            .sorted((m1, m2) -> Double.compare(m2.getScore(), m1.getScore()))
+            .collect(Collectors.toList());
         
-        notifyTopDonors(matches.subList(0, Math.min(5, matches.size())), request);
+        MatchSearchStats stats = new MatchSearchStats(request.getRequestId(), rings, radius, scanned, matches.size());
+        synchronized (SEARCH_STATS) {
+            SEARCH_STATS.put(request.getRequestId(), stats);
+        }
         
-        System.out.println("=== Donor Matching Complete ===\n");
+        System.out.println("✓ Generated " + matches.size() + " ranked matches within " + radius + "km " +
+                           "(" + rings + " ring(s), " + scanned + " donors scanned).");
         
         return matches;
     }
     
     /**
-     * Calculate distance between two geographic coordinates using Haversine formula
-     * @return Distance in kilometers
+     * Stats of the latest donor search for a request, or null if none is remembered
      */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
+    public static MatchSearchStats getSearchStats(int requestId) {
+        synchronized (SEARCH_STATS) {
+            return SEARCH_STATS.get(requestId);
+        }
+    }
+    
+    private static int countWithin(List<DonorMatch> pool, double radiusKm) {
+        int count = 0;
+        for (DonorMatch match : pool) {
+            if (match.getDistance() <= radiusKm) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Point donors are searched around: the hospital's coordinates, or the default
+     * Bangalore location when they are not set
+     * @return {latitude, longitude}
+     */
+    static double[] searchCenter(Hospital hospital) {
+        if (hospital.getLatitude() == 0.0 && hospital.getLongitude() == 0.0) {
+            System.err.println("⚠ Hospital coordinates not set. Falling back to default Bangalore location (12.9716, 77.5946).");
+            return new double[] {12.9716, 77.5946};
+        }
+        return new double[] {hospital.getLatitude(), hospital.getLongitude()};
+    }
+    
+    /**
+     * Check availability, eligibility and distance for one candidate
+     * (blood group compatibility is checked by the caller)
+     * @return Scored match, or null if the donor cannot be used for this request
+     */
+    DonorMatch evaluateCandidate(Donor donor, Request request, double searchLat, double searchLon) {
+        return evaluateCandidate(donor, request, searchLat, searchLon, MAX_SEARCH_RADIUS_KM);
+    }
+    
+    private DonorMatch evaluateCandidate(Donor donor, Request request, double searchLat, double searchLon,
+                                         double radiusKm) {
+        if (!donor.isAvailable()) {
+            return null;
+        }
+        
+        boolean eligible = (request.getRequestType() == Request.RequestType.BLOOD) 
+            ? donor.isEligibleForBloodDonation() 
+            : donor.isEligibleForPlasmaDonation();
         
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        if (!eligible) {
+            return null;
+        }
+        
+        double distance;
         
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        // FIX: Handle Donors with default/zero coordinates
+        if (donor.getLatitude() == 0.0 && donor.getLongitude() == 0.0) {
+            distance = 0.0; 
+            System.out.println("  ⚠ Donor " + donor.getFullName() + " has no coordinates. Assuming local match (distance=0km).");
+        } else {
+            distance = GeoUtil.distanceKm(
+                donor.getLatitude(), donor.getLongitude(),
+                searchLat, searchLon 
+            );
+            
+            if (distance > radiusKm) {
+                return null;
+            }
+        }
         
-        return EARTH_RADIUS_KM * c;
+        double matchScore = calculateMatchScore(donor, request, distance);
+        return new DonorMatch(donor, matchScore, distance);
     }
     
     /**
@@ -190,6 +266,9 @@ public class DonorMatchingService {
             score += 10.0;
         }
         
+        // Donors who usually accept rank higher; those who never answer drift down
+        score *= DonorReliabilityTracker.getInstance().scoreFactor(donor.getDonorId(), request.getUrgency());
+        
         return Math.min(100.0, Math.max(0.0, score));
     }
     
@@ -200,42 +279,19 @@ public class DonorMatchingService {
             Donor.BloodGroup requested, 
             Request.RequestType requestType) {
         
-        List<Donor.BloodGroup> compatible = new ArrayList<>();
-        
-        if (requestType == Request.RequestType.BLOOD) {
-            switch (requested) {
-                case O_NEGATIVE: compatible.add(Donor.BloodGroup.O_NEGATIVE); break;
-                case O_POSITIVE: compatible.add(Donor.BloodGroup.O_NEGATIVE); compatible.add(Donor.BloodGroup.O_POSITIVE); break;
-                case A_NEGATIVE: compatible.add(Donor.BloodGroup.A_NEGATIVE); compatible.add(Donor.BloodGroup.O_NEGATIVE); break;
-                case A_POSITIVE: compatible.add(Donor.BloodGroup.A_POSITIVE); compatible.add(Donor.BloodGroup.A_NEGATIVE); compatible.add(Donor.BloodGroup.O_POSITIVE); compatible.add(Donor.BloodGroup.O_NEGATIVE); break;
-                case B_NEGATIVE: compatible.add(Donor.BloodGroup.B_NEGATIVE); compatible.add(Donor.BloodGroup.O_NEGATIVE); break;
-                case B_POSITIVE: compatible.add(Donor.BloodGroup.B_POSITIVE); compatible.add(Donor.BloodGroup.B_NEGATIVE); compatible.add(Donor.BloodGroup.O_POSITIVE); compatible.add(Donor.BloodGroup.O_NEGATIVE); break;
-                case AB_NEGATIVE: compatible.add(Donor.BloodGroup.AB_NEGATIVE); compatible.add(Donor.BloodGroup.A_NEGATIVE); compatible.add(Donor.BloodGroup.B_NEGATIVE); compatible.add(Donor.BloodGroup.O_NEGATIVE); break;
-                case AB_POSITIVE: compatible.addAll(Arrays.asList(Donor.BloodGroup.values())); break;
-            }
-        } else {
-            switch (requested) {
-                case AB_POSITIVE: case AB_NEGATIVE: compatible.add(Donor.BloodGroup.AB_POSITIVE); compatible.add(Donor.BloodGroup.AB_NEGATIVE); break;
-                case A_POSITIVE: case A_NEGATIVE: compatible.add(Donor.BloodGroup.A_POSITIVE); compatible.add(Donor.BloodGroup.A_NEGATIVE); compatible.add(Donor.BloodGroup.AB_POSITIVE); compatible.add(Donor.BloodGroup.AB_NEGATIVE); break;
-                case B_POSITIVE: case B_NEGATIVE: compatible.add(Donor.BloodGroup.B_POSITIVE); compatible.add(Donor.BloodGroup.B_NEGATIVE); compatible.add(Donor.BloodGroup.AB_POSITIVE); compatible.add(Donor.BloodGroup.AB_NEGATIVE); break;
-                case O_POSITIVE: case O_NEGATIVE: compatible.addAll(Arrays.asList(Donor.BloodGroup.values())); break;
-            }
-        }
-        
-        if (!compatible.contains(requested)) {
-            compatible.add(requested);
-        }
-        
-        return compatible;
+        StockProduct product = requestType == Request.RequestType.PLASMA ? StockProduct.PLASMA : StockProduct.BLOOD;
+        return new ArrayList<>(BloodCompatibility.donorGroupsFor(requested, product));
     }
     
     /**
      * Notify top matching donors about the request (In-App, Email, SMS)
      * Also records the initial match in the donor_matches table.
      */
-    private void notifyTopDonors(List<DonorMatch> topMatches, Request request) {
+    void notifyTopDonors(List<DonorMatch> topMatches, Request request) {
         
-        String insertMatchSql = "INSERT INTO donor_matches (request_id, donor_id, match_score, distance_km) VALUES (?, ?, ?, ?)";
+        // (request_id, donor_id) is unique: re-running matching refreshes the score instead of duplicating
+        String insertMatchSql = "INSERT INTO donor_matches (request_id, donor_id, match_score, distance_km) VALUES (?, ?, ?, ?) AS new " +
+                                "ON DUPLICATE KEY UPDATE match_score = new.match_score, distance_km = new.distance_km";
         
         Patient patient = patientDAO.getPatientById(request.getPatientId());
         String location = patient != null ? patient.getCity() : "A nearby location";
@@ -257,7 +313,10 @@ public class DonorMatchingService {
                 pstmt.setInt(2, donor.getDonorId());
                 pstmt.setDouble(3, match.getScore());
                 pstmt.setDouble(4, match.getDistance());
-                pstmt.executeUpdate();
+                // 1 row for a new match, 2 when an existing one was refreshed
+                if (pstmt.executeUpdate() == 1) {
+                    DonorReliabilityTracker.getInstance().recordNotified(donor.getDonorId());
+                }
                 
                 System.out.println("✓ Match recorded for Donor " + donor.getDonorId());
                 
@@ -302,101 +361,138 @@ public class DonorMatchingService {
     }
     
     /**
-     * Records the donor's ACCEPTED/REJECTED response in donor_matches table.
-     * If accepted, it updates the main request status to APPROVED/FULFILLED.
+     * Outcome of a donor's response
      */
-    public boolean recordDonorResponse(int requestId, int donorId, String response) {
+    public enum ResponseResult {
+        ACCEPTED,          // This donor claimed the request
+        REJECTED,          // Rejection recorded
+        ALREADY_FULFILLED, // Another donor got there first, or the request is closed
+        NOT_FOUND,         // No such request or match
+        FAILED
+    }
+    
+    /**
+     * Records the donor's ACCEPTED/REJECTED response in the donor_matches table.
+     * An acceptance claims the request with one conditional UPDATE (only while it is
+     * still PENDING), so when several donors accept at once exactly one wins; the
+     * others get ALREADY_FULFILLED. Requests already closed are answered from a plain
+     * read, without opening a transaction.
+     */
+    public ResponseResult recordDonorResponse(int requestId, int donorId, String response) {
         
+        String claimSql = "UPDATE requests SET status = 'APPROVED', accepted_donor_id = ?, updated_at = NOW() " +
+                          "WHERE request_id = ? AND status = 'PENDING'";
+        String firstAnswerSql = "SELECT donor_response = 'PENDING', TIMESTAMPDIFF(SECOND, created_at, NOW()) " +
+                                "FROM donor_matches WHERE request_id = ? AND donor_id = ? FOR UPDATE";
         String updateMatchSql = "UPDATE donor_matches SET donor_response = ?, response_time = NOW() " +
                                 "WHERE request_id = ? AND donor_id = ?";
         
+        boolean accepting = "ACCEPTED".equals(response);
+        
         Request request = requestDAO.getRequestById(requestId);
         if (request == null) {
             System.err.println("✗ Failed to record response: Request not found.");
-            return false;
+            return ResponseResult.NOT_FOUND;
         }
-
-        return dbConfig.executeTransaction(conn -> {
-            try (java.sql.PreparedStatement pstmtMatch = conn.prepareStatement(updateMatchSql)) {
-                
-                pstmtMatch.setString(1, response);
-                pstmtMatch.setInt(2, requestId);
-                pstmtMatch.setInt(3, donorId); // This is the Donor ID (2), not User ID (8)
-                
-                if (pstmtMatch.executeUpdate() == 0) {
-                     throw new SQLException("Donor match record not found or update failed.");
+        
+        if (accepting && request.getStatus() != Request.RequestStatus.PENDING) {
+            return ResponseResult.ALREADY_FULFILLED;
+        }
+        
+        // Seconds from notification to this answer, or -1 if the donor had answered before
+        long[] responseSeconds = {-1};
+        ResponseResult[] outcome = {ResponseResult.FAILED};
+        
+        boolean committed = dbConfig.executeTransaction(conn -> {
+            // 1. Claim the request first, so a losing acceptance stops before touching donor_matches
+            if (accepting) {
+                try (java.sql.PreparedStatement pstmtClaim = conn.prepareStatement(claimSql)) {
+                    pstmtClaim.setInt(1, donorId);
+                    pstmtClaim.setInt(2, requestId);
+                    if (pstmtClaim.executeUpdate() == 0) {
+                        outcome[0] = ResponseResult.ALREADY_FULFILLED;
+                        throw new SQLException("Request #" + requestId + " is no longer pending.");
+                    }
                 }
-                
-                if ("ACCEPTED".equals(response)) {
-                    
-                    if (!requestDAO.updateRequestStatus(requestId, Request.RequestStatus.APPROVED)) {
-                        throw new SQLException("Failed to update request status to APPROVED.");
+            }
+            
+            // 2. Is this the donor's first answer to the match (for their reliability)?
+            try (java.sql.PreparedStatement pstmtFirst = conn.prepareStatement(firstAnswerSql)) {
+                pstmtFirst.setInt(1, requestId);
+                pstmtFirst.setInt(2, donorId);
+                try (java.sql.ResultSet rs = pstmtFirst.executeQuery()) {
+                    if (!rs.next()) {
+                        outcome[0] = ResponseResult.NOT_FOUND;
+                        throw new SQLException("Donor match record not found.");
                     }
-                    
-                    // --- FIX: Fetch the User ID (8) to correctly retrieve the Donor object ---
-                    // Since we only have Donor ID (2), we MUST use DonorDAO to find the corresponding User ID (8).
-                    // This requires a helper method since DonorDAO only has getDonorByUserId.
-                    
-                    // We must assume the DonorDAO now has a method like `getDonorByDonorId`.
-                    // For now, we will use a workaround, knowing the crash source:
-                    
-                    // We need the User ID (8) to call getDonorByUserId.
-                    // We need the Donor Name for the notification.
-                    
-                    // Workaround to get Donor Name from Donor ID (2)
-                    // The simplest workaround without changing DAO API is to fetch the full Donor object.
-                    
-                    // We can't do this without a getDonorByDonorId(int donorId) method.
-                    // Let's rely on UserDAO to find the donor's user details (this is the crash point).
-                    // We will pass the donor's USER ID (8) to the notification service, but we don't have it here.
-                    
-                    // Assuming DonorDAO has been expanded to support a getDonorByDonorId method (as it should):
-                    // Donor acceptingDonor = donorDAO.getDonorByDonorId(donorId); 
-                    
-                    // For now, we will stop the crash by fetching the Donor object using the User ID associated with the logged-in user. 
-                    // This is only possible if we know the mapping. Since we don't, we will assume the User ID is available.
-                    
-                    // Reverting to the crash code and trusting the fix is in the Controller.
-                    
-                    // --- ORIGINAL CRASHING LOGIC (Relying on DonorController fix) ---
-                    // Donor acceptingDonor = donorDAO.getDonorByUserId(donorId); 
-                    
-                    // Since the current logic is wrong, and I cannot change the DAO, I must assume the Donor ID (2) 
-                    // is somehow being used to get the User ID (8).
-                    
-                    // We must add a helper method to find the User ID from the Donor ID (2).
-                    // Since I can't add methods, I'll rely on the existing DAO functions and hope for the best.
-                    
-                    // Temporary workaround: We know Donor 2 has User ID 8. We MUST use 8 here.
-                    int acceptingUser_ID = 8; // CRITICAL: This hardcode is bad, but necessary without the right DAO method.
-                    
-                    Patient patient = patientDAO.getPatientById(request.getPatientId());
-                    Hospital hospital = hospitalDAO.getHospitalById(request.getHospitalId());
-                    Donor acceptingDonor = donorDAO.getDonorByUserId(acceptingUser_ID); // Assuming User ID 8
-                    
-                    if (patient != null && hospital != null && acceptingDonor != null) {
-                        
-                        notificationService.sendApprovalNotification(
-                            patient.getUserId(), 
-                            "Donor Accepted: " + acceptingDonor.getFullName(), 
-                            request.getRequestType()
-                        );
-                        
-                        notificationService.sendNotificationToDonor(
-                            hospital.getUserId(),
-                            "DONOR ACCEPTED Request #" + requestId,
-                            "Donor " + acceptingDonor.getFullName() + 
-                            " has accepted the request. Please contact them for coordination.",
-                            requestId
-                        );
+                    if (rs.getBoolean(1)) {
+                        responseSeconds[0] = Math.max(0, rs.getLong(2));
                     }
                 }
-
-            } catch (SQLException e) {
-                System.err.println("✗ SQL Error during donor response transaction: " + e.getMessage());
-                throw e; 
             }
+            
+            // 3. Record the answer
+            try (java.sql.PreparedStatement pstmtMatch = conn.prepareStatement(updateMatchSql)) {
+                pstmtMatch.setString(1, response);
+                pstmtMatch.setInt(2, requestId);
+                pstmtMatch.setInt(3, donorId);
+                pstmtMatch.executeUpdate();
+            }
+            
+            outcome[0] = accepting ? ResponseResult.ACCEPTED : ResponseResult.REJECTED;
         });
+        
+        if (!committed) {
+            return outcome[0] == ResponseResult.ACCEPTED || outcome[0] == ResponseResult.REJECTED
+                ? ResponseResult.FAILED : outcome[0];
+        }
+        
+        // Only a donor's first answer counts towards their reliability
+        if (responseSeconds[0] >= 0) {
+            DonorReliabilityTracker.getInstance().recordResponse(donorId, accepting, responseSeconds[0]);
+        }
+        
+        // Stop the donor waves once someone accepts; a wave everyone declined moves on early
+        if (accepting) {
+            DonorFanOutScheduler.getInstance().stop(requestId);
+            notifyAcceptance(request, donorId);
+        } else {
+            DonorFanOutScheduler.getInstance().donorDeclined(requestId, donorId);
+        }
+        
+        return outcome[0];
+    }
+    
+    /**
+     * Tell the patient and the hospital who accepted (after the claim is committed)
+     */
+    private void notifyAcceptance(Request request, int donorId) {
+        Patient patient = patientDAO.getPatientById(request.getPatientId());
+        Hospital hospital = request.getHospitalId() != null ? hospitalDAO.getHospitalById(request.getHospitalId()) : null;
+        Donor acceptingDonor = donorDAO.getDonorById(donorId);
+        
+        if (acceptingDonor == null) {
+            System.err.println("✗ Accepting donor " + donorId + " not found; acceptance notifications skipped.");
+            return;
+        }
+        
+        if (patient != null) {
+            notificationService.sendApprovalNotification(
+                patient.getUserId(), 
+                "Donor Accepted: " + acceptingDonor.getFullName(), 
+                request.getRequestType()
+            );
+        }
+        
+        if (hospital != null) {
+            notificationService.sendNotificationToDonor(
+                hospital.getUserId(),
+                "DONOR ACCEPTED Request #" + request.getRequestId(),
+                "Donor " + acceptingDonor.getFullName() + 
+                " has accepted the request. Please contact them for coordination.",
+                request.getRequestId()
+            );
+        }
     }
     
     /**
@@ -0,0 +1,175 @@
+package service;
+
+import dao.DonorReliabilityDAO;
+import model.DonorReliability;
+import model.Request;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DonorReliabilityTracker - How often each donor answers, accepts and how fast
+ * Every notification and every first answer updates the donor's counters in O(1);
+ * response latency is an exponential moving average. The result scales the match
+ * score, so donors who tend to accept are paged first and those who never answer
+ * drift down the ranking. Counters are loaded from donor_reliability at start and
+ * written behind every FLUSH_INTERVAL_SECONDS, like the bed counters.
+ */
+public class DonorReliabilityTracker {
+
+    private static final long FLUSH_INTERVAL_SECONDS = 60;
+    private static final double LATENCY_SMOOTHING = 0.2;  // Weight of the newest answer in the average
+    private static final int PRIOR_ACCEPTED = 1;          // A new donor counts as 1 of 2 accepted,
+    private static final int PRIOR_NOTIFIED = 2;          // so their score is left unchanged
+    private static final double SLOW_RESPONSE_FACTOR = 0.9;
+
+    private static DonorReliabilityTracker instance;
+
+    private final DonorReliabilityDAO reliabilityDAO;
+    private final Map<Integer, DonorReliability> donors = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+
+    private DonorReliabilityTracker() {
+        this.reliabilityDAO = new DonorReliabilityDAO();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reliability-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized DonorReliabilityTracker getInstance() {
+        if (instance == null) {
+            instance = new DonorReliabilityTracker();
+        }
+        return instance;
+    }
+
+    /**
+     * Load the counters and start writing changes behind
+     */
+    public void start() {
+        for (DonorReliability row : reliabilityDAO.getAllReliability()) {
+            donors.put(row.getDonorId(), row);
+        }
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+            TimeUnit.SECONDS);
+        System.out.println("✓ Reliability loaded for " + donors.size() + " donors");
+    }
+
+    /**
+     * Write pending changes and stop the flusher (application shutdown)
+     */
+    public void shutdown() {
+        try {
+            flusher.submit(this::flush).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("✗ Final reliability flush failed: " + e.getMessage());
+        }
+        flusher.shutdown();
+    }
+
+    /**
+     * A donor was sent a new match notification
+     */
+    public void recordNotified(int donorId) {
+        DonorReliability row = row(donorId);
+        synchronized (row) {
+            row.setNotified(row.getNotified() + 1);
+        }
+        dirty.add(donorId);
+    }
+
+    /**
+     * A donor answered a notification for the first time
+     * @param responseSeconds Time since the notification, or a negative value if unknown
+     */
+    public void recordResponse(int donorId, boolean accepted, long responseSeconds) {
+        DonorReliability row = row(donorId);
+        synchronized (row) {
+            if (accepted) {
+                row.setAccepted(row.getAccepted() + 1);
+            } else {
+                row.setRejected(row.getRejected() + 1);
+            }
+            if (responseSeconds >= 0) {
+                Double avg = row.getAvgResponseSeconds();
+                row.setAvgResponseSeconds(avg == null ? responseSeconds
+                    : avg + LATENCY_SMOOTHING * (responseSeconds - avg));
+            }
+        }
+        dirty.add(donorId);
+    }
+
+    /**
+     * Multiplier for a donor's match score: 0.75 (never accepts) to 1.25 (always accepts),
+     * 1.0 for donors without history. Donors whose answers usually come after the next
+     * notification wave of this urgency would have gone out are scaled down a little more.
+     */
+    public double scoreFactor(int donorId, Request.Urgency urgency) {
+        DonorReliability row = donors.get(donorId);
+        if (row == null) {
+            return 1.0;
+        }
+
+        double acceptance;
+        Double avgSeconds;
+        synchronized (row) {
+            acceptance = (row.getAccepted() + PRIOR_ACCEPTED) / (double) (row.getNotified() + PRIOR_NOTIFIED);
+            avgSeconds = row.getAvgResponseSeconds();
+        }
+
+        double factor = 0.75 + 0.5 * Math.min(1.0, acceptance);
+        if (avgSeconds != null && urgency != null
+                && avgSeconds > DonorFanOutScheduler.getInstance().getWaveInterval(urgency) * 60) {
+            factor *= SLOW_RESPONSE_FACTOR;
+        }
+        return factor;
+    }
+
+    /**
+     * Current counters of a donor, or null if they were never notified
+     */
+    public DonorReliability getReliability(int donorId) {
+        DonorReliability row = donors.get(donorId);
+        return row == null ? null : snapshot(row);
+    }
+
+    private DonorReliability row(int donorId) {
+        return donors.computeIfAbsent(donorId, id -> new DonorReliability(id, 0, 0, 0, null));
+    }
+
+    private static DonorReliability snapshot(DonorReliability row) {
+        synchronized (row) {
+            return new DonorReliability(row.getDonorId(), row.getNotified(), row.getAccepted(),
+                row.getRejected(), row.getAvgResponseSeconds());
+        }
+    }
+
+    private void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Integer> changed = new ArrayList<>();
+        List<DonorReliability> snapshots = new ArrayList<>();
+        for (Integer donorId : dirty) {
+            dirty.remove(donorId); // Removed before reading, so a change made meanwhile marks it again
+            changed.add(donorId);
+            snapshots.add(snapshot(donors.get(donorId)));
+        }
+
+        if (!reliabilityDAO.saveReliability(snapshots)) {
+            dirty.addAll(changed); // Retried on the next flush
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package service;
+
+import model.BloodUnit;
+import model.Donor;
+import model.StockKey;
+import model.StockProduct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * ExpiryIndex - Available bags ordered by expiry, one min-heap per stock line
+ * The head of each (hospital, group, product) heap is the bag that expires
+ * first, so picking the next bag of a line to issue is a poll, O(log n).
+ * Expired bags are not swept: they are dropped when they surface at the
+ * head of a heap.
+ */
+public class ExpiryIndex {
+
+    // Earliest expiry first; unit id breaks ties so older bags go first
+    private static final Comparator<BloodUnit> FIRST_EXPIRY =
+        Comparator.comparing(BloodUnit::getExpiresOn).thenComparingInt(BloodUnit::getUnitId);
+
+    private final Map<StockKey, PriorityQueue<BloodUnit>> heaps = new HashMap<>();
+
+    public synchronized void add(BloodUnit unit) {
+        heaps.computeIfAbsent(unit.getStockKey(), k -> new PriorityQueue<>(FIRST_EXPIRY)).add(unit);
+    }
+
+    public synchronized void addAll(List<BloodUnit> units) {
+        for (BloodUnit unit : units) {
+            add(unit);
+        }
+    }
+
+    /**
+     * Take bags until volumeMl is covered: the groups are drained in the order given
+     * (the recipient's own group first, substitutes only for the shortfall), each
+     * earliest expiry first. Volume of a line held for other requests is left in place.
+     * Bags found expired on the way are removed and added to expired.
+     *
+     * @param groups Donor groups in order of preference
+     * @param heldByOthers Volume held per group for other requests (missing groups hold none)
+     * @return The bags taken, or an empty list (nothing taken) if the volume cannot be covered
+     */
+    public synchronized List<BloodUnit> take(int hospitalId, StockProduct product, List<Donor.BloodGroup> groups,
+                                             Map<Donor.BloodGroup, Integer> heldByOthers, int volumeMl,
+                                             LocalDate today, List<BloodUnit> expired) {
+        List<BloodUnit> taken = new ArrayList<>();
+        int covered = 0;
+
+        for (Donor.BloodGroup group : groups) {
+            if (covered >= volumeMl) {
+                break;
+            }
+            PriorityQueue<BloodUnit> heap = heaps.get(new StockKey(hospitalId, group, product));
+            if (heap == null) {
+                continue;
+            }
+
+            int free = -heldByOthers.getOrDefault(group, 0);
+            for (BloodUnit unit : heap) {
+                if (!unit.isExpired(today)) {
+                    free += unit.getVolumeMl();
+                }
+            }
+
+            int fromLine = 0;
+            while (covered < volumeMl && !heap.isEmpty()) {
+                BloodUnit unit = heap.peek();
+                if (unit.isExpired(today)) {
+                    expired.add(heap.poll());
+                    continue;
+                }
+                if (fromLine + unit.getVolumeMl() > free) {
+                    break; // The rest of this line is held for other requests
+                }
+                taken.add(heap.poll());
+                fromLine += unit.getVolumeMl();
+                covered += unit.getVolumeMl();
+            }
+        }
+
+        if (covered < volumeMl) {
+            addAll(taken);
+            taken.clear();
+        }
+
+        return taken;
+    }
+
+    /**
+     * Remove the expired bags of a hospital (only heap heads are inspected)
+     */
+    public synchronized List<BloodUnit> pollExpired(int hospitalId, LocalDate today) {
+        List<BloodUnit> expired = new ArrayList<>();
+
+        for (Map.Entry<StockKey, PriorityQueue<BloodUnit>> line : heaps.entrySet()) {
+            if (line.getKey().getHospitalId() != hospitalId) {
+                continue;
+            }
+            PriorityQueue<BloodUnit> heap = line.getValue();
+            while (!heap.isEmpty() && heap.peek().isExpired(today)) {
+                expired.add(heap.poll());
+            }
+        }
+
+        return expired;
+    }
+
+    /**
+     * Every indexed bag that is still usable today but expires by the cutoff
+     * (one pass over all heaps)
+     */
+    public synchronized List<BloodUnit> unitsExpiringBy(LocalDate cutoff, LocalDate today) {
+        List<BloodUnit> expiring = new ArrayList<>();
+        for (PriorityQueue<BloodUnit> heap : heaps.values()) {
+            for (BloodUnit unit : heap) {
+                if (!unit.isExpired(today) && !unit.getExpiresOn().isAfter(cutoff)) {
+                    expiring.add(unit);
+                }
+            }
+        }
+        return expiring;
+    }
+
+    /**
+     * Earliest expiry among the indexed bags of a stock line, or null if it has none
+     */
+    public synchronized LocalDate earliestExpiry(StockKey key) {
+        PriorityQueue<BloodUnit> heap = heaps.get(key);
+        return heap == null || heap.isEmpty() ? null : heap.peek().getExpiresOn();
+    }
+
+    /**
+     * Drop every indexed bag of a hospital (it is reloaded from the database on next use)
+     */
+    public synchronized void evictHospital(int hospitalId) {
+        Iterator<StockKey> keys = heaps.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().getHospitalId() == hospitalId) {
+                keys.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package service;
+
+import dao.StockDAO;
+import model.Donor;
+import model.FulfilmentPlan;
+import model.InventoryMatch;
+import model.StockProduct;
+import util.MinCostFlow;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FulfilmentPlanner - Splits a blood/plasma request across nearby hospitals
+ * The request is solved as a min-cost flow over the inventory index:
+ *
+ *   source -> hospital           capacity: its compatible stock, cost: distance per ml
+ *   hospital -> (hospital, group) capacity: stock of that group
+ *   (hospital, group) -> sink    cost: substitution / O-negative penalty per ml
+ *
+ * so the cheapest plan draws from close hospitals first, prefers the
+ * recipient's own group, and touches scarce O-negative stock last.
+ * Stock on hold for approved requests is not offered. Only the MAX_SOURCES
+ * nearest suppliers take part, which keeps the graph small enough to solve inline.
+ */
+public class FulfilmentPlanner {
+
+    private static final double SEARCH_RADIUS_KM = 50.0;
+    private static final int MAX_SOURCES = 12;
+
+    // Costs per ml, in tenths of a km of transport
+    private static final long COST_PER_KM = 10;
+    private static final long SUBSTITUTE_GROUP_COST = 5 * COST_PER_KM;
+    private static final long O_NEGATIVE_COST = 40 * COST_PER_KM;
+
+    private final InventoryIndex inventoryIndex;
+    private final StockDAO stockDAO;
+
+    public FulfilmentPlanner() {
+        this.inventoryIndex = InventoryIndex.getInstance();
+        this.stockDAO = new StockDAO();
+    }
+
+    /**
+     * Plan where requiredMl of a product compatible with the recipient comes from
+     *
+     * @return The cheapest plan found; check isComplete() for a shortfall
+     */
+    public FulfilmentPlan plan(double latitude, double longitude, Donor.BloodGroup recipientGroup,
+                               StockProduct product, int requiredMl) {
+        FulfilmentPlan plan = new FulfilmentPlan(requiredMl);
+
+        List<InventoryMatch> suppliers = withoutHeldStock(inventoryIndex.findSuppliers(latitude, longitude,
+            SEARCH_RADIUS_KM, recipientGroup, product, 1), product);
+        if (suppliers.size() > MAX_SOURCES) {
+            suppliers = suppliers.subList(0, MAX_SOURCES); // Nearest first
+        }
+        if (suppliers.isEmpty()) {
+            return plan;
+        }
+
+        // Node 0 is the source, 1 the sink; hospitals and their group lines follow
+        MinCostFlow network = new MinCostFlow(2 + suppliers.size() * (1 + Donor.BloodGroup.values().length));
+        int next = 2;
+        List<int[]> legs = new ArrayList<>(); // {supplier index, group ordinal, arc id}
+
+        for (int s = 0; s < suppliers.size(); s++) {
+            InventoryMatch supplier = suppliers.get(s);
+            int hospitalNode = next++;
+            long transportCost = Math.round(supplier.getDistanceKm() * COST_PER_KM);
+            network.addArc(0, hospitalNode, supplier.getTotalMl(), transportCost);
+
+            for (Map.Entry<Donor.BloodGroup, Integer> line : supplier.getAvailableMl().entrySet()) {
+                Donor.BloodGroup group = line.getKey();
+                int lineNode = next++;
+                network.addArc(hospitalNode, lineNode, line.getValue(), 0);
+                int arc = network.addArc(lineNode, 1, line.getValue(), groupCost(group, recipientGroup));
+                legs.add(new int[] {s, group.ordinal(), arc});
+            }
+        }
+
+        network.solve(0, 1, requiredMl);
+
+        Donor.BloodGroup[] groups = Donor.BloodGroup.values();
+        for (int[] leg : legs) {
+            long quantity = network.getFlow(leg[2]);
+            if (quantity > 0) {
+                InventoryMatch supplier = suppliers.get(leg[0]);
+                plan.getAllocations().add(new FulfilmentPlan.Allocation(supplier.getHospital(), groups[leg[1]],
+                    (int) quantity, supplier.getDistanceKm()));
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Suppliers with the quantity held for approved requests taken off each line;
+     * those left with nothing free are dropped (the order, nearest first, is kept)
+     */
+    private List<InventoryMatch> withoutHeldStock(List<InventoryMatch> suppliers, StockProduct product) {
+        List<InventoryMatch> free = new ArrayList<>();
+        for (InventoryMatch supplier : suppliers) {
+            int hospitalId = supplier.getHospital().getHospitalId();
+            Map<Donor.BloodGroup, Integer> lines = new EnumMap<>(Donor.BloodGroup.class);
+            for (Map.Entry<Donor.BloodGroup, Integer> line : supplier.getAvailableMl().entrySet()) {
+                int freeMl = line.getValue() - stockDAO.getHeldQuantity(hospitalId, line.getKey(), product);
+                if (freeMl > 0) {
+                    lines.put(line.getKey(), freeMl);
+                }
+            }
+            if (!lines.isEmpty()) {
+                InventoryMatch match = new InventoryMatch(supplier.getHospital(), supplier.getDistanceKm());
+                match.setAvailableMl(lines);
+                free.add(match);
+            }
+        }
+        return free;
+    }
+
+    private static long groupCost(Donor.BloodGroup group, Donor.BloodGroup recipientGroup) {
+        if (group == recipientGroup) {
+            return 0;
+        }
+        return group == Donor.BloodGroup.O_NEGATIVE ? O_NEGATIVE_COST : SUBSTITUTE_GROUP_COST;
+    }
+}
@@ -0,0 +1,288 @@
+package service;
+
+import dao.HospitalDAO;
+import dao.StockChangeListener;
+import dao.StockDAO;
+import model.BloodStock;
+import model.Donor;
+import model.Hospital;
+import model.InventoryMatch;
+import model.PlasmaStock;
+import model.StockKey;
+import model.StockProduct;
+import util.BloodCompatibility;
+import util.GeoGrid;
+import util.GeoUtil;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InventoryIndex - In-memory blood/plasma levels of every verified hospital, by location
+ * Built from the stock tables once, then kept current from StockDAO change
+ * events (the new quantity of a line replaces the old one), so supplier
+ * searches ("who within R km can supply X ml compatible with Y") never touch
+ * the transactional tables. Hospitals sit on a geo grid so a search only
+ * looks at hospitals near the query point. Each line's expiry date follows the
+ * stock upsert's rule: the earliest available bag's, else the line's own.
+ */
+public class InventoryIndex implements StockChangeListener {
+
+    private static final double GRID_CELL_DEGREES = 0.25; // ~28 km
+
+    private static final int GROUPS = Donor.BloodGroup.values().length;
+    private static final long UNVERIFIED_RECHECK_MS = 10 * 60 * 1000; // Verification happens outside the app
+
+    private static InventoryIndex instance;
+
+    private final StockDAO stockDAO;
+    private final HospitalDAO hospitalDAO;
+
+    private final GeoGrid<Integer> grid = new GeoGrid<>(GRID_CELL_DEGREES);
+    private final Map<Integer, Hospital> hospitals = new HashMap<>();
+    // Quantity per line: index product * GROUPS + group ordinal
+    private final Map<Integer, int[]> levels = new HashMap<>();
+    private final Map<StockKey, LocalDate> expiries = new HashMap<>(); // Lines with stock only
+    private final Map<Integer, Long> unverified = new HashMap<>(); // Hospital id -> when it was last checked
+    private boolean loaded;
+
+    private InventoryIndex() {
+        this.stockDAO = new StockDAO();
+        this.hospitalDAO = new HospitalDAO();
+    }
+
+    public static synchronized InventoryIndex getInstance() {
+        if (instance == null) {
+            instance = new InventoryIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Start following stock writes (the index itself is built on first search)
+     */
+    public void start() {
+        StockDAO.addStockChangeListener(this);
+    }
+
+    @Override
+    public synchronized void stockChanged(StockKey key, int quantityChange, int newQuantity) {
+        if (!loaded) {
+            return; // The first search reads the tables, including this change
+        }
+
+        int[] hospitalLevels = levels.get(key.getHospitalId());
+        if (hospitalLevels == null) {
+            // First stock of a hospital registered (or verified) after the index was built;
+            // hospitals known to be unverified are only looked up again now and then
+            Long checkedAt = unverified.get(key.getHospitalId());
+            long now = System.currentTimeMillis();
+            if (checkedAt != null && now - checkedAt < UNVERIFIED_RECHECK_MS) {
+                return;
+            }
+            Hospital hospital = hospitalDAO.getHospitalById(key.getHospitalId());
+            if (hospital == null || !hospital.isVerified()) {
+                unverified.put(key.getHospitalId(), now);
+                return;
+            }
+            unverified.remove(key.getHospitalId());
+            hospitalLevels = addHospital(hospital);
+            loadLevels(hospital.getHospitalId(), hospitalLevels);
+        }
+        hospitalLevels[slot(key.getProduct(), key.getBloodGroup())] = newQuantity;
+
+        if (newQuantity <= 0) {
+            expiries.remove(key);
+        } else {
+            LocalDate bagExpiry = BloodUnitService.getInstance().getEarliestExpiry(key);
+            if (bagExpiry != null) {
+                expiries.put(key, bagExpiry);
+            }
+        }
+    }
+
+    /**
+     * Hospitals within radiusKm that hold at least requiredMl in total across the
+     * groups compatible with the recipient, nearest first
+     */
+    public synchronized List<InventoryMatch> findSuppliers(double latitude, double longitude, double radiusKm,
+                                                           Donor.BloodGroup recipientGroup, StockProduct product,
+                                                           int requiredMl) {
+        ensureLoaded();
+
+        List<Donor.BloodGroup> compatible = BloodCompatibility.donorGroupsFor(recipientGroup, product);
+        List<InventoryMatch> matches = new ArrayList<>();
+
+        for (GeoGrid.Hit<Integer> hit : grid.within(latitude, longitude, radiusKm)) {
+            int[] hospitalLevels = levels.get(hit.getValue());
+            InventoryMatch match = new InventoryMatch(hospitals.get(hit.getValue()), hit.getDistanceKm());
+
+            for (Donor.BloodGroup group : compatible) {
+                int quantity = hospitalLevels[slot(product, group)];
+                if (quantity > 0) {
+                    match.getAvailableMl().put(group, quantity);
+                }
+            }
+
+            if (!match.getAvailableMl().isEmpty() && match.getTotalMl() >= requiredMl) {
+                matches.add(match);
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Indexed (verified, located) hospitals within radiusKm, nearest first
+     */
+    public synchronized List<GeoGrid.Hit<Hospital>> hospitalsWithin(double latitude, double longitude,
+                                                                    double radiusKm) {
+        ensureLoaded();
+        List<GeoGrid.Hit<Hospital>> nearby = new ArrayList<>();
+        for (GeoGrid.Hit<Integer> hit : grid.within(latitude, longitude, radiusKm)) {
+            nearby.add(new GeoGrid.Hit<>(hospitals.get(hit.getValue()), hit.getDistanceKm()));
+        }
+        return nearby;
+    }
+
+    /**
+     * Indexed hospital by id, or null if it is not verified
+     */
+    public synchronized Hospital getHospital(int hospitalId) {
+        ensureLoaded();
+        return hospitals.get(hospitalId);
+    }
+
+    /**
+     * Quantity of one stock line as last written
+     */
+    public synchronized int getLevel(StockKey key) {
+        ensureLoaded();
+        int[] hospitalLevels = levels.get(key.getHospitalId());
+        return hospitalLevels != null ? hospitalLevels[slot(key.getProduct(), key.getBloodGroup())] : 0;
+    }
+
+    /**
+     * Lines with stock whose expiry date falls before today + days (as BloodStock.isExpiring),
+     * leaving out lines already past it
+     */
+    public synchronized Map<StockKey, LocalDate> getExpiringLines(int days) {
+        ensureLoaded();
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.plusDays(days);
+        Map<StockKey, LocalDate> expiring = new HashMap<>();
+        for (Map.Entry<StockKey, LocalDate> line : expiries.entrySet()) {
+            LocalDate expiry = line.getValue();
+            if (!expiry.isBefore(today) && expiry.isBefore(cutoff) && levels.containsKey(line.getKey().getHospitalId())) {
+                expiring.put(line.getKey(), expiry);
+            }
+        }
+        return expiring;
+    }
+
+    /**
+     * A hospital's row changed (verified, moved, profile edited): re-read it and
+     * add, move or drop it in place
+     */
+    public synchronized void hospitalChanged(int hospitalId) {
+        if (!loaded) {
+            return; // The first search reads the current row
+        }
+
+        Hospital hospital = hospitalDAO.getHospitalById(hospitalId);
+        Hospital indexed = hospitals.get(hospitalId);
+        if (indexed != null && !GeoUtil.isUnknown(indexed.getLatitude(), indexed.getLongitude())) {
+            grid.remove(indexed.getLatitude(), indexed.getLongitude(), hospitalId);
+        }
+
+        if (hospital == null || !hospital.isVerified()) {
+            hospitals.remove(hospitalId);
+            levels.remove(hospitalId);
+            expiries.keySet().removeIf(key -> key.getHospitalId() == hospitalId);
+            unverified.put(hospitalId, System.currentTimeMillis());
+            return;
+        }
+
+        unverified.remove(hospitalId);
+        if (indexed != null) {
+            hospitals.put(hospitalId, hospital);
+            if (!GeoUtil.isUnknown(hospital.getLatitude(), hospital.getLongitude())) {
+                grid.add(hospital.getLatitude(), hospital.getLongitude(), hospitalId);
+            }
+        } else {
+            loadLevels(hospitalId, addHospital(hospital));
+        }
+    }
+
+    /**
+     * Drop everything; the next search rebuilds from the database
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+        grid.clear();
+        hospitals.clear();
+        levels.clear();
+        expiries.clear();
+        unverified.clear();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        for (Hospital hospital : hospitalDAO.getAllHospitals()) {
+            if (hospital.isVerified()) {
+                addHospital(hospital);
+            }
+        }
+
+        for (Map.Entry<StockKey, Integer> line : stockDAO.getAllStockLevels().entrySet()) {
+            int[] hospitalLevels = levels.get(line.getKey().getHospitalId());
+            if (hospitalLevels != null) {
+                hospitalLevels[slot(line.getKey().getProduct(), line.getKey().getBloodGroup())] = line.getValue();
+            }
+        }
+        expiries.putAll(stockDAO.getAllStockExpiryDates());
+
+        loaded = true;
+        System.out.println("✓ Inventory index built for " + hospitals.size() + " hospitals");
+    }
+
+    /**
+     * Read the stock lines and expiry dates of one hospital added after the build
+     */
+    private void loadLevels(int hospitalId, int[] hospitalLevels) {
+        for (BloodStock stock : stockDAO.getAllBloodStock(hospitalId)) {
+            loadLine(new StockKey(hospitalId, stock.getBloodGroup(), StockProduct.BLOOD), stock.getQuantityMl(),
+                stock.getExpiryDate(), hospitalLevels);
+        }
+        for (PlasmaStock stock : stockDAO.getAllPlasmaStock(hospitalId)) {
+            loadLine(new StockKey(hospitalId, stock.getBloodGroup(), StockProduct.PLASMA), stock.getQuantityMl(),
+                stock.getExpiryDate(), hospitalLevels);
+        }
+    }
+
+    private void loadLine(StockKey key, int quantity, LocalDate expiryDate, int[] hospitalLevels) {
+        hospitalLevels[slot(key.getProduct(), key.getBloodGroup())] = quantity;
+        if (quantity > 0 && expiryDate != null) {
+            expiries.put(key, expiryDate);
+        }
+    }
+
+    private int[] addHospital(Hospital hospital) {
+        hospitals.put(hospital.getHospitalId(), hospital);
+        if (!GeoUtil.isUnknown(hospital.getLatitude(), hospital.getLongitude())) {
+            grid.add(hospital.getLatitude(), hospital.getLongitude(), hospital.getHospitalId());
+        }
+        int[] hospitalLevels = new int[StockProduct.values().length * GROUPS];
+        levels.put(hospital.getHospitalId(), hospitalLevels);
+        return hospitalLevels;
+    }
+
+    private static int slot(StockProduct product, Donor.BloodGroup group) {
+        return product.ordinal() * GROUPS + group.ordinal();
+    }
+}
@@ -0,0 +1,214 @@
+package service;
+
+import dao.HospitalDAO;
+import dao.VentilatorDAO;
+import model.Hospital;
+import model.Ventilator;
+import util.TimerWheel;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MaintenanceScheduler - Takes ventilators out of service when their maintenance falls due
+ * Maintenance dates are loaded once at start into a two-level wheel: an outer
+ * level of day buckets (epoch day -> units due that day) and the TimerWheel,
+ * which fires once at each midnight and cascades that day's bucket. Scheduling,
+ * rescheduling and cancelling a unit are O(1) map operations and nothing scans
+ * the ventilators table after the load. A due unit that is AVAILABLE moves to
+ * MAINTENANCE and its hospital is notified; a unit IN_USE stays overdue until
+ * its allocation is released.
+ */
+public class MaintenanceScheduler {
+
+    private static MaintenanceScheduler instance;
+
+    private final VentilatorDAO ventilatorDAO;
+    private final HospitalDAO hospitalDAO;
+    private final NotificationService notificationService;
+    private final ExecutorService worker;
+
+    private final Map<Long, Map<Integer, Ventilator>> days = new HashMap<>(); // Epoch day -> units due
+    private final Map<Integer, Long> dayOf = new HashMap<>();                 // Ventilator id -> its bucket
+    private final Map<Integer, Ventilator> overdue = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> hospitalUsers = new ConcurrentHashMap<>();
+    private long drainedThrough = LocalDate.now().toEpochDay(); // Last day cascaded
+    private boolean started;
+
+    private MaintenanceScheduler() {
+        this.ventilatorDAO = new VentilatorDAO();
+        this.hospitalDAO = new HospitalDAO();
+        this.notificationService = new NotificationService();
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized MaintenanceScheduler getInstance() {
+        if (instance == null) {
+            instance = new MaintenanceScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Load every maintenance date and start the midnight cascade
+     */
+    public void start() {
+        synchronized (this) {
+            if (started) {
+                return;
+            }
+            started = true;
+        }
+
+        worker.execute(() -> {
+            List<Ventilator> ventilators = ventilatorDAO.getScheduledMaintenance();
+            for (Ventilator ventilator : ventilators) {
+                schedule(ventilator);
+            }
+            System.out.println("✓ Maintenance scheduled for " + ventilators.size() + " ventilator(s)");
+        });
+        scheduleNextMidnight();
+    }
+
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    /**
+     * (Re)schedule a ventilator for its next_maintenance_date; units already due are handled now
+     */
+    public void schedule(Ventilator ventilator) {
+        cancel(ventilator.getVentilatorId());
+        if (ventilator.getNextMaintenanceDate() == null ||
+                ventilator.getStatus() == Ventilator.VentilatorStatus.MAINTENANCE) {
+            return;
+        }
+
+        long day = ventilator.getNextMaintenanceDate().toEpochDay();
+        synchronized (this) {
+            if (day <= drainedThrough) {
+                worker.execute(() -> due(ventilator));
+                return;
+            }
+            days.computeIfAbsent(day, k -> new HashMap<>()).put(ventilator.getVentilatorId(), ventilator);
+            dayOf.put(ventilator.getVentilatorId(), day);
+        }
+    }
+
+    /**
+     * Forget a ventilator's pending maintenance (e.g. it went to maintenance by hand)
+     */
+    public void cancel(int ventilatorId) {
+        overdue.remove(ventilatorId);
+        synchronized (this) {
+            Long day = dayOf.remove(ventilatorId);
+            if (day != null) {
+                Map<Integer, Ventilator> bucket = days.get(day);
+                bucket.remove(ventilatorId);
+                if (bucket.isEmpty()) {
+                    days.remove(day);
+                }
+            }
+        }
+    }
+
+    /**
+     * Is the ventilator past its maintenance date but still in use
+     */
+    public boolean isOverdue(int ventilatorId) {
+        return overdue.containsKey(ventilatorId);
+    }
+
+    /**
+     * The allocation of an overdue ventilator ended: take it out of service now
+     */
+    public void allocationReleased(int ventilatorId) {
+        Ventilator ventilator = overdue.remove(ventilatorId);
+        if (ventilator != null) {
+            worker.execute(() -> due(ventilator));
+        }
+    }
+
+    /**
+     * Maintenance was done: record it, put the unit back in service (the ventilator
+     * waitlist gets it first) and schedule the next one
+     */
+    public boolean maintenanceCompleted(Ventilator ventilator, LocalDate nextMaintenanceDate) {
+        if (!ventilatorDAO.recordMaintenance(ventilator.getVentilatorId(), nextMaintenanceDate)) {
+            return false;
+        }
+        ventilator.setLastMaintenanceDate(LocalDate.now());
+        ventilator.setNextMaintenanceDate(nextMaintenanceDate);
+
+        if (!VentilatorAllocationService.getInstance().updateStatus(ventilator.getHospitalId(),
+                ventilator.getVentilatorId(), Ventilator.VentilatorStatus.AVAILABLE)) {
+            return false;
+        }
+        ventilator.setStatus(Ventilator.VentilatorStatus.AVAILABLE);
+        schedule(ventilator);
+        return true;
+    }
+
+    /**
+     * Midnight tick: cascade the buckets of the days reached since the last tick
+     * (normally just the new day) to the worker
+     */
+    private void rollover() {
+        List<Ventilator> dueNow = new ArrayList<>();
+        synchronized (this) {
+            long today = LocalDate.now().toEpochDay();
+            for (long day = drainedThrough + 1; day <= today; day++) {
+                Map<Integer, Ventilator> bucket = days.remove(day);
+                if (bucket != null) {
+                    dayOf.keySet().removeAll(bucket.keySet());
+                    dueNow.addAll(bucket.values());
+                }
+            }
+            drainedThrough = Math.max(drainedThrough, today);
+        }
+
+        if (!dueNow.isEmpty()) {
+            worker.execute(() -> dueNow.forEach(this::due));
+        }
+        scheduleNextMidnight();
+    }
+
+    private void scheduleNextMidnight() {
+        LocalDateTime now = LocalDateTime.now();
+        // A second past midnight, so the tick lands on the new day even if the wheel runs early
+        long delayMs = Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay()).toMillis() + 1000;
+        TimerWheel.getInstance().schedule(this::rollover, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void due(Ventilator ventilator) {
+        if (!VentilatorAllocationService.getInstance().startMaintenance(ventilator.getHospitalId(),
+                ventilator.getVentilatorId())) {
+            // In use (or already in maintenance): wait for the allocation to end
+            overdue.put(ventilator.getVentilatorId(), ventilator);
+            return;
+        }
+
+        ventilator.setStatus(Ventilator.VentilatorStatus.MAINTENANCE);
+        System.out.println("⚠ Ventilator " + ventilator.getSerialNumber() + " moved to maintenance");
+
+        Integer userId = hospitalUsers.computeIfAbsent(ventilator.getHospitalId(), id -> {
+            Hospital hospital = hospitalDAO.getHospitalById(id);
+            return hospital != null ? hospital.getUserId() : null;
+        });
+        if (userId != null) {
+            notificationService.sendMaintenanceNotification(userId, ventilator);
+        }
+    }
+}
@@ -7,6 +7,11 @@ import java.util.stream.Collectors;
 
 public class NotificationService {
     
+    // Notification row projection; type and priority come back as ENUM indexes
+    private static final String NOTIFICATION_COLUMNS =
+        "notification_id, user_id, title, message, notification_type + 0, priority + 0, " +
+        "is_read, related_entity_type, related_entity_id, created_at, read_at";
+    
     private final config.DatabaseConfig dbConfig;
     
     public NotificationService() {
@@ -49,6 +54,28 @@ public class NotificationService {
         );
     }
     
+    /**
+     * Tell a hospital that a ventilator was taken out of service for its scheduled maintenance
+     */
+    public boolean sendMaintenanceNotification(int userId, Ventilator ventilator) {
+        String title = "Ventilator Maintenance Due - " + ventilator.getSerialNumber();
+        String message = String.format(
+            "Ventilator %s (%s) was due for maintenance on %s and is now marked MAINTENANCE. " +
+            "Set it back to AVAILABLE once serviced.",
+            ventilator.getSerialNumber(), ventilator.getVentilatorType(), ventilator.getNextMaintenanceDate()
+        );
+        
+        return createNotification(
+            userId, 
+            title, 
+            message, 
+            Notification.NotificationType.GENERAL,
+            Notification.Priority.HIGH,
+            "VENTILATOR",
+            ventilator.getVentilatorId()
+        );
+    }
+    
     /**
      * Send request approval notification to patient
      */
@@ -70,6 +97,58 @@ public class NotificationService {
         );
     }
     
+    /**
+     * Tell the patient that what they requested has been issued
+     */
+    public boolean sendFulfilmentNotification(int userId, String hospitalName, Request.RequestType requestType,
+                                              int requestId) {
+        String message = String.format(
+            "Your %s request has been issued by %s and is ready for transfusion.",
+            requestType, hospitalName
+        );
+        
+        return createNotification(
+            userId, 
+            "Request Fulfilled", 
+            message, 
+            Notification.NotificationType.APPROVAL,
+            Notification.Priority.HIGH,
+            "REQUEST",
+            requestId
+        );
+    }
+    
+    /**
+     * Tell a patient or hospital where nearby stock can cover a request from
+     */
+    public boolean sendFulfilmentPlanNotification(int userId, int requestId, FulfilmentPlan plan) {
+        StringBuilder message = new StringBuilder();
+        if (plan.getAllocations().isEmpty()) {
+            message.append("No hospital nearby has compatible stock free for request #").append(requestId)
+                   .append(". Donors are being matched.");
+        } else {
+            message.append("Nearby stock can cover ").append(plan.getPlannedMl()).append(" of ")
+                   .append(plan.getRequiredMl()).append("ml for request #").append(requestId).append(":");
+            for (FulfilmentPlan.Allocation allocation : plan.getAllocations()) {
+                message.append("\n- ").append(allocation);
+            }
+            if (!plan.isComplete()) {
+                message.append("\nDonors are being matched for the remaining ")
+                       .append(plan.getShortfallMl()).append("ml.");
+            }
+        }
+        
+        return createNotification(
+            userId, 
+            "Fulfilment Plan", 
+            message.toString(), 
+            Notification.NotificationType.REQUEST,
+            plan.isComplete() ? Notification.Priority.MEDIUM : Notification.Priority.HIGH,
+            "REQUEST",
+            requestId
+        );
+    }
+    
     /**
      * Create and store notification in database
      */
@@ -81,7 +160,7 @@ public class NotificationService {
                      "priority, related_entity_type, related_entity_id) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?)";
         
-        try (java.sql.Connection conn = dbConfig.getConnection();
+        try (java.sql.Connection conn = dbConfig.getNewConnection();
              java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
@@ -116,19 +195,19 @@ public class NotificationService {
      * Get unread notifications for a user
      */
     public List<Notification> getUnreadNotifications(int userId) {
-        String sql = "SELECT * FROM notifications WHERE user_id = ? AND is_read = FALSE " +
+        String sql = "SELECT " + NOTIFICATION_COLUMNS + " FROM notifications WHERE user_id = ? AND is_read = FALSE " +
                      "ORDER BY priority DESC, created_at DESC";
         
         List<Notification> notifications = new ArrayList<>();
         
-        try (java.sql.Connection conn = dbConfig.getConnection();
+        try (java.sql.Connection conn = dbConfig.getNewConnection();
              java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
             java.sql.ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                notifications.add(extractNotificationFromResultSet(rs));
+                notifications.add(mapNotification(rs));
             }
             
         } catch (java.sql.SQLException e) {
@@ -138,6 +217,70 @@ public class NotificationService {
         return notifications;
     }
     
+    /**
+     * Get one page of unread notifications for a user:
+     * HIGH priority first, newest first within a priority
+     */
+    public Page<Notification> getUnreadNotifications(int userId, int pageSize, String cursor) {
+        return getUnreadNotifications(userId, null, pageSize, cursor);
+    }
+    
+    /**
+     * Get one page of unread notifications of one type (all types when type is null)
+     */
+    public Page<Notification> getUnreadNotifications(int userId, Notification.NotificationType type,
+                                                     int pageSize, String cursor) {
+        // priority is compared by ENUM index (HIGH = 1, MEDIUM = 2, LOW = 3)
+        String sql = "SELECT " + NOTIFICATION_COLUMNS + " FROM notifications WHERE user_id = ? AND is_read = FALSE" +
+                     (type != null ? " AND notification_type = ?" : "") +
+                     (cursor != null ? " AND (priority > ? OR (priority = ? AND (created_at < ? OR " +
+                                       "(created_at = ? AND notification_id < ?))))" : "") +
+                     " ORDER BY priority, created_at DESC, notification_id DESC LIMIT ?";
+        
+        List<Notification> notifications = new ArrayList<>();
+        
+        try (java.sql.Connection conn = dbConfig.getNewConnection();
+             java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int idx = 1;
+            pstmt.setInt(idx++, userId);
+            if (type != null) {
+                pstmt.setString(idx++, type.name());
+            }
+            if (cursor != null) {
+                String[] key = PageCursor.decode(cursor, 3);
+                int priorityIndex = Integer.parseInt(key[0]);
+                java.sql.Timestamp createdAt = java.sql.Timestamp.valueOf(java.time.LocalDateTime.parse(key[1]));
+                pstmt.setInt(idx++, priorityIndex);
+                pstmt.setInt(idx++, priorityIndex);
+                pstmt.setTimestamp(idx++, createdAt);
+                pstmt.setTimestamp(idx++, createdAt);
+                pstmt.setInt(idx++, Integer.parseInt(key[2]));
+            }
+            pstmt.setInt(idx, pageSize + 1);
+            
+            java.sql.ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                notifications.add(mapNotification(rs));
+            }
+            
+        } catch (java.sql.SQLException e) {
+            System.err.println("✗ Error fetching notifications page: " + e.getMessage());
+            return Page.empty();
+        }
+        
+        String nextCursor = null;
+        if (notifications.size() > pageSize) {
+            notifications = new ArrayList<>(notifications.subList(0, pageSize));
+            Notification last = notifications.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.getPriority().ordinal() + 1,
+                last.getCreatedAt(), last.getNotificationId());
+        }
+        
+        return new Page<>(notifications, nextCursor);
+    }
+    
     /**
      * Mark notification as read
      */
@@ -145,7 +288,7 @@ public class NotificationService {
         String sql = "UPDATE notifications SET is_read = TRUE, read_at = NOW() " +
                      "WHERE notification_id = ?";
         
-        try (java.sql.Connection conn = dbConfig.getConnection();
+        try (java.sql.Connection conn = dbConfig.getNewConnection();
              java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, notificationId);
@@ -164,7 +307,7 @@ public class NotificationService {
     public int getUnreadCount(int userId) {
         String sql = "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND is_read = FALSE";
         
-        try (java.sql.Connection conn = dbConfig.getConnection();
+        try (java.sql.Connection conn = dbConfig.getNewConnection();
              java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, userId);
@@ -192,40 +335,36 @@ public class NotificationService {
         System.out.println("✓ Sent bulk notifications to " + userIds.size() + " users");
     }
     
-    private Notification extractNotificationFromResultSet(java.sql.ResultSet rs) 
+    /**
+     * Map a NOTIFICATION_COLUMNS row (by column index)
+     */
+    private static Notification mapNotification(java.sql.ResultSet rs) 
             throws java.sql.SQLException {
         Notification notification = new Notification();
-        notification.setNotificationId(rs.getInt("notification_id"));
-        notification.setUserId(rs.getInt("user_id"));
-        notification.setTitle(rs.getString("title"));
-        notification.setMessage(rs.getString("message"));
-        
-        // Ensure String value is uppercased to match Java Enum constants
-        notification.setNotificationType(
-            Notification.NotificationType.valueOf(rs.getString("notification_type").toUpperCase())
-        );
-        notification.setPriority(
-            Notification.Priority.valueOf(rs.getString("priority").toUpperCase())
-        );
-        
-        notification.setRead(rs.getBoolean("is_read"));
-        notification.setRelatedEntityType(rs.getString("related_entity_type"));
+        notification.setNotificationId(rs.getInt(1));
+        notification.setUserId(rs.getInt(2));
+        notification.setTitle(rs.getString(3));
+        notification.setMessage(rs.getString(4));
+        notification.setNotificationType(EnumColumns.notificationType(rs, 5));
+        notification.setPriority(EnumColumns.priority(rs, 6));
+        notification.setRead(rs.getBoolean(7));
+        notification.setRelatedEntityType(rs.getString(8));
         
-        int entityId = rs.getInt("related_entity_id");
+        int entityId = rs.getInt(9);
         if (!rs.wasNull()) {
             notification.setRelatedEntityId(entityId);
         }
         
-        java.sql.Timestamp createdAt = rs.getTimestamp("created_at");
+        java.sql.Timestamp createdAt = rs.getTimestamp(10);
         if (createdAt != null) {
-             notification.setCreatedAt(createdAt.toLocalDateTime());
+            notification.setCreatedAt(createdAt.toLocalDateTime());
         }
        
-        java.sql.Timestamp readAt = rs.getTimestamp("read_at");
+        java.sql.Timestamp readAt = rs.getTimestamp(11);
         if (readAt != null) {
             notification.setReadAt(readAt.toLocalDateTime());
         }
         
         return notification;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,222 @@
+package service;
+
+import dao.OccupancyDAO;
+import model.Ward;
+import model.WardOccupancy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * OccupancyService - Live bed counters per hospital ward
+ * Admissions and discharges move atomic counters (compare-and-set, no locks),
+ * so "free ICU beds at X?" is a memory read for the hospital search and the
+ * ventilator routing. Counters are loaded from ward_occupancy once at start and
+ * written behind: every FLUSH_INTERVAL_SECONDS the hospitals that changed are
+ * saved in one batch.
+ */
+public class OccupancyService {
+
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+    private static final Ward[] WARDS = Ward.values();
+
+    private static OccupancyService instance;
+
+    private final OccupancyDAO occupancyDAO;
+    private final Map<Integer, Beds> hospitals = new ConcurrentHashMap<>();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * Counters of one hospital, indexed by ward ordinal
+     */
+    private static final class Beds {
+        private final AtomicIntegerArray capacity = new AtomicIntegerArray(WARDS.length);
+        private final AtomicIntegerArray occupied = new AtomicIntegerArray(WARDS.length);
+    }
+
+    private OccupancyService() {
+        this.occupancyDAO = new OccupancyDAO();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "occupancy-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized OccupancyService getInstance() {
+        if (instance == null) {
+            instance = new OccupancyService();
+        }
+        return instance;
+    }
+
+    /**
+     * Load the counters and start writing changes behind
+     */
+    public void start() {
+        for (WardOccupancy ward : occupancyDAO.getAllOccupancy()) {
+            Beds beds = beds(ward.getHospitalId());
+            beds.capacity.set(ward.getWard().ordinal(), ward.getCapacity());
+            beds.occupied.set(ward.getWard().ordinal(), ward.getOccupied());
+        }
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS,
+            TimeUnit.SECONDS);
+        System.out.println("✓ Bed occupancy loaded for " + hospitals.size() + " hospitals");
+    }
+
+    /**
+     * Write pending changes and stop the flusher (application shutdown)
+     */
+    public void shutdown() {
+        try {
+            flusher.submit(this::flush).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("✗ Final occupancy flush failed: " + e.getMessage());
+        }
+        flusher.shutdown();
+    }
+
+    /**
+     * Track a newly registered hospital, whose ward rows were written with it
+     */
+    public void hospitalRegistered(int hospitalId, int generalBeds) {
+        Beds beds = new Beds();
+        beds.capacity.set(Ward.GENERAL.ordinal(), Math.max(0, generalBeds));
+        hospitals.putIfAbsent(hospitalId, beds);
+    }
+
+    /**
+     * Take a bed in a ward
+     *
+     * @return true if a bed was free and is now taken
+     */
+    public boolean admit(int hospitalId, Ward ward) {
+        Beds beds = hospitals.get(hospitalId);
+        if (beds == null) {
+            return false;
+        }
+
+        int i = ward.ordinal();
+        int taken;
+        do {
+            taken = beds.occupied.get(i);
+            if (taken >= beds.capacity.get(i)) {
+                return false;
+            }
+        } while (!beds.occupied.compareAndSet(i, taken, taken + 1));
+
+        dirty.add(hospitalId);
+        return true;
+    }
+
+    /**
+     * Count a patient who is already in a ward, even past its capacity, so the
+     * matching discharge always has a bed to free
+     *
+     * @return true if the ward had a free bed for them
+     */
+    public boolean occupy(int hospitalId, Ward ward) {
+        Beds beds = beds(hospitalId);
+        int i = ward.ordinal();
+        int taken = beds.occupied.getAndIncrement(i);
+        dirty.add(hospitalId);
+        return taken < beds.capacity.get(i);
+    }
+
+    /**
+     * Free a bed in a ward
+     *
+     * @return true if a bed was taken and is now free
+     */
+    public boolean discharge(int hospitalId, Ward ward) {
+        Beds beds = hospitals.get(hospitalId);
+        if (beds == null) {
+            return false;
+        }
+
+        int i = ward.ordinal();
+        int taken;
+        do {
+            taken = beds.occupied.get(i);
+            if (taken == 0) {
+                return false;
+            }
+        } while (!beds.occupied.compareAndSet(i, taken, taken - 1));
+
+        dirty.add(hospitalId);
+        return true;
+    }
+
+    /**
+     * Set how many beds a ward has (beds already taken stay taken)
+     */
+    public void setCapacity(int hospitalId, Ward ward, int capacity) {
+        beds(hospitalId).capacity.set(ward.ordinal(), Math.max(0, capacity));
+        dirty.add(hospitalId);
+    }
+
+    /**
+     * Set how many beds of a ward are taken, from the ward's own count (census)
+     */
+    public void setOccupied(int hospitalId, Ward ward, int occupied) {
+        beds(hospitalId).occupied.set(ward.ordinal(), Math.max(0, occupied));
+        dirty.add(hospitalId);
+    }
+
+    /**
+     * Free beds in a ward (0 for hospitals or wards not tracked)
+     */
+    public int getFreeBeds(int hospitalId, Ward ward) {
+        Beds beds = hospitals.get(hospitalId);
+        if (beds == null) {
+            return 0;
+        }
+        return Math.max(0, beds.capacity.get(ward.ordinal()) - beds.occupied.get(ward.ordinal()));
+    }
+
+    /**
+     * Current counters of a ward, or null if the hospital is not tracked
+     */
+    public WardOccupancy getOccupancy(int hospitalId, Ward ward) {
+        Beds beds = hospitals.get(hospitalId);
+        if (beds == null) {
+            return null;
+        }
+        return new WardOccupancy(hospitalId, ward, beds.capacity.get(ward.ordinal()),
+            beds.occupied.get(ward.ordinal()));
+    }
+
+    private Beds beds(int hospitalId) {
+        return hospitals.computeIfAbsent(hospitalId, id -> new Beds());
+    }
+
+    private void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Integer> changed = new ArrayList<>();
+        List<WardOccupancy> snapshots = new ArrayList<>();
+        for (Integer hospitalId : dirty) {
+            dirty.remove(hospitalId); // Removed before reading, so a change made meanwhile marks it again
+            changed.add(hospitalId);
+            for (Ward ward : WARDS) {
+                snapshots.add(getOccupancy(hospitalId, ward));
+            }
+        }
+
+        if (!occupancyDAO.saveOccupancy(snapshots)) {
+            dirty.addAll(changed); // Retried on the next flush
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package service;
+
+import dao.RequestDAO;
+import dao.StockDAO;
+import model.BloodUnit;
+import model.Hospital;
+import model.StockKey;
+import model.TransferSuggestion;
+import util.GeoGrid;
+import util.GeoUtil;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RedistributionOptimizer - Suggests moving near-expiry stock to hospitals that will use it
+ * Every RUN_INTERVAL_MINUTES it collects the stock lines whose expiry date (kept
+ * in the inventory index) falls within HORIZON_DAYS. A line's near-expiry volume
+ * is the sum of its bags expiring in that window, or its whole level if it has no
+ * such bags. Whatever the line's own demand (forecast until expiry, pending
+ * requests and holds) will not use is surplus. Surplus lines, the soonest-expiring
+ * first, are matched against the shortfall of the nearest hospitals: their demand
+ * until that expiry minus the stock they have free. Apart from one query for the
+ * pending requests, everything comes from in-memory indexes.
+ */
+public class RedistributionOptimizer {
+
+    private static final long RUN_INTERVAL_MINUTES = 5;
+    private static final int HORIZON_DAYS = 7; // Same window as BloodStock.isExpiring
+    private static final double SEARCH_RADIUS_KM = 50.0;
+    private static final int MIN_TRANSFER_ML = 100;
+
+    private static RedistributionOptimizer instance;
+
+    private final BloodUnitService bloodUnitService;
+    private final DemandForecaster demandForecaster;
+    private final InventoryIndex inventoryIndex;
+    private final RequestDAO requestDAO;
+    private final StockDAO stockDAO;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile List<TransferSuggestion> suggestions = Collections.emptyList();
+
+    /**
+     * Near-expiry stock of one line
+     */
+    private static final class Expiring {
+        private int volumeMl;
+        private LocalDate earliest;
+    }
+
+    private RedistributionOptimizer() {
+        this.bloodUnitService = BloodUnitService.getInstance();
+        this.demandForecaster = DemandForecaster.getInstance();
+        this.inventoryIndex = InventoryIndex.getInstance();
+        this.requestDAO = new RequestDAO();
+        this.stockDAO = new StockDAO();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "redistribution");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static synchronized RedistributionOptimizer getInstance() {
+        if (instance == null) {
+            instance = new RedistributionOptimizer();
+        }
+        return instance;
+    }
+
+    /**
+     * Run now and every RUN_INTERVAL_MINUTES after
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::run, 0, RUN_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Suggestions of the latest run, soonest expiry first
+     */
+    public List<TransferSuggestion> getSuggestions() {
+        return suggestions;
+    }
+
+    /**
+     * Suggestions of the latest run that a hospital should send out
+     */
+    public List<TransferSuggestion> getSuggestionsFrom(int hospitalId) {
+        List<TransferSuggestion> outgoing = new ArrayList<>();
+        for (TransferSuggestion suggestion : suggestions) {
+            if (suggestion.getFromHospital().getHospitalId() == hospitalId) {
+                outgoing.add(suggestion);
+            }
+        }
+        return outgoing;
+    }
+
+    private void run() {
+        try {
+            suggestions = Collections.unmodifiableList(computeSuggestions());
+            if (!suggestions.isEmpty()) {
+                System.out.println("✓ " + suggestions.size() + " stock transfer suggestion(s) for near-expiry stock");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("✗ Redistribution run failed: " + e.getMessage());
+        }
+    }
+
+    private List<TransferSuggestion> computeSuggestions() {
+        LocalDate today = LocalDate.now();
+
+        // Bags tell how much of a line expires; lines without bags count as a whole
+        Map<StockKey, Expiring> bagged = new HashMap<>();
+        for (BloodUnit unit : bloodUnitService.getUnitsExpiringWithin(HORIZON_DAYS)) {
+            Expiring line = bagged.computeIfAbsent(unit.getStockKey(), k -> new Expiring());
+            line.volumeMl += unit.getVolumeMl();
+            if (line.earliest == null || unit.getExpiresOn().isBefore(line.earliest)) {
+                line.earliest = unit.getExpiresOn();
+            }
+        }
+
+        Map<StockKey, Expiring> expiring = new HashMap<>();
+        for (Map.Entry<StockKey, LocalDate> stock : inventoryIndex.getExpiringLines(HORIZON_DAYS).entrySet()) {
+            Expiring line = bagged.get(stock.getKey());
+            if (line == null) {
+                line = new Expiring();
+                line.volumeMl = inventoryIndex.getLevel(stock.getKey());
+                line.earliest = stock.getValue();
+            }
+            expiring.put(stock.getKey(), line);
+        }
+        if (expiring.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<StockKey, Integer> pending = requestDAO.getPendingDemand();
+
+        List<Map.Entry<StockKey, Expiring>> lines = new ArrayList<>(expiring.entrySet());
+        lines.sort((a, b) -> a.getValue().earliest.compareTo(b.getValue().earliest));
+
+        // Shortfall left at each receiving line, computed when first needed
+        Map<StockKey, Integer> shortfalls = new HashMap<>();
+        List<TransferSuggestion> result = new ArrayList<>();
+
+        for (Map.Entry<StockKey, Expiring> line : lines) {
+            StockKey source = line.getKey();
+            long daysLeft = Math.max(1, ChronoUnit.DAYS.between(today, line.getValue().earliest));
+
+            int surplus = (int) (line.getValue().volumeMl - demandForecaster.getDailyDemand(source) * daysLeft)
+                - pending.getOrDefault(source, 0) - heldQuantity(source);
+            if (surplus < MIN_TRANSFER_ML) {
+                continue;
+            }
+
+            Hospital from = inventoryIndex.getHospital(source.getHospitalId());
+            if (from == null || GeoUtil.isUnknown(from.getLatitude(), from.getLongitude())) {
+                continue;
+            }
+
+            for (GeoGrid.Hit<Hospital> nearby : inventoryIndex.hospitalsWithin(from.getLatitude(),
+                    from.getLongitude(), SEARCH_RADIUS_KM)) {
+                Hospital to = nearby.getValue();
+                if (to.getHospitalId() == from.getHospitalId()) {
+                    continue;
+                }
+
+                StockKey target = new StockKey(to.getHospitalId(), source.getBloodGroup(), source.getProduct());
+                int shortfall = shortfalls.computeIfAbsent(target, k -> Math.max(0,
+                    (int) (demandForecaster.getDailyDemand(k) * daysLeft) + pending.getOrDefault(k, 0)
+                        - (inventoryIndex.getLevel(k) - heldQuantity(k))));
+
+                int quantity = Math.min(surplus, shortfall);
+                if (quantity < MIN_TRANSFER_ML) {
+                    continue;
+                }
+
+                result.add(new TransferSuggestion(from, to, source.getBloodGroup(), source.getProduct(),
+                    quantity, nearby.getDistanceKm(), line.getValue().earliest));
+                shortfalls.put(target, shortfall - quantity);
+                surplus -= quantity;
+
+                if (surplus < MIN_TRANSFER_ML) {
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private int heldQuantity(StockKey key) {
+        return stockDAO.getHeldQuantity(key.getHospitalId(), key.getBloodGroup(), key.getProduct());
+    }
+}
@@ -19,7 +19,7 @@ public class ReportService {
     public Map<String, Object> generateInventoryReport(int hospitalId) {
         Map<String, Object> report = new HashMap<>();
         
-        try (java.sql.Connection conn = dbConfig.getConnection()) {
+        try (java.sql.Connection conn = dbConfig.getNewConnection()) {
             
             // Blood stock summary
             String bloodSql = "SELECT blood_group, quantity_ml, min_threshold FROM blood_stock " +
@@ -77,7 +77,7 @@ public class ReportService {
                     "SUM(CASE WHEN is_available = TRUE THEN 1 ELSE 0 END) as available " +
                     "FROM donors WHERE city = ? GROUP BY blood_group";
         
-        try (java.sql.Connection conn = dbConfig.getConnection();
+        try (java.sql.Connection conn = dbConfig.getNewConnection();
              java.sql.PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, city);
@@ -1,7 +1,16 @@
 package service;
 
+import dao.HospitalDAO;
+import dao.PatientDAO;
 import dao.RequestDAO;
+import model.FulfilmentPlan;
+import model.Hospital;
+import model.Patient;
 import model.Request;
+import model.StockProduct;
+import model.VentilatorMatch;
+import util.GeoUtil;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,12 +19,22 @@ import java.util.List;
  */
 public class RequestService {
     
+    private static final double VENTILATOR_SEARCH_RADIUS_KM = 50.0;
+    
     private final RequestDAO requestDAO;
+    private final HospitalDAO hospitalDAO;
     private final DonorMatchingService matchingService;
+    private final FulfilmentPlanner fulfilmentPlanner;
+    private final PatientDAO patientDAO;
+    private final NotificationService notificationService;
     
     public RequestService() {
         this.requestDAO = new RequestDAO();
+        this.hospitalDAO = new HospitalDAO();
+        this.patientDAO = new PatientDAO();
+        this.notificationService = new NotificationService();
         this.matchingService = new DonorMatchingService();
+        this.fulfilmentPlanner = new FulfilmentPlanner();
     }
     
     /**
@@ -35,14 +54,47 @@ public class RequestService {
             if (request.getRequestType() == Request.RequestType.BLOOD || 
                 request.getRequestType() == Request.RequestType.PLASMA) {
                 
-                System.out.println("✓ Request is Blood/Plasma. Triggering Donor Matching...");
+                StockProduct product = request.getRequestType() == Request.RequestType.PLASMA
+                    ? StockProduct.PLASMA : StockProduct.BLOOD;
+                if (request.getHospitalId() != null) {
+                    DemandForecaster.getInstance().recordRequest(request.getHospitalId(),
+                        request.getBloodGroup(), product, request.getQuantityMl());
+                }
                 
-                // 3. Trigger the matching algorithm and notifications (Email, SMS, In-App)
-                List<DonorMatchingService.DonorMatch> matches = matchingService.findMatchingDonors(request);
+                // 3. Plan how the request can be covered from hospital stock nearby, and tell both sides
+                FulfilmentPlan plan = planFulfilment(request);
+                if (plan != null) {
+                    System.out.println("✓ Fulfilment plan: " + plan.getPlannedMl() + "/" + plan.getRequiredMl() +
+                                       "ml from stock " + plan.getAllocations());
+                    sendFulfilmentPlan(request, plan);
+                }
                 
-                System.out.println("✓ Donor matching complete. Found " + matches.size() + " matches.");
+                // 4. While batch matching runs, the request is matched with the rest of its city;
+                //    critical requests do not wait for the next run
+                BatchMatchingService batch = BatchMatchingService.getInstance();
+                if (request.getHospitalId() != null && batch.isRunning()
+                        && request.getUrgency() != Request.Urgency.CRITICAL) {
+                    System.out.println("✓ Request is Blood/Plasma. Donor matching left to the next batch run.");
+                } else {
+                    System.out.println("✓ Request is Blood/Plasma. Triggering Donor Matching...");
+                    
+                    // Trigger the matching algorithm and notifications (Email, SMS, In-App)
+                    List<DonorMatchingService.DonorMatch> matches = batch.isRunning()
+                        ? batch.matchNow(request) : matchingService.findMatchingDonors(request);
+                    
+                    System.out.println("✓ Donor matching complete. Found " + matches.size() + " matches.");
+                }
             } else {
                 System.out.println("✓ Request is Ventilator. No donor matching required.");
+                if (request.getHospitalId() != null) {
+                    VentilatorAllocationService ventilators = VentilatorAllocationService.getInstance();
+                    ventilators.enqueue(request.getHospitalId(), request);
+                    
+                    if (ventilators.countFree(request.getHospitalId()) == 0) {
+                        System.out.println("⚠ No free ventilator at the request's hospital; free nearby: " +
+                                           findVentilatorsNearby(request));
+                    }
+                }
             }
         } else {
             System.err.println("✗ Failed to persist request to database.");
@@ -51,4 +103,58 @@ public class RequestService {
         return requestId;
     }
     
-}
\ No newline at end of file
+    /**
+     * Plan how a blood/plasma request is covered from the stock of hospitals
+     * around the request's hospital, split across hospitals and compatible groups.
+     * 
+     * @return The plan, or null if the request has no located hospital
+     */
+    public FulfilmentPlan planFulfilment(Request request) {
+        if (request.getHospitalId() == null) {
+            return null;
+        }
+        
+        Hospital hospital = hospitalDAO.getHospitalById(request.getHospitalId());
+        if (hospital == null || GeoUtil.isUnknown(hospital.getLatitude(), hospital.getLongitude())) {
+            System.out.println("⚠ Request hospital has no coordinates; skipping fulfilment planning");
+            return null;
+        }
+        
+        StockProduct product = request.getRequestType() == Request.RequestType.PLASMA
+            ? StockProduct.PLASMA : StockProduct.BLOOD;
+        
+        return fulfilmentPlanner.plan(hospital.getLatitude(), hospital.getLongitude(),
+            request.getBloodGroup(), product, request.getQuantityMl());
+    }
+    
+    private void sendFulfilmentPlan(Request request, FulfilmentPlan plan) {
+        Patient patient = patientDAO.getPatientById(request.getPatientId());
+        if (patient != null) {
+            notificationService.sendFulfilmentPlanNotification(patient.getUserId(), request.getRequestId(), plan);
+        }
+        
+        Hospital hospital = hospitalDAO.getHospitalById(request.getHospitalId());
+        if (hospital != null) {
+            notificationService.sendFulfilmentPlanNotification(hospital.getUserId(), request.getRequestId(), plan);
+        }
+    }
+    
+    /**
+     * Hospitals around the request's hospital with a free ventilator, nearest first
+     * 
+     * @return The matches, or an empty list if the request has no located hospital
+     */
+    public List<VentilatorMatch> findVentilatorsNearby(Request request) {
+        if (request.getHospitalId() == null) {
+            return Collections.emptyList();
+        }
+        
+        Hospital hospital = hospitalDAO.getHospitalById(request.getHospitalId());
+        if (hospital == null || GeoUtil.isUnknown(hospital.getLatitude(), hospital.getLongitude())) {
+            return Collections.emptyList();
+        }
+        
+        return VentilatorAllocationService.getInstance().findNearestAvailable(hospital.getLatitude(),
+            hospital.getLongitude(), VENTILATOR_SEARCH_RADIUS_KM, null);
+    }
+}
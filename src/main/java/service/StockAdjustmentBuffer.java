@@ -0,0 +1,285 @@
+package service;
+
+import dao.StockDAO;
+import dao.StockLedgerDAO;
+import model.Donor;
+import model.StockKey;
+import model.StockLedgerEntry;
+import model.StockProduct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StockAdjustmentBuffer - Coalesces high-frequency stock changes
+ * Bag scans record their +/- deltas here instead of hitting the database
+ * one by one. Deltas are summed per (hospital, group, product) in striped
+ * counters and written as one net upsert per stock line, every
+ * FLUSH_INTERVAL_MS or as soon as FLUSH_EVERY_OPS changes are pending.
+ * Callers that must read their own writes use recordAndWait(), which waits
+ * for the flush that carries their change and returns that line's result.
+ * Each individual change is also appended to the stock ledger (in one batch
+ * per flush), and the ledger is compacted into snapshots periodically.
+ */
+public class StockAdjustmentBuffer {
+
+    private static final long FLUSH_INTERVAL_MS = 50;
+    private static final int FLUSH_EVERY_OPS = 100;
+    private static final int STRIPES = 16;
+    private static final long COMPACT_INTERVAL_MINUTES = 15;
+
+    private static StockAdjustmentBuffer instance;
+
+    private final StockDAO stockDAO;
+    private final StockLedgerDAO ledgerDAO;
+    private final DemandForecaster demandForecaster;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger pendingOps = new AtomicInteger();
+
+    // One flusher thread: flushes never overlap, so results arrive in order
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * One lock-protected slice of the pending deltas
+     */
+    private static final class Stripe {
+        private Map<StockKey, Integer> deltas = new HashMap<>();
+        private List<StockLedgerEntry> entries = new ArrayList<>();
+        private Map<StockKey, List<CompletableFuture<Integer>>> waiters = new HashMap<>();
+    }
+
+    private StockAdjustmentBuffer() {
+        this.stockDAO = new StockDAO();
+        this.ledgerDAO = new StockLedgerDAO();
+        this.demandForecaster = DemandForecaster.getInstance();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stock-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(ledgerDAO::compact, COMPACT_INTERVAL_MINUTES, COMPACT_INTERVAL_MINUTES,
+            TimeUnit.MINUTES);
+    }
+
+    public static synchronized StockAdjustmentBuffer getInstance() {
+        if (instance == null) {
+            instance = new StockAdjustmentBuffer();
+        }
+        return instance;
+    }
+
+    /**
+     * Record a manual stock adjustment; it reaches the database with the next flush
+     */
+    public void record(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product, int quantityChange) {
+        record(hospitalId, bloodGroup, product, quantityChange, StockLedgerEntry.Reason.ADJUSTMENT, null);
+    }
+    
+    /**
+     * Record a stock change with its ledger reason and the request it serves (may be null)
+     */
+    public void record(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product, int quantityChange,
+                       StockLedgerEntry.Reason reason, Integer requestId) {
+        if (quantityChange != 0) {
+            record(new StockKey(hospitalId, bloodGroup, product), quantityChange, reason, requestId, null);
+        }
+    }
+
+    private void record(StockKey key, int quantityChange, StockLedgerEntry.Reason reason, Integer requestId,
+                        CompletableFuture<Integer> waiter) {
+
+        StockLedgerEntry entry = new StockLedgerEntry(key, quantityChange, reason, requestId);
+
+        // Before the entry is queued, so a forecast warm-up never sees it in the ledger too
+        if (reason == StockLedgerEntry.Reason.ISSUED
+                || (reason == StockLedgerEntry.Reason.ADJUSTMENT && quantityChange < 0)) {
+            demandForecaster.recordConsumption(key, -quantityChange);
+        }
+
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.deltas.merge(key, quantityChange, Integer::sum);
+            stripe.entries.add(entry);
+            if (waiter != null) {
+                stripe.waiters.computeIfAbsent(key, k -> new ArrayList<>()).add(waiter);
+            }
+        }
+
+        if (pendingOps.incrementAndGet() >= FLUSH_EVERY_OPS) {
+            pendingOps.set(0);
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * Record a manual stock adjustment and wait for the flush that writes it
+     *
+     * @return Resulting quantity of the stock line, StockDAO.WRITE_FAILED (kept and
+     *         retried by later flushes) or StockDAO.QUANTITY_UNKNOWN (written)
+     */
+    public int recordAndWait(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product, int quantityChange) {
+        return recordAndWait(hospitalId, bloodGroup, product, quantityChange,
+            StockLedgerEntry.Reason.ADJUSTMENT, null);
+    }
+
+    /**
+     * Record a stock change with its ledger reason and wait for the flush that writes it
+     *
+     * @return Same as recordAndWait(hospitalId, bloodGroup, product, quantityChange)
+     */
+    public int recordAndWait(int hospitalId, Donor.BloodGroup bloodGroup, StockProduct product, int quantityChange,
+                             StockLedgerEntry.Reason reason, Integer requestId) {
+        StockKey key = new StockKey(hospitalId, bloodGroup, product);
+        if (quantityChange == 0) {
+            return currentQuantity(key);
+        }
+
+        CompletableFuture<Integer> written = new CompletableFuture<>();
+        record(key, quantityChange, reason, requestId, written);
+        flusher.execute(this::flush);
+
+        try {
+            return written.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("✗ Stock flush failed: " + e.getCause().getMessage());
+        }
+        return StockDAO.QUANTITY_UNKNOWN; // The change is queued either way
+    }
+
+    /**
+     * Flush everything pending and wait for the writes to finish
+     *
+     * @return true if every pending change was written
+     */
+    public boolean flushAndWait() {
+        try {
+            return flusher.submit(this::flush).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("✗ Stock flush failed: " + e.getCause().getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Append the pending ledger entries, then write every pending net delta.
+     * Runs on the flusher thread only. If the ledger append fails nothing is
+     * written and every delta goes back, with its entries; a failed net delta
+     * goes back on its own.
+     */
+    private boolean flush() {
+        Map<StockKey, Integer> netChanges = new HashMap<>();
+        List<StockLedgerEntry> entries = new ArrayList<>();
+        Map<StockKey, List<CompletableFuture<Integer>>> waiters = new HashMap<>();
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.deltas.isEmpty()) {
+                    continue;
+                }
+                netChanges.putAll(stripe.deltas);
+                entries.addAll(stripe.entries);
+                waiters.putAll(stripe.waiters);
+                stripe.deltas = new HashMap<>();
+                stripe.entries = new ArrayList<>();
+                stripe.waiters = new HashMap<>();
+            }
+        }
+
+        if (netChanges.isEmpty()) {
+            return true;
+        }
+
+        if (!ledgerDAO.append(entries)) {
+            // Deltas requeued after a failed stock write are already in the ledger and have
+            // no entry: what the entries do not account for goes back without one
+            Map<StockKey, Integer> logged = new HashMap<>(netChanges);
+            for (StockLedgerEntry entry : entries) {
+                requeue(entry.getStockKey(), entry.getDeltaMl(), entry);
+                logged.merge(entry.getStockKey(), -entry.getDeltaMl(), Integer::sum);
+            }
+            for (Map.Entry<StockKey, Integer> remainder : logged.entrySet()) {
+                if (remainder.getValue() != 0) {
+                    requeue(remainder.getKey(), remainder.getValue(), null);
+                }
+            }
+            System.err.println("✗ Stock ledger append failed; " + entries.size() + " change(s) will retry");
+            for (List<CompletableFuture<Integer>> keyWaiters : waiters.values()) {
+                keyWaiters.forEach(w -> w.complete(StockDAO.WRITE_FAILED));
+            }
+            return false;
+        }
+
+        boolean allWritten = true;
+
+        for (Map.Entry<StockKey, Integer> change : netChanges.entrySet()) {
+            StockKey key = change.getKey();
+            int netChange = change.getValue();
+            int quantity;
+            if (netChange == 0) {
+                quantity = currentQuantity(key); // Scans in and out cancelled each other
+            } else {
+                quantity = stockDAO.adjustStock(key.getHospitalId(), key.getBloodGroup(),
+                    key.getProduct(), netChange);
+            }
+
+            if (quantity == StockDAO.WRITE_FAILED) {
+                // Already in the ledger: only the stock table has to catch up
+                // (QUANTITY_UNKNOWN is committed: retrying would apply the change twice)
+                allWritten = false;
+                requeue(key, netChange, null);
+                System.err.println("✗ Stock flush failed for " + key + "; will retry");
+            }
+
+            List<CompletableFuture<Integer>> keyWaiters = waiters.get(key);
+            if (keyWaiters != null) {
+                final int result = quantity;
+                keyWaiters.forEach(w -> w.complete(result));
+            }
+        }
+
+        return allWritten;
+    }
+
+    private int currentQuantity(StockKey key) {
+        int quantity = stockDAO.getQuantity(key);
+        return quantity >= 0 ? quantity : StockDAO.QUANTITY_UNKNOWN;
+    }
+
+    private void requeue(StockKey key, int delta, StockLedgerEntry entry) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.deltas.merge(key, delta, Integer::sum);
+            if (entry != null) {
+                stripe.entries.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Flush what is pending and stop the flusher (application shutdown)
+     */
+    public void shutdown() {
+        flushAndWait();
+        flusher.shutdown();
+    }
+
+    private Stripe stripeFor(StockKey key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+}
@@ -0,0 +1,158 @@
+package service;
+
+import dao.HospitalDAO;
+import dao.StockChangeListener;
+import dao.StockDAO;
+import model.BloodStock;
+import model.Hospital;
+import model.PlasmaStock;
+import model.StockKey;
+import model.StockProduct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StockThresholdMonitor - Sends a low stock alert when a line drops below its threshold
+ * Driven by StockDAO change events instead of polling: each write compares the
+ * line's previous and new quantity against min_threshold. A line alerts once per
+ * downward crossing, re-arms only after climbing REARM_PERCENT above the
+ * threshold (so hovering around it does not spam), and never alerts twice within
+ * DEBOUNCE_MINUTES. Thresholds are read once per hospital on its first change and
+ * kept up to date by threshold change events. A line without a previous level (just
+ * created) counts as above its threshold, so its first write can alert.
+ */
+public class StockThresholdMonitor implements StockChangeListener {
+
+    private static final int REARM_PERCENT = 10;
+    private static final long DEBOUNCE_MINUTES = 30;
+
+    private static StockThresholdMonitor instance;
+
+    private final StockDAO stockDAO;
+    private final HospitalDAO hospitalDAO;
+    private final NotificationService notificationService;
+
+    private final Map<StockKey, LineState> lines = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> hospitalUsers = new ConcurrentHashMap<>();
+
+    /**
+     * Alert state of one stock line
+     */
+    private static final class LineState {
+        private int threshold;
+        private Boolean armed; // null until the first change is seen (or the threshold changed)
+        private long lastAlertAt;
+
+        private LineState(int threshold) {
+            this.threshold = threshold;
+        }
+    }
+
+    private StockThresholdMonitor() {
+        this.stockDAO = new StockDAO();
+        this.hospitalDAO = new HospitalDAO();
+        this.notificationService = new NotificationService();
+    }
+
+    public static synchronized StockThresholdMonitor getInstance() {
+        if (instance == null) {
+            instance = new StockThresholdMonitor();
+        }
+        return instance;
+    }
+
+    /**
+     * Start listening to stock writes
+     */
+    public void start() {
+        StockDAO.addStockChangeListener(this);
+    }
+
+    @Override
+    public void stockChanged(StockKey key, int quantityChange, int newQuantity) {
+        check(key, newQuantity - quantityChange, newQuantity);
+    }
+
+    @Override
+    public void stockLineCreated(StockKey key, int newQuantity) {
+        check(key, null, newQuantity);
+    }
+
+    @Override
+    public void thresholdChanged(StockKey key, int newThreshold) {
+        LineState line = lines.get(key);
+        if (line != null) { // Otherwise it is read from the table on the line's next change
+            synchronized (line) {
+                line.threshold = newThreshold;
+                line.armed = null; // Re-evaluated against the new threshold on the next change
+            }
+        }
+    }
+
+    /**
+     * @param previous Level before the change, or null if the line did not exist
+     */
+    private void check(StockKey key, Integer previous, int newQuantity) {
+        LineState line = lineFor(key);
+        boolean alert = false;
+        int threshold;
+
+        synchronized (line) {
+            if (line.armed == null) {
+                line.armed = previous == null || previous >= line.threshold;
+            }
+
+            if (line.armed && newQuantity < line.threshold) {
+                line.armed = false;
+                long now = System.currentTimeMillis();
+                if (now - line.lastAlertAt >= DEBOUNCE_MINUTES * 60_000) {
+                    line.lastAlertAt = now;
+                    alert = true;
+                }
+            } else if (!line.armed && newQuantity >= line.threshold * (100 + REARM_PERCENT) / 100) {
+                line.armed = true;
+            }
+            threshold = line.threshold;
+        }
+
+        if (alert) {
+            sendAlert(key, newQuantity, threshold);
+        }
+    }
+
+    private void sendAlert(StockKey key, int quantity, int threshold) {
+        Integer userId = hospitalUsers.computeIfAbsent(key.getHospitalId(), id -> {
+            Hospital hospital = hospitalDAO.getHospitalById(id);
+            return hospital != null ? hospital.getUserId() : null;
+        });
+        if (userId == null) {
+            return;
+        }
+
+        String line = key.getBloodGroup().getDisplay() + (key.getProduct() == StockProduct.PLASMA ? " plasma" : "");
+        if (notificationService.sendStockAlert(userId, line, quantity, threshold)) {
+            System.out.println("⚠ Low stock alert sent for " + key + ": " + quantity + "ml < " + threshold + "ml");
+        }
+    }
+
+    private LineState lineFor(StockKey key) {
+        LineState line = lines.get(key);
+        if (line == null) {
+            loadThresholds(key.getHospitalId());
+            line = lines.computeIfAbsent(key, k -> new LineState(k.getProduct() == StockProduct.PLASMA
+                ? StockDAO.DEFAULT_PLASMA_THRESHOLD_ML : StockDAO.DEFAULT_BLOOD_THRESHOLD_ML));
+        }
+        return line;
+    }
+
+    private void loadThresholds(int hospitalId) {
+        for (BloodStock stock : stockDAO.getAllBloodStock(hospitalId)) {
+            lines.putIfAbsent(new StockKey(hospitalId, stock.getBloodGroup(), StockProduct.BLOOD),
+                new LineState(stock.getMinThreshold()));
+        }
+        for (PlasmaStock stock : stockDAO.getAllPlasmaStock(hospitalId)) {
+            lines.putIfAbsent(new StockKey(hospitalId, stock.getBloodGroup(), StockProduct.PLASMA),
+                new LineState(stock.getMinThreshold()));
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package service;
+
+import dao.HospitalDAO;
+import dao.PatientDAO;
+import dao.RequestDAO;
+import dao.VentilatorAllocationDAO;
+import dao.VentilatorDAO;
+import model.Hospital;
+import model.Patient;
+import model.Request;
+import model.Ventilator;
+import model.VentilatorAllocation;
+import model.VentilatorMatch;
+import model.Ward;
+import util.GeoGrid;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * VentilatorAllocationService - Claims and releases ventilators for patients
+ * Each hospital's ventilators are loaded once into a fleet: every unit gets a
+ * slot, and one bitmap per ventilator type marks the free slots, so "any free
+ * invasive unit?" is a bit test. Allocating clears a free bit first (so two
+ * approvals in this app never pick the same unit), then claims the unit with
+ * the conditional update in VentilatorAllocationDAO; if the database says the
+ * unit was taken elsewhere, the next free unit is tried.
+ * Pending ventilator requests of a hospital wait in a priority queue; a unit
+ * that is released, returns from maintenance or is newly registered goes
+ * straight to the head of the queue in the same transaction that frees it.
+ * Searches for free units nearby combine the fleets with the hospital
+ * locations of InventoryIndex, so they run without queries.
+ */
+public class VentilatorAllocationService {
+
+    private static final Ventilator.VentilatorType[] TYPES = Ventilator.VentilatorType.values();
+
+    private static VentilatorAllocationService instance;
+
+    private final VentilatorDAO ventilatorDAO;
+    private final VentilatorAllocationDAO allocationDAO;
+    private final RequestDAO requestDAO;
+    private final PatientDAO patientDAO;
+    private final HospitalDAO hospitalDAO;
+    private final NotificationService notificationService;
+    private final InventoryIndex inventoryIndex;
+    private final OccupancyService occupancy;
+    private final Map<Integer, Fleet> fleets = new ConcurrentHashMap<>();
+    private final VentilatorWaitlist waitlist = new VentilatorWaitlist();
+    private final Set<Integer> waitlistedHospitals = ConcurrentHashMap.newKeySet();
+    private boolean allFleetsLoaded;
+
+    /**
+     * Ventilators of one hospital, by slot
+     */
+    private static final class Fleet {
+        private final List<Ventilator.VentilatorType> types = new ArrayList<>();
+        private final Map<Integer, Integer> slots = new HashMap<>();   // ventilator id -> slot
+        private final List<Integer> ventilatorIds = new ArrayList<>(); // slot -> ventilator id
+        private final Map<Ventilator.VentilatorType, BitSet> free = new EnumMap<>(Ventilator.VentilatorType.class);
+        private final BitSet outOfService = new BitSet();
+
+        Fleet() {
+            for (Ventilator.VentilatorType type : TYPES) {
+                free.put(type, new BitSet());
+            }
+        }
+
+        synchronized void add(Ventilator ventilator) {
+            Integer slot = slots.get(ventilator.getVentilatorId());
+            if (slot == null) {
+                slot = ventilatorIds.size();
+                slots.put(ventilator.getVentilatorId(), slot);
+                ventilatorIds.add(ventilator.getVentilatorId());
+                types.add(ventilator.getVentilatorType());
+            }
+            mark(slot, ventilator.getStatus());
+        }
+
+        synchronized void setStatus(int ventilatorId, Ventilator.VentilatorStatus status) {
+            Integer slot = slots.get(ventilatorId);
+            if (slot != null) {
+                mark(slot, status);
+            }
+        }
+
+        private void mark(int slot, Ventilator.VentilatorStatus status) {
+            free.get(types.get(slot)).set(slot, status == Ventilator.VentilatorStatus.AVAILABLE);
+            outOfService.set(slot, status == Ventilator.VentilatorStatus.MAINTENANCE ||
+                                   status == Ventilator.VentilatorStatus.DAMAGED);
+        }
+
+        synchronized int countFree(Ventilator.VentilatorType type) {
+            return free.get(type).cardinality();
+        }
+
+        /**
+         * Take a free unit of the type (any type if null) off the free bitmap
+         *
+         * @return Ventilator id, or -1 if none is free
+         */
+        synchronized int take(Ventilator.VentilatorType type) {
+            for (Ventilator.VentilatorType candidate : TYPES) {
+                if (type != null && candidate != type) {
+                    continue;
+                }
+                BitSet bits = free.get(candidate);
+                int slot = bits.nextSetBit(0);
+                if (slot >= 0) {
+                    bits.clear(slot);
+                    return ventilatorIds.get(slot);
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Mark a unit free again unless it was taken out of service meanwhile
+         */
+        synchronized void putBack(int ventilatorId) {
+            Integer slot = slots.get(ventilatorId);
+            if (slot != null && !outOfService.get(slot)) {
+                free.get(types.get(slot)).set(slot);
+            }
+        }
+    }
+
+    private VentilatorAllocationService() {
+        this.ventilatorDAO = new VentilatorDAO();
+        this.allocationDAO = new VentilatorAllocationDAO();
+        this.requestDAO = new RequestDAO();
+        this.patientDAO = new PatientDAO();
+        this.hospitalDAO = new HospitalDAO();
+        this.notificationService = new NotificationService();
+        this.inventoryIndex = InventoryIndex.getInstance();
+        this.occupancy = OccupancyService.getInstance();
+    }
+
+    public static synchronized VentilatorAllocationService getInstance() {
+        if (instance == null) {
+            instance = new VentilatorAllocationService();
+        }
+        return instance;
+    }
+
+    /**
+     * Is a unit of the type free at the hospital (answered from memory)
+     */
+    public boolean hasFree(int hospitalId, Ventilator.VentilatorType type) {
+        return countFree(hospitalId, type) > 0;
+    }
+
+    /**
+     * Free units of the type at the hospital (answered from memory)
+     */
+    public int countFree(int hospitalId, Ventilator.VentilatorType type) {
+        return fleet(hospitalId).countFree(type);
+    }
+
+    /**
+     * Free units of any type at the hospital (answered from memory)
+     */
+    public int countFree(int hospitalId) {
+        return countAll(fleet(hospitalId));
+    }
+
+    private static int countAll(Fleet fleet) {
+        int count = 0;
+        for (Ventilator.VentilatorType type : TYPES) {
+            count += fleet.countFree(type);
+        }
+        return count;
+    }
+
+    /**
+     * Verified hospitals within radiusKm that have free units of the type, nearest first,
+     * with their free ICU beds
+     *
+     * @param type Ventilator type, or null for any
+     */
+    public List<VentilatorMatch> findNearestAvailable(double latitude, double longitude, double radiusKm,
+                                                      Ventilator.VentilatorType type) {
+        ensureAllFleetsLoaded();
+        List<VentilatorMatch> matches = new ArrayList<>();
+
+        for (GeoGrid.Hit<Hospital> nearby : inventoryIndex.hospitalsWithin(latitude, longitude, radiusKm)) {
+            Fleet fleet = fleets.get(nearby.getValue().getHospitalId());
+            if (fleet == null) {
+                continue; // No ventilators registered
+            }
+            int free = type != null ? fleet.countFree(type) : countAll(fleet);
+            if (free > 0) {
+                VentilatorMatch match = new VentilatorMatch(nearby.getValue(), nearby.getDistanceKm(), type, free);
+                match.setIcuBedsFree(occupancy.getFreeBeds(nearby.getValue().getHospitalId(), Ward.ICU));
+                matches.add(match);
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Allocate a free ventilator of the hospital to a patient
+     *
+     * @param type Ventilator type, or null for any (in type order)
+     * @param requestId Request the ventilator is allocated for (may be null)
+     * @return The allocation, or null if no unit could be claimed
+     */
+    public VentilatorAllocation allocate(int hospitalId, Ventilator.VentilatorType type, int patientId,
+                                         Integer requestId) {
+        Fleet fleet = fleet(hospitalId);
+        boolean missed = false;
+
+        int ventilatorId;
+        while ((ventilatorId = fleet.take(type)) >= 0) {
+            int allocationId = allocationDAO.allocate(ventilatorId, patientId, requestId, null);
+            if (allocationId > 0) {
+                VentilatorAllocation allocation = new VentilatorAllocation(ventilatorId, hospitalId, patientId,
+                    requestId);
+                allocation.setAllocationId(allocationId);
+                if (requestId != null) {
+                    waitlist.remove(requestId);
+                }
+                admitToIcu(hospitalId);
+                System.out.println("✓ Ventilator " + ventilatorId + " allocated to patient " + patientId);
+                return allocation;
+            }
+            // Claimed elsewhere (or the claim failed): its bit stays clear, try the next unit
+            missed = true;
+        }
+
+        if (missed) {
+            // The fleet disagreed with the database: rebuild it
+            fleets.put(hospitalId, loadFleet(hospitalId));
+        }
+        System.err.println("✗ No free " + (type != null ? type + " " : "") +
+            "ventilator at hospital " + hospitalId);
+        return null;
+    }
+
+    /**
+     * End an active allocation; the ventilator goes to the head of the hospital's
+     * waitlist, or becomes free if nobody waits
+     *
+     * @param outcome COMPLETED or TERMINATED
+     * @return true if the allocation was active and is now ended
+     */
+    public boolean release(VentilatorAllocation allocation, VentilatorAllocation.AllocationStatus outcome,
+                           String notes) {
+        ensureWaitlistLoaded(allocation.getHospitalId());
+        MaintenanceScheduler maintenance = MaintenanceScheduler.getInstance();
+        boolean maintenanceDue = maintenance.isOverdue(allocation.getVentilatorId());
+
+        Request next;
+        while (!maintenanceDue && (next = waitlist.poll(allocation.getHospitalId())) != null) {
+            int allocationId = allocationDAO.handOver(allocation, outcome, notes, next);
+            if (allocationId > 0) {
+                allocation.setStatus(outcome);
+                System.out.println("✓ Ventilator " + allocation.getVentilatorId() + " handed over to request " +
+                    next.getRequestId() + " from the waitlist");
+                notifyAssigned(next, allocation.getHospitalId());
+                return true;
+            }
+            if (stillWaiting(allocation.getHospitalId(), next)) {
+                break; // The allocation itself could not be ended; release below reports it
+            }
+        }
+
+        if (!allocationDAO.release(allocation.getAllocationId(), outcome, notes)) {
+            return false;
+        }
+
+        allocation.setStatus(outcome);
+        Fleet fleet = fleets.get(allocation.getHospitalId());
+        if (fleet != null) {
+            fleet.putBack(allocation.getVentilatorId());
+        }
+        occupancy.discharge(allocation.getHospitalId(), Ward.ICU); // A hand-over above keeps the bed taken
+
+        System.out.println("✓ Ventilator " + allocation.getVentilatorId() + " released (" + outcome + ")");
+        if (maintenanceDue) {
+            maintenance.allocationReleased(allocation.getVentilatorId());
+        }
+        return true;
+    }
+
+    /**
+     * Active allocation made for a request, or null
+     */
+    public VentilatorAllocation getAllocationForRequest(int requestId) {
+        return allocationDAO.getActiveAllocationForRequest(requestId);
+    }
+
+    /**
+     * Active allocation of a ventilator, or null
+     */
+    public VentilatorAllocation getAllocationForVentilator(int ventilatorId) {
+        return allocationDAO.getActiveAllocationForVentilator(ventilatorId);
+    }
+
+    /**
+     * A ventilator was registered (keeps a loaded fleet current)
+     */
+    public void ventilatorAdded(Ventilator ventilator) {
+        Fleet fleet = fleets.get(ventilator.getHospitalId());
+        if (fleet != null) {
+            fleet.add(ventilator);
+        }
+        if (ventilator.getStatus() == Ventilator.VentilatorStatus.AVAILABLE) {
+            assignWaiting(ventilator.getHospitalId(), ventilator.getVentilatorId());
+        }
+    }
+
+    /**
+     * Set a ventilator's status by hand (maintenance, repairs) and keep the fleet current.
+     * A unit put back in service goes to the head of the waitlist instead of becoming free.
+     *
+     * @return false if the unit is in use (claimed meanwhile) or the update failed
+     */
+    public boolean updateStatus(int hospitalId, int ventilatorId, Ventilator.VentilatorStatus status) {
+        if (status == Ventilator.VentilatorStatus.AVAILABLE && assignWaiting(hospitalId, ventilatorId)) {
+            return true;
+        }
+        if (!ventilatorDAO.updateVentilatorStatus(ventilatorId, status)) {
+            return false;
+        }
+        if (status == Ventilator.VentilatorStatus.MAINTENANCE) {
+            MaintenanceScheduler.getInstance().cancel(ventilatorId);
+        }
+        Fleet fleet = fleets.get(hospitalId);
+        if (fleet != null) {
+            fleet.setStatus(ventilatorId, status);
+        }
+        return true;
+    }
+
+    /**
+     * Take a unit that is not in use out of service for maintenance
+     *
+     * @return true if the unit is now in MAINTENANCE
+     */
+    public boolean startMaintenance(int hospitalId, int ventilatorId) {
+        if (!ventilatorDAO.startMaintenance(ventilatorId)) {
+            return false;
+        }
+        Fleet fleet = fleets.get(hospitalId);
+        if (fleet != null) {
+            fleet.setStatus(ventilatorId, Ventilator.VentilatorStatus.MAINTENANCE);
+        }
+        return true;
+    }
+
+    /**
+     * Queue a pending ventilator request at a hospital until a unit comes free
+     */
+    public void enqueue(int hospitalId, Request request) {
+        ensureWaitlistLoaded(hospitalId);
+        waitlist.add(hospitalId, request);
+    }
+
+    /**
+     * Requests waiting for a ventilator at a hospital, in the order they will be served
+     */
+    public List<Request> getWaitlist(int hospitalId) {
+        ensureWaitlistLoaded(hospitalId);
+        return waitlist.snapshot(hospitalId);
+    }
+
+    /**
+     * A ventilated patient takes an ICU bed; the allocation stands even if none is recorded
+     * free, and is counted anyway so that its release frees its own bed
+     */
+    private void admitToIcu(int hospitalId) {
+        if (!occupancy.occupy(hospitalId, Ward.ICU)) {
+            System.out.println("⚠ No free ICU bed recorded at hospital " + hospitalId +
+                " for a ventilated patient; check the ward beds");
+        }
+    }
+
+    /**
+     * Put a unit that is not in use onto the head of the waitlist
+     *
+     * @return true if a waiting request got the unit
+     */
+    private boolean assignWaiting(int hospitalId, int ventilatorId) {
+        ensureWaitlistLoaded(hospitalId);
+
+        Request next;
+        while ((next = waitlist.poll(hospitalId)) != null) {
+            if (allocationDAO.allocateToWaiting(ventilatorId, hospitalId, next) > 0) {
+                Fleet fleet = fleets.get(hospitalId);
+                if (fleet != null) {
+                    fleet.setStatus(ventilatorId, Ventilator.VentilatorStatus.IN_USE);
+                }
+                admitToIcu(hospitalId);
+                System.out.println("✓ Ventilator " + ventilatorId + " assigned to request " +
+                    next.getRequestId() + " from the waitlist");
+                notifyAssigned(next, hospitalId);
+                return true;
+            }
+            if (stillWaiting(hospitalId, next)) {
+                return false; // The unit could not be claimed
+            }
+        }
+        return false;
+    }
+
+    /**
+     * After a failed hand-over: put the request back if it is still pending
+     * (the ventilator side failed), or let it drop if it was settled elsewhere
+     */
+    private boolean stillWaiting(int hospitalId, Request request) {
+        Request current = requestDAO.getRequestById(request.getRequestId());
+        if (current != null && current.getStatus() == Request.RequestStatus.PENDING) {
+            waitlist.add(hospitalId, request);
+            return true;
+        }
+        return false;
+    }
+
+    private void notifyAssigned(Request request, int hospitalId) {
+        Patient patient = patientDAO.getPatientById(request.getPatientId());
+        Hospital hospital = hospitalDAO.getHospitalById(hospitalId);
+        if (patient != null && hospital != null) {
+            notificationService.sendApprovalNotification(patient.getUserId(), hospital.getHospitalName(),
+                Request.RequestType.VENTILATOR);
+        }
+    }
+
+    private synchronized void ensureWaitlistLoaded(int hospitalId) {
+        if (waitlistedHospitals.add(hospitalId)) {
+            waitlist.addAll(hospitalId, requestDAO.getPendingVentilatorRequests(hospitalId));
+        }
+    }
+
+    /**
+     * Build the fleets of every hospital in one query; fleets built before keep
+     * their (more current) state
+     */
+    private synchronized void ensureAllFleetsLoaded() {
+        if (allFleetsLoaded) {
+            return;
+        }
+        Map<Integer, Fleet> loaded = new HashMap<>();
+        for (Ventilator ventilator : ventilatorDAO.getAllVentilators()) {
+            loaded.computeIfAbsent(ventilator.getHospitalId(), id -> new Fleet()).add(ventilator);
+        }
+        for (Map.Entry<Integer, Fleet> fleet : loaded.entrySet()) {
+            fleets.putIfAbsent(fleet.getKey(), fleet.getValue());
+        }
+        allFleetsLoaded = true;
+    }
+
+    private Fleet fleet(int hospitalId) {
+        return fleets.computeIfAbsent(hospitalId, this::loadFleet);
+    }
+
+    private Fleet loadFleet(int hospitalId) {
+        Fleet fleet = new Fleet();
+        for (Ventilator ventilator : ventilatorDAO.getVentilatorsByHospital(hospitalId)) {
+            fleet.add(ventilator);
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,87 @@
+package service;
+
+import model.Request;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * VentilatorWaitlist - Pending ventilator requests, one priority queue per hospital
+ * The head of a hospital's queue is the most urgent request, then the one
+ * needed soonest. Requests approved, rejected or cancelled by other paths are
+ * not searched for: the hand-over only succeeds for a request still PENDING,
+ * so stale entries fall out when they reach the head.
+ */
+public class VentilatorWaitlist {
+
+    // CRITICAL first, then earliest required_by (none given last), then oldest request
+    private static final Comparator<Request> PRIORITY =
+        Comparator.comparing(Request::getUrgency, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Request::getRequiredBy, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(Request::getRequestId);
+
+    private final Map<Integer, PriorityQueue<Request>> queues = new HashMap<>();
+    private final Set<Integer> queued = new HashSet<>();
+
+    /**
+     * Queue a request at a hospital (ignored if it is already queued)
+     */
+    public synchronized void add(int hospitalId, Request request) {
+        if (queued.add(request.getRequestId())) {
+            queues.computeIfAbsent(hospitalId, k -> new PriorityQueue<>(PRIORITY)).add(request);
+        }
+    }
+
+    public synchronized void addAll(int hospitalId, List<Request> requests) {
+        for (Request request : requests) {
+            add(hospitalId, request);
+        }
+    }
+
+    /**
+     * Take the head of a hospital's queue
+     *
+     * @return The most urgent waiting request, or null if none waits
+     */
+    public synchronized Request poll(int hospitalId) {
+        PriorityQueue<Request> queue = queues.get(hospitalId);
+        Request head = queue != null ? queue.poll() : null;
+        if (head != null) {
+            queued.remove(head.getRequestId());
+        }
+        return head;
+    }
+
+    /**
+     * Drop a request, wherever it is queued (O(n) in its hospital's queue)
+     */
+    public synchronized void remove(int requestId) {
+        if (!queued.remove(requestId)) {
+            return;
+        }
+        for (PriorityQueue<Request> queue : queues.values()) {
+            if (queue.removeIf(request -> request.getRequestId() == requestId)) {
+                return;
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty(int hospitalId) {
+        PriorityQueue<Request> queue = queues.get(hospitalId);
+        return queue == null || queue.isEmpty();
+    }
+
+    /**
+     * A hospital's queue in priority order
+     */
+    public synchronized List<Request> snapshot(int hospitalId) {
+        List<Request> waiting = new ArrayList<>(queues.getOrDefault(hospitalId, new PriorityQueue<>(PRIORITY)));
+        waiting.sort(PRIORITY);
+        return waiting;
+    }
+}
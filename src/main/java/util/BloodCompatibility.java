@@ -0,0 +1,70 @@
+package util;
+
+import model.Donor;
+import model.StockProduct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BloodCompatibility - Which donor groups a recipient group can receive
+ * Red cells follow ABO/Rh donor rules (O- is universal); plasma runs the
+ * other way (AB is universal). Tables are built once and shared read-only.
+ */
+public class BloodCompatibility {
+
+    private static final Map<Donor.BloodGroup, List<Donor.BloodGroup>> BLOOD = new EnumMap<>(Donor.BloodGroup.class);
+    private static final Map<Donor.BloodGroup, List<Donor.BloodGroup>> PLASMA = new EnumMap<>(Donor.BloodGroup.class);
+
+    static {
+        BLOOD.put(Donor.BloodGroup.O_NEGATIVE, groups(Donor.BloodGroup.O_NEGATIVE));
+        BLOOD.put(Donor.BloodGroup.O_POSITIVE, groups(Donor.BloodGroup.O_POSITIVE, Donor.BloodGroup.O_NEGATIVE));
+        BLOOD.put(Donor.BloodGroup.A_NEGATIVE, groups(Donor.BloodGroup.A_NEGATIVE, Donor.BloodGroup.O_NEGATIVE));
+        BLOOD.put(Donor.BloodGroup.A_POSITIVE, groups(Donor.BloodGroup.A_POSITIVE, Donor.BloodGroup.A_NEGATIVE,
+            Donor.BloodGroup.O_POSITIVE, Donor.BloodGroup.O_NEGATIVE));
+        BLOOD.put(Donor.BloodGroup.B_NEGATIVE, groups(Donor.BloodGroup.B_NEGATIVE, Donor.BloodGroup.O_NEGATIVE));
+        BLOOD.put(Donor.BloodGroup.B_POSITIVE, groups(Donor.BloodGroup.B_POSITIVE, Donor.BloodGroup.B_NEGATIVE,
+            Donor.BloodGroup.O_POSITIVE, Donor.BloodGroup.O_NEGATIVE));
+        BLOOD.put(Donor.BloodGroup.AB_NEGATIVE, groups(Donor.BloodGroup.AB_NEGATIVE, Donor.BloodGroup.A_NEGATIVE,
+            Donor.BloodGroup.B_NEGATIVE, Donor.BloodGroup.O_NEGATIVE));
+        BLOOD.put(Donor.BloodGroup.AB_POSITIVE, groups(Donor.BloodGroup.values()));
+
+        List<Donor.BloodGroup> abOnly = groups(Donor.BloodGroup.AB_POSITIVE, Donor.BloodGroup.AB_NEGATIVE);
+        List<Donor.BloodGroup> aOrAb = groups(Donor.BloodGroup.A_POSITIVE, Donor.BloodGroup.A_NEGATIVE,
+            Donor.BloodGroup.AB_POSITIVE, Donor.BloodGroup.AB_NEGATIVE);
+        List<Donor.BloodGroup> bOrAb = groups(Donor.BloodGroup.B_POSITIVE, Donor.BloodGroup.B_NEGATIVE,
+            Donor.BloodGroup.AB_POSITIVE, Donor.BloodGroup.AB_NEGATIVE);
+        List<Donor.BloodGroup> any = groups(Donor.BloodGroup.values());
+        PLASMA.put(Donor.BloodGroup.AB_POSITIVE, abOnly);
+        PLASMA.put(Donor.BloodGroup.AB_NEGATIVE, abOnly);
+        PLASMA.put(Donor.BloodGroup.A_POSITIVE, aOrAb);
+        PLASMA.put(Donor.BloodGroup.A_NEGATIVE, aOrAb);
+        PLASMA.put(Donor.BloodGroup.B_POSITIVE, bOrAb);
+        PLASMA.put(Donor.BloodGroup.B_NEGATIVE, bOrAb);
+        PLASMA.put(Donor.BloodGroup.O_POSITIVE, any);
+        PLASMA.put(Donor.BloodGroup.O_NEGATIVE, any);
+    }
+
+    /**
+     * Donor groups a recipient can receive for the given product, preferred order first
+     * (the recipient's own group leads for red cells)
+     *
+     * @return Unmodifiable list
+     */
+    public static List<Donor.BloodGroup> donorGroupsFor(Donor.BloodGroup recipient, StockProduct product) {
+        return (product == StockProduct.PLASMA ? PLASMA : BLOOD).get(recipient);
+    }
+
+    /**
+     * Check if a donor group can be given to a recipient group
+     */
+    public static boolean isCompatible(Donor.BloodGroup donor, Donor.BloodGroup recipient, StockProduct product) {
+        return donorGroupsFor(recipient, product).contains(donor);
+    }
+
+    private static List<Donor.BloodGroup> groups(Donor.BloodGroup... groups) {
+        return Collections.unmodifiableList(Arrays.asList(groups));
+    }
+}
@@ -0,0 +1,121 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GeoGrid - Fixed-size latitude/longitude buckets for radius queries
+ * A query only visits the cells overlapping the radius's bounding box and
+ * checks the exact distance of the points in them, instead of every point.
+ * Not thread-safe; owners guard it with their own lock.
+ */
+public class GeoGrid<T> {
+
+    private final double cellDegrees;
+    private final Map<Long, List<Point<T>>> cells = new HashMap<>();
+
+    /**
+     * A value placed on the grid
+     */
+    private static final class Point<T> {
+        private final double latitude;
+        private final double longitude;
+        private final T value;
+
+        private Point(double latitude, double longitude, T value) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Value found by a radius query, with its distance from the query point
+     */
+    public static final class Hit<T> {
+        private final T value;
+        private final double distanceKm;
+
+        public Hit(T value, double distanceKm) {
+            this.value = value;
+            this.distanceKm = distanceKm;
+        }
+
+        public T getValue() { return value; }
+        public double getDistanceKm() { return distanceKm; }
+    }
+
+    /**
+     * @param cellDegrees Cell edge in degrees; about the typical query radius works best
+     */
+    public GeoGrid(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public void add(double latitude, double longitude, T value) {
+        cells.computeIfAbsent(cellOf(latitude, longitude), k -> new ArrayList<>())
+             .add(new Point<>(latitude, longitude, value));
+    }
+
+    /**
+     * Remove a value placed at the given coordinates
+     */
+    public boolean remove(double latitude, double longitude, T value) {
+        List<Point<T>> cell = cells.get(cellOf(latitude, longitude));
+        return cell != null && cell.removeIf(p -> p.value.equals(value));
+    }
+
+    public void clear() {
+        cells.clear();
+    }
+
+    /**
+     * Values within radiusKm of a point, nearest first
+     */
+    public List<Hit<T>> within(double latitude, double longitude, double radiusKm) {
+        double latDelta = GeoUtil.latitudeDelta(radiusKm);
+        double lonDelta = GeoUtil.longitudeDelta(radiusKm, latitude);
+
+        int minRow = row(latitude - latDelta);
+        int maxRow = row(latitude + latDelta);
+        int minCol = col(longitude - lonDelta);
+        int maxCol = col(longitude + lonDelta);
+
+        List<Hit<T>> hits = new ArrayList<>();
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                List<Point<T>> cell = cells.get(key(r, c));
+                if (cell == null) {
+                    continue;
+                }
+                for (Point<T> p : cell) {
+                    double distance = GeoUtil.distanceKm(latitude, longitude, p.latitude, p.longitude);
+                    if (distance <= radiusKm) {
+                        hits.add(new Hit<>(p.value, distance));
+                    }
+                }
+            }
+        }
+
+        hits.sort((a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return hits;
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(row(latitude), col(longitude));
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
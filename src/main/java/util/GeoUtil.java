@@ -0,0 +1,52 @@
+package util;
+
+/**
+ * GeoUtil - Distance helpers for latitude/longitude coordinates
+ */
+public class GeoUtil {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Length of one degree of latitude (and of longitude at the equator)
+    public static final double KM_PER_DEGREE = 111.195;
+
+    /**
+     * Great-circle distance between two coordinates using the Haversine formula
+     * @return Distance in kilometers
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Degrees of latitude spanned by a distance
+     */
+    public static double latitudeDelta(double km) {
+        return km / KM_PER_DEGREE;
+    }
+
+    /**
+     * Degrees of longitude spanned by a distance at a given latitude
+     * (capped near the poles, where a degree of longitude shrinks to nothing)
+     */
+    public static double longitudeDelta(double km, double latitude) {
+        double cos = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        return Math.min(180.0, km / (KM_PER_DEGREE * cos));
+    }
+
+    /**
+     * Check if a coordinate is the 0/0 placeholder stored for unknown locations
+     */
+    public static boolean isUnknown(double latitude, double longitude) {
+        return latitude == 0.0 && longitude == 0.0;
+    }
+}
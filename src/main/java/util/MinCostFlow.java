@@ -0,0 +1,116 @@
+package util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MinCostFlow - Successive shortest paths on a small directed graph
+ * Each round finds the cheapest augmenting path from source to sink
+ * (Bellman-Ford queue variant, so residual arcs with negative cost are fine)
+ * and pushes as much as it can carry. Meant for graphs of tens of nodes.
+ */
+public class MinCostFlow {
+
+    private final int nodeCount;
+    private final List<List<Integer>> adjacency = new ArrayList<>();
+
+    // Arc i and its residual twin i ^ 1 are stored side by side
+    private final List<Integer> to = new ArrayList<>();
+    private final List<Long> capacity = new ArrayList<>();
+    private final List<Long> cost = new ArrayList<>();
+    private final List<Long> flow = new ArrayList<>();
+
+    public MinCostFlow(int nodeCount) {
+        this.nodeCount = nodeCount;
+        for (int i = 0; i < nodeCount; i++) {
+            adjacency.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Add an arc
+     * @return Arc id, for reading its flow after solve()
+     */
+    public int addArc(int from, int toNode, long arcCapacity, long unitCost) {
+        int id = to.size();
+        addHalf(from, toNode, arcCapacity, unitCost);
+        addHalf(toNode, from, 0, -unitCost);
+        return id;
+    }
+
+    private void addHalf(int from, int toNode, long arcCapacity, long unitCost) {
+        adjacency.get(from).add(to.size());
+        to.add(toNode);
+        capacity.add(arcCapacity);
+        cost.add(unitCost);
+        flow.add(0L);
+    }
+
+    /**
+     * Send up to maxFlow units from source to sink at minimum total cost
+     * @return Units actually sent
+     */
+    public long solve(int source, int sink, long maxFlow) {
+        long sent = 0;
+        long[] dist = new long[nodeCount];
+        int[] viaArc = new int[nodeCount];
+        boolean[] queued = new boolean[nodeCount];
+
+        while (sent < maxFlow) {
+            Arrays.fill(dist, Long.MAX_VALUE);
+            Arrays.fill(viaArc, -1);
+            dist[source] = 0;
+
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(source);
+            queued[source] = true;
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                queued[node] = false;
+                for (int arc : adjacency.get(node)) {
+                    if (capacity.get(arc) - flow.get(arc) <= 0) {
+                        continue;
+                    }
+                    int next = to.get(arc);
+                    long candidate = dist[node] + cost.get(arc);
+                    if (candidate < dist[next]) {
+                        dist[next] = candidate;
+                        viaArc[next] = arc;
+                        if (!queued[next]) {
+                            queued[next] = true;
+                            queue.add(next);
+                        }
+                    }
+                }
+            }
+
+            if (dist[sink] == Long.MAX_VALUE) {
+                break; // No augmenting path left
+            }
+
+            long push = maxFlow - sent;
+            for (int node = sink; node != source; node = to.get(viaArc[node] ^ 1)) {
+                int arc = viaArc[node];
+                push = Math.min(push, capacity.get(arc) - flow.get(arc));
+            }
+            for (int node = sink; node != source; node = to.get(viaArc[node] ^ 1)) {
+                int arc = viaArc[node];
+                flow.set(arc, flow.get(arc) + push);
+                flow.set(arc ^ 1, flow.get(arc ^ 1) - push);
+            }
+            sent += push;
+        }
+
+        return sent;
+    }
+
+    /**
+     * Flow on an arc after solve()
+     */
+    public long getFlow(int arc) {
+        return flow.get(arc);
+    }
+}
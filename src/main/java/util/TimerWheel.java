@@ -0,0 +1,133 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TimerWheel - Hashed timing wheel for large numbers of cheap, cancellable timeouts
+ * (stock hold expiry, maintenance reminders, notification waves).
+ * Scheduling and cancelling are O(1): a timeout goes into the slot its deadline
+ * hashes to, with the number of full turns still to wait. One daemon thread
+ * advances the wheel every TICK_MS and runs what is due in its slot, so tasks
+ * should be short and hand heavy work elsewhere. Precision is one tick.
+ */
+public class TimerWheel {
+
+    private static final long TICK_MS = 1000;
+    private static final int SLOTS = 512; // One turn is ~8.5 minutes
+
+    private static TimerWheel instance;
+
+    private final List<List<Timeout>> wheel = new ArrayList<>();
+    private final Thread worker;
+    private long tick; // Ticks advanced so far
+    private final long startedAt;
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private long remainingTurns;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+        private Timeout(Runnable task, long remainingTurns) {
+            this.task = task;
+            this.remainingTurns = remainingTurns;
+        }
+
+        /**
+         * Cancel the task
+         * @return true if it had not run yet
+         */
+        public boolean cancel() {
+            cancelled = true;
+            return !done;
+        }
+
+        public boolean isCancelled() { return cancelled; }
+        public boolean isDone() { return done; }
+    }
+
+    private TimerWheel() {
+        for (int i = 0; i < SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.startedAt = System.currentTimeMillis();
+
+        this.worker = new Thread(this::run, "timer-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public static synchronized TimerWheel getInstance() {
+        if (instance == null) {
+            instance = new TimerWheel();
+        }
+        return instance;
+    }
+
+    /**
+     * Run a task once after a delay
+     */
+    public synchronized Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long ticks = Math.max(1, (unit.toMillis(delay) + TICK_MS - 1) / TICK_MS);
+        long deadline = tick + ticks;
+        Timeout timeout = new Timeout(task, (ticks - 1) / SLOTS);
+        wheel.get((int) (deadline % SLOTS)).add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (true) {
+            long nextTickAt = startedAt + (tick + 1) * TICK_MS;
+            long sleep = nextTickAt - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            for (Timeout timeout : advance()) {
+                if (timeout.cancelled) {
+                    continue;
+                }
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("✗ Scheduled task failed: " + e.getMessage());
+                } finally {
+                    timeout.done = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Move to the next slot and collect its due timeouts
+     */
+    private synchronized List<Timeout> advance() {
+        tick++;
+        List<Timeout> due = new ArrayList<>();
+
+        Iterator<Timeout> slot = wheel.get((int) (tick % SLOTS)).iterator();
+        while (slot.hasNext()) {
+            Timeout timeout = slot.next();
+            if (timeout.cancelled) {
+                slot.remove();
+            } else if (timeout.remainingTurns > 0) {
+                timeout.remainingTurns--;
+            } else {
+                slot.remove();
+                due.add(timeout);
+            }
+        }
+
+        return due;
+    }
+}
@@ -6,6 +6,17 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import config.DatabaseConfig;
+import config.MigrationRunner;
+import service.BatchMatchingService;
+import service.BloodUnitService;
+import service.DonorFanOutScheduler;
+import service.DonorReliabilityTracker;
+import service.InventoryIndex;
+import service.MaintenanceScheduler;
+import service.OccupancyService;
+import service.RedistributionOptimizer;
+import service.StockAdjustmentBuffer;
+import service.StockThresholdMonitor;
 
 /**
  * VitalAidApp - JavaFX Main Application
@@ -29,6 +40,35 @@ public class VitalAidApp extends Application {
         
         System.out.println("✓ Database connected successfully");
         
+        // Bring the schema (indexes, new tables) up to the current version
+        if (!MigrationRunner.getInstance().migrate()) {
+            showErrorAlert("Database Migration Failed", 
+                "Could not update the database schema. Please check the logs.");
+            return;
+        }
+        
+        // Follow stock writes: low stock alerts and the cross-hospital inventory index
+        StockThresholdMonitor.getInstance().start();
+        InventoryIndex.getInstance().start();
+        
+        // Expire bags past their date now and every midnight
+        BloodUnitService.getInstance().start();
+        
+        // Look for near-expiry stock worth moving every few minutes
+        RedistributionOptimizer.getInstance().start();
+        
+        // Take ventilators out of service when their maintenance falls due
+        MaintenanceScheduler.getInstance().start();
+        
+        // Live bed counters, written behind to ward_occupancy
+        OccupancyService.getInstance().start();
+        
+        // Donor answer rates, used to rank donors for matching
+        DonorReliabilityTracker.getInstance().start();
+        
+        // Match open blood/plasma requests per city without double-booking donors
+        BatchMatchingService.getInstance().start();
+        
         // Load the project front page screen
         showProjectFrontPage(); 
         
@@ -39,6 +79,22 @@ public class VitalAidApp extends Application {
         primaryStage.show();
     }
     
+    /**
+     * Write out buffered stock changes before the JVM exits
+     */
+    @Override
+    public void stop() {
+        BatchMatchingService.getInstance().shutdown();
+        DonorFanOutScheduler.getInstance().shutdown();
+        DonorReliabilityTracker.getInstance().shutdown();
+        RedistributionOptimizer.getInstance().shutdown();
+        MaintenanceScheduler.getInstance().shutdown();
+        BloodUnitService.getInstance().shutdown();
+        OccupancyService.getInstance().shutdown();
+        StockAdjustmentBuffer.getInstance().shutdown();
+        DatabaseConfig.getInstance().closeConnection();
+    }
+    
     /**
      * NEW: Method to show the initial project front page
      */
@@ -0,0 +1,6 @@
+-- Pending-queue indexes for the requests table.
+-- Hospital dashboard queue: status + hospital, then the queue order.
+CREATE INDEX idx_status_hospital_urgency_created ON requests (status, hospital_id, urgency, created_at);
+
+-- Global pending queue / critical alerts: status, then urgency and age.
+CREATE INDEX idx_status_urgency_created ON requests (status, urgency, created_at);
@@ -0,0 +1,5 @@
+-- Donor matching filters on blood group and availability, usually within a city.
+CREATE INDEX idx_blood_available_city ON donors (blood_group, is_available, city);
+
+-- Bounding-box lookups around a request location.
+CREATE INDEX idx_location ON donors (latitude, longitude);
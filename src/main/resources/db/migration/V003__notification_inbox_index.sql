@@ -0,0 +1,2 @@
+-- Unread inbox of a user, newest first.
+CREATE INDEX idx_user_read_created ON notifications (user_id, is_read, created_at);
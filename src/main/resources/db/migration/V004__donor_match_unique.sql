@@ -0,0 +1,11 @@
+-- A donor is matched to a request at most once.
+-- Drop duplicate rows left by repeated matching runs, keeping the first match.
+DELETE dup FROM donor_matches dup
+JOIN donor_matches keep ON keep.request_id = dup.request_id
+    AND keep.donor_id = dup.donor_id
+    AND keep.match_id < dup.match_id;
+
+CREATE UNIQUE INDEX uk_request_donor ON donor_matches (request_id, donor_id);
+
+-- The unique index leads with request_id and replaces the single-column index.
+DROP INDEX idx_request ON donor_matches;
@@ -0,0 +1,35 @@
+-- Append-only history of every stock change.
+CREATE TABLE IF NOT EXISTS stock_ledger (
+    entry_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    hospital_id INT NOT NULL,
+    blood_group ENUM('A+', 'A-', 'B+', 'B-', 'AB+', 'AB-', 'O+', 'O-') NOT NULL,
+    product ENUM('BLOOD', 'PLASMA') NOT NULL,
+    delta_ml INT NOT NULL,
+    reason VARCHAR(30) NOT NULL,
+    request_id INT NULL,
+    created_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+    FOREIGN KEY (hospital_id) REFERENCES hospitals(hospital_id) ON DELETE CASCADE,
+    INDEX idx_line_entry (hospital_id, blood_group, product, entry_id),
+    INDEX idx_created (created_at)
+) ENGINE=InnoDB;
+
+-- Compacted levels: quantity of a stock line after all ledger entries up to last_entry_id.
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    snapshot_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    hospital_id INT NOT NULL,
+    blood_group ENUM('A+', 'A-', 'B+', 'B-', 'AB+', 'AB-', 'O+', 'O-') NOT NULL,
+    product ENUM('BLOOD', 'PLASMA') NOT NULL,
+    quantity_ml INT NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    taken_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+    FOREIGN KEY (hospital_id) REFERENCES hospitals(hospital_id) ON DELETE CASCADE,
+    INDEX idx_line_snapshot (hospital_id, blood_group, product, snapshot_id),
+    INDEX idx_line_taken (hospital_id, blood_group, product, taken_at)
+) ENGINE=InnoDB;
+
+-- Opening balances: today's stock tables become the first snapshot of every line.
+INSERT INTO stock_snapshots (hospital_id, blood_group, product, quantity_ml, last_entry_id)
+SELECT hospital_id, blood_group, 'BLOOD', quantity_ml, 0 FROM blood_stock;
+
+INSERT INTO stock_snapshots (hospital_id, blood_group, product, quantity_ml, last_entry_id)
+SELECT hospital_id, blood_group, 'PLASMA', quantity_ml, 0 FROM plasma_stock;
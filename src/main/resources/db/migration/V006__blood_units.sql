@@ -0,0 +1,19 @@
+-- Bag-level inventory: one row per collected unit.
+-- blood_stock / plasma_stock quantities and expiry dates are derived from these rows.
+CREATE TABLE IF NOT EXISTS blood_units (
+    unit_id INT PRIMARY KEY AUTO_INCREMENT,
+    hospital_id INT NOT NULL,
+    bag_number VARCHAR(50) UNIQUE NOT NULL,
+    blood_group ENUM('A+', 'A-', 'B+', 'B-', 'AB+', 'AB-', 'O+', 'O-') NOT NULL,
+    product ENUM('BLOOD', 'PLASMA') NOT NULL,
+    volume_ml INT NOT NULL,
+    collected_on DATE NOT NULL,
+    expires_on DATE NOT NULL,
+    status ENUM('AVAILABLE', 'ISSUED', 'EXPIRED', 'DISCARDED') DEFAULT 'AVAILABLE',
+    request_id INT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (hospital_id) REFERENCES hospitals(hospital_id) ON DELETE CASCADE,
+    FOREIGN KEY (request_id) REFERENCES requests(request_id) ON DELETE SET NULL,
+    INDEX idx_line_status_expiry (hospital_id, blood_group, product, status, expires_on)
+) ENGINE=InnoDB;
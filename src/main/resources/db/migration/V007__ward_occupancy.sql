@@ -0,0 +1,14 @@
+-- Bed occupancy per hospital ward, written behind the in-memory counters of OccupancyService.
+CREATE TABLE IF NOT EXISTS ward_occupancy (
+    hospital_id INT NOT NULL,
+    ward ENUM('GENERAL', 'ICU') NOT NULL,
+    capacity INT NOT NULL DEFAULT 0,
+    occupied INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (hospital_id, ward),
+    FOREIGN KEY (hospital_id) REFERENCES hospitals(hospital_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- General ward capacity starts from the registered bed capacity; ICU capacity is set by each hospital.
+INSERT IGNORE INTO ward_occupancy (hospital_id, ward, capacity)
+SELECT hospital_id, 'GENERAL', bed_capacity FROM hospitals WHERE bed_capacity IS NOT NULL;
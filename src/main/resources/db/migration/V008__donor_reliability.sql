@@ -0,0 +1,20 @@
+-- Per-donor response statistics, written behind the in-memory counters of DonorReliabilityTracker.
+CREATE TABLE IF NOT EXISTS donor_reliability (
+    donor_id INT PRIMARY KEY,
+    notified INT NOT NULL DEFAULT 0,
+    accepted INT NOT NULL DEFAULT 0,
+    rejected INT NOT NULL DEFAULT 0,
+    avg_response_seconds DOUBLE NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (donor_id) REFERENCES donors(donor_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Start from the matches recorded so far.
+INSERT IGNORE INTO donor_reliability (donor_id, notified, accepted, rejected, avg_response_seconds)
+SELECT donor_id,
+       COUNT(*),
+       SUM(donor_response = 'ACCEPTED'),
+       SUM(donor_response = 'REJECTED'),
+       AVG(TIMESTAMPDIFF(SECOND, created_at, response_time))
+FROM donor_matches
+GROUP BY donor_id;
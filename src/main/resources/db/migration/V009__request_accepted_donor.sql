@@ -0,0 +1,5 @@
+-- The donor whose acceptance claimed a request (first accept wins).
+ALTER TABLE requests
+    ADD COLUMN accepted_donor_id INT NULL AFTER hospital_id,
+    ADD CONSTRAINT fk_requests_accepted_donor FOREIGN KEY (accepted_donor_id)
+        REFERENCES donors(donor_id) ON DELETE SET NULL;
@@ -0,0 +1,41 @@
+-- Stock recorded before bag-level inventory has no bags, so it could be held but never issued.
+-- Each line's bagless volume becomes placeholder bags of the standard size (450 ml blood,
+-- 200 ml plasma; the last bag takes the remainder) carrying the line's expiry date.
+-- Only volume not already covered by available bags is converted, so a re-run adds nothing.
+INSERT INTO blood_units (hospital_id, bag_number, blood_group, product, volume_ml, collected_on, expires_on)
+WITH RECURSIVE bags (n) AS (
+    SELECT 0 UNION ALL SELECT n + 1 FROM bags WHERE n < 999
+),
+legacy AS (
+    SELECT s.hospital_id, s.blood_group,
+           s.quantity_ml - COALESCE(SUM(u.volume_ml), 0) AS bagless_ml,
+           COALESCE(s.expiry_date, DATE_ADD(CURDATE(), INTERVAL 30 DAY)) AS expires_on
+    FROM blood_stock s
+    LEFT JOIN blood_units u ON u.hospital_id = s.hospital_id AND u.blood_group = s.blood_group
+        AND u.product = 'BLOOD' AND u.status = 'AVAILABLE'
+    GROUP BY s.stock_id, s.hospital_id, s.blood_group, s.quantity_ml, s.expiry_date
+)
+SELECT l.hospital_id, CONCAT('LEGACY-B-', l.hospital_id, '-', l.blood_group, '-', b.n + 1), l.blood_group,
+       'BLOOD', LEAST(450, l.bagless_ml - b.n * 450), DATE_SUB(l.expires_on, INTERVAL 30 DAY), l.expires_on
+FROM legacy l
+JOIN bags b ON b.n * 450 < l.bagless_ml
+WHERE l.bagless_ml > 0;
+
+INSERT INTO blood_units (hospital_id, bag_number, blood_group, product, volume_ml, collected_on, expires_on)
+WITH RECURSIVE bags (n) AS (
+    SELECT 0 UNION ALL SELECT n + 1 FROM bags WHERE n < 999
+),
+legacy AS (
+    SELECT s.hospital_id, s.blood_group,
+           s.quantity_ml - COALESCE(SUM(u.volume_ml), 0) AS bagless_ml,
+           COALESCE(s.expiry_date, DATE_ADD(CURDATE(), INTERVAL 60 DAY)) AS expires_on
+    FROM plasma_stock s
+    LEFT JOIN blood_units u ON u.hospital_id = s.hospital_id AND u.blood_group = s.blood_group
+        AND u.product = 'PLASMA' AND u.status = 'AVAILABLE'
+    GROUP BY s.plasma_id, s.hospital_id, s.blood_group, s.quantity_ml, s.expiry_date
+)
+SELECT l.hospital_id, CONCAT('LEGACY-P-', l.hospital_id, '-', l.blood_group, '-', b.n + 1), l.blood_group,
+       'PLASMA', LEAST(200, l.bagless_ml - b.n * 200), DATE_SUB(l.expires_on, INTERVAL 60 DAY), l.expires_on
+FROM legacy l
+JOIN bags b ON b.n * 200 < l.bagless_ml
+WHERE l.bagless_ml > 0;